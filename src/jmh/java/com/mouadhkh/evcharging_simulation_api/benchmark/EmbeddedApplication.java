@@ -0,0 +1,33 @@
+package com.mouadhkh.evcharging_simulation_api.benchmark;
+
+import com.mouadhkh.evcharging_simulation_api.EVChargingSimulationApiApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the application against an in-memory H2 database so benchmarks run without the PostgreSQL container.
+ * The PostgreSQL specific startup migrations and the job worker are switched off, the schema is created from the
+ * entities.
+ */
+final class EmbeddedApplication {
+
+    private EmbeddedApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(EVChargingSimulationApiApplication.class)
+                .web(WebApplicationType.NONE)
+                // passed as command line arguments, which take precedence over application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--simulation.migration.enabled=false",
+                        // the job queue relies on FOR UPDATE SKIP LOCKED
+                        "--simulation.jobs.worker.enabled=false",
+                        "--logging.level.root=WARN");
+    }
+}
@@ -0,0 +1,81 @@
+package com.mouadhkh.evcharging_simulation_api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORMapper;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.service.NativeSimulationEngine;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationResultMapper;
+import com.mouadhkh.evcharging_simulation_api.web.SimulationResultProtobufWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding one simulation result per response format. The size in bytes of each format, raw and gzipped, is
+ * printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultFormatBenchmark {
+
+    @Param({"20", "500"})
+    public int chargePoints;
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private SimulationResultDTO result;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonMapper = JsonMapper.builder().findAndAddModules().build();
+        cborMapper = CBORMapper.builder().findAndAddModules().build();
+        SimulationInput input = SimulationInput.builder().numberOfChargePoints(chargePoints).build();
+        result = new SimulationResultMapper().toDTO(new NativeSimulationEngine().simulate(input, 42));
+
+        System.out.printf("%n%d charge points: json %d bytes (gzip %d), cbor %d bytes (gzip %d), protobuf %d bytes (gzip %d)%n",
+                chargePoints, json().length, gzip(json()).length, cbor().length, gzip(cbor()).length,
+                protobuf().length, gzip(protobuf()).length);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return jsonMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] cbor() throws IOException {
+        return cborMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] protobuf() {
+        return SimulationResultProtobufWriter.encode(result);
+    }
+
+    @Benchmark
+    public byte[] jsonGzip() throws IOException {
+        return gzip(json());
+    }
+
+    @Benchmark
+    public byte[] protobufGzip() throws IOException {
+        return gzip(protobuf());
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+}
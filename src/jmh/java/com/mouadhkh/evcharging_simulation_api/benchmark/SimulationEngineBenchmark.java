@@ -0,0 +1,43 @@
+package com.mouadhkh.evcharging_simulation_api.benchmark;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import com.mouadhkh.evcharging_simulation_api.service.ExternalSimulationEngine;
+import com.mouadhkh.evcharging_simulation_api.service.NativeSimulationEngine;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full simulated year on each engine, including the mapping to the entity, by station size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationEngineBenchmark {
+
+    @Param({"20", "200", "1000"})
+    public int chargePoints;
+
+    @Param({"external", "native"})
+    public String engine;
+
+    private SimulationEngine simulationEngine;
+    private SimulationInput simulationInput;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        simulationEngine = "native".equals(engine) ? new NativeSimulationEngine() : new ExternalSimulationEngine();
+        simulationInput = SimulationInput.builder().numberOfChargePoints(chargePoints).build();
+    }
+
+    @Benchmark
+    public SimulationResult simulateYear() {
+        return simulationEngine.simulate(simulationInput, seed++);
+    }
+}
@@ -0,0 +1,86 @@
+package com.mouadhkh.evcharging_simulation_api.benchmark;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationInputRepository;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationResultRepository;
+import com.mouadhkh.evcharging_simulation_api.service.ExternalSimulationEngine;
+import com.mouadhkh.simulator.ChargingStationSimulator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert and read of a single result through the JPA repositories against an embedded database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationPersistenceBenchmark {
+
+    private static final int STORED_RESULTS = 200;
+
+    @Param({"5", "500"})
+    public int chargePoints;
+
+    private ConfigurableApplicationContext context;
+    private SimulationResultRepository simulationResultRepository;
+    private TransactionTemplate transactionTemplate;
+    private SimulationInput simulationInput;
+    private SimulationResult template;
+    private long[] storedIds;
+    private int nextRead;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedApplication.start("persistence-benchmark-" + chargePoints);
+        simulationResultRepository = context.getBean(SimulationResultRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        simulationInput = context.getBean(SimulationInputRepository.class)
+                .save(SimulationInput.builder().numberOfChargePoints(chargePoints).build());
+        template = new ExternalSimulationEngine().toEntity(new ChargingStationSimulator(chargePoints, 1.0).run());
+
+        storedIds = new long[STORED_RESULTS];
+        for (int i = 0; i < STORED_RESULTS; i++) {
+            storedIds[i] = persistResult();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long persistResult() {
+        return transactionTemplate.execute(status -> simulationResultRepository.save(copyOfTemplate()).getId());
+    }
+
+    @Benchmark
+    public SimulationResult readResult() {
+        long id = storedIds[nextRead++ % storedIds.length];
+        return transactionTemplate.execute(status -> simulationResultRepository.findById(id).orElseThrow());
+    }
+
+    private SimulationResult copyOfTemplate() {
+        return SimulationResult.builder()
+                .simulationInput(simulationInput)
+                .totalEnergyCharged(template.getTotalEnergyCharged())
+                .actualMaxPowerDemand(template.getActualMaxPowerDemand())
+                .theoreticalMaxPowerDemand(template.getTheoreticalMaxPowerDemand())
+                .concurrencyFactor(template.getConcurrencyFactor())
+                .utilizationRates(template.getUtilizationRates())
+                .averagePowers(template.getAveragePowers())
+                .exemplaryDay(template.getExemplaryDay())
+                .eventsPerYear(template.getEventsPerYear())
+                .eventsPerMonth(template.getEventsPerMonth())
+                .eventsPerWeek(template.getEventsPerWeek())
+                .eventsPerDay(template.getEventsPerDay())
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.mouadhkh.evcharging_simulation_api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import com.mouadhkh.evcharging_simulation_api.service.ExternalSimulationEngine;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationResultMapper;
+import com.mouadhkh.simulator.ChargingStationSimulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The steps of a simulation run in SimulationServiceImpl, measured separately: the simulator itself, mapping its
+ * outcome to the entity, mapping the entity to the DTO and serializing the DTO to JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationServiceBenchmark {
+
+    @Param({"5", "500"})
+    public int chargePoints;
+
+    private final ExternalSimulationEngine externalSimulationEngine = new ExternalSimulationEngine();
+    private final SimulationResultMapper simulationResultMapper = new SimulationResultMapper();
+    private ObjectMapper objectMapper;
+    private com.mouadhkh.simulator.simulation.SimulationResult simulatorResult;
+    private SimulationResult simulationResult;
+    private SimulationResultDTO simulationResultDTO;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        simulatorResult = new ChargingStationSimulator(chargePoints, 1.0).run();
+        simulationResult = externalSimulationEngine.toEntity(simulatorResult);
+        simulationResultDTO = simulationResultMapper.toDTO(simulationResult);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public com.mouadhkh.simulator.simulation.SimulationResult simulatorRun() {
+        return new ChargingStationSimulator(chargePoints, 1.0).run();
+    }
+
+    @Benchmark
+    public SimulationResult metricMapping() {
+        return externalSimulationEngine.toEntity(simulatorResult);
+    }
+
+    @Benchmark
+    public SimulationResultDTO convertToDTO() {
+        return simulationResultMapper.toDTO(simulationResult);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(simulationResultDTO);
+    }
+}
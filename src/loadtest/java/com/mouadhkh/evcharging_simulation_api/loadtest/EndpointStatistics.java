@@ -0,0 +1,83 @@
+package com.mouadhkh.evcharging_simulation_api.loadtest;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mouadhkh.evcharging_simulation_api.statistics.QuantileSketch;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcomes of the requests of one operation. Latencies are kept in a quantile sketch, memory does not grow with the
+ * number of requests. Thread-safe, responses complete on the threads of the HTTP client.
+ */
+final class EndpointStatistics {
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99, 0.999};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p95", "p99", "p999"};
+
+    private final QuantileSketch latencyMillis = new QuantileSketch(0.01);
+    private final Map<String, Long> statusCounts = new TreeMap<>();
+    private long requests;
+    private long succeeded;
+    private long rejected;
+    private long failed;
+    private double latencySum;
+    private double latencyMax;
+
+    /**
+     * @param status the HTTP status, 0 if the request failed without a response (timeout, connection error)
+     */
+    synchronized void record(int status, double latency) {
+        requests++;
+        statusCounts.merge(status == 0 ? "none" : String.valueOf(status), 1L, Long::sum);
+        if (status >= 200 && status < 300) {
+            succeeded++;
+        } else if (status == 429) {
+            // shed by the admission control, a healthy answer to overload
+            rejected++;
+        } else {
+            failed++;
+        }
+        latencyMillis.add(latency);
+        latencySum += latency;
+        latencyMax = Math.max(latencyMax, latency);
+    }
+
+    synchronized void merge(EndpointStatistics other) {
+        synchronized (other) {
+            requests += other.requests;
+            succeeded += other.succeeded;
+            rejected += other.rejected;
+            failed += other.failed;
+            latencyMillis.merge(other.latencyMillis);
+            latencySum += other.latencySum;
+            latencyMax = Math.max(latencyMax, other.latencyMax);
+            other.statusCounts.forEach((status, count) -> statusCounts.merge(status, count, Long::sum));
+        }
+    }
+
+    synchronized ObjectNode toJson(double seconds) {
+        ObjectNode json = JsonNodeFactory.instance.objectNode();
+        json.put("requests", requests);
+        json.put("succeeded", succeeded);
+        json.put("rejected", rejected);
+        json.put("failed", failed);
+        json.put("throughputPerSecond", requests / seconds);
+        json.put("goodputPerSecond", succeeded / seconds);
+        ObjectNode latency = json.putObject("latencyMillis");
+        latency.put("mean", requests == 0 ? 0 : latencySum / requests);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            latency.put(PERCENTILE_NAMES[i], requests == 0 ? 0 : latencyMillis.quantile(PERCENTILES[i]));
+        }
+        latency.put("max", latencyMax);
+        ObjectNode statuses = json.putObject("statusCodes");
+        statusCounts.forEach(statuses::put);
+        return json;
+    }
+
+    synchronized String summary(double seconds) {
+        return String.format("%8d %10.1f %8d %8d %10.1f %10.1f %10.1f", requests, requests / seconds, rejected, failed,
+                requests == 0 ? 0 : latencyMillis.quantile(0.5), requests == 0 ? 0 : latencyMillis.quantile(0.99),
+                latencyMax);
+    }
+}
@@ -0,0 +1,279 @@
+package com.mouadhkh.evcharging_simulation_api.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mouadhkh.evcharging_simulation_api.EVChargingSimulationApiApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test of the HTTP API of one instance, booted against an in-memory H2 database so it runs offline:
+ * mvn -Ploadtest test-compile exec:exec [-Dloadtest.args="rate=50 duration=PT2M mix=run:1,read:9"]
+ * <p>
+ * The load is an open model: requests arrive as a Poisson process at the given rate no matter how fast earlier ones
+ * are answered, like independent users do. A saturated instance therefore shows up as growing latency and rejections
+ * instead of a silently lower request rate, and latency is measured from the scheduled arrival rather than from the
+ * actual send, so a late client does not hide server delays. Arrivals, operations and parameters are drawn from a
+ * seeded random generator, two runs with the same options send the same sequence of requests.
+ * <p>
+ * Before the test seed-inputs simulations are run for reads to find results, requests of the warmup are sent but
+ * not measured. The report (throughput and latency percentiles per operation) is written as JSON.
+ */
+public final class LoadTest {
+    private static final String HEADER_FORMAT = "%-14s %8s %10s %8s %8s %10s %10s %10s%n";
+
+    private final LoadTestOptions options;
+    private final URI baseUri;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // ids of stored results and inputs, read requests pick from them
+    private final List<Long> resultIds = new ArrayList<>();
+    private final List<Long> inputIds = new ArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private LoadTest(LoadTestOptions options, URI baseUri) {
+        this.options = options;
+        this.baseUri = baseUri;
+        // Tomcat does not upgrade plain connections to HTTP/2
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        try (ConfigurableApplicationContext context = start(options)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            new LoadTest(options, URI.create("http://localhost:" + port)).run();
+        }
+    }
+
+    /**
+     * Boots the application on a random port against an in-memory H2 database. Like the benchmarks the PostgreSQL
+     * specific startup migration and the job worker are switched off and the schema is created from the entities.
+     * Application arguments of the options replace these defaults.
+     */
+    private static ConfigurableApplicationContext start(LoadTestOptions options) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("simulation.migration.enabled", "false");
+        // the job queue relies on FOR UPDATE SKIP LOCKED
+        properties.put("simulation.jobs.worker.enabled", "false");
+        properties.put("simulation.archive.directory", "target/loadtest-archive");
+        properties.put("logging.level.root", "WARN");
+        for (String argument : options.applicationArguments) {
+            int separator = argument.indexOf('=');
+            properties.put(argument.substring(2, separator < 0 ? argument.length() : separator),
+                    separator < 0 ? "true" : argument.substring(separator + 1));
+        }
+        // passed as command line arguments, which take precedence over application.properties
+        return new SpringApplicationBuilder(EVChargingSimulationApiApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+    }
+
+    private void run() throws IOException, InterruptedException {
+        seed();
+        SplittableRandom random = new SplittableRandom(options.seed);
+        Map<LoadTestOperation, EndpointStatistics> statistics = new EnumMap<>(LoadTestOperation.class);
+        List<LoadTestOperation> operations = new ArrayList<>();
+        List<Integer> cumulativeWeights = new ArrayList<>();
+        int totalWeight = 0;
+        for (Map.Entry<LoadTestOperation, Integer> entry : options.mix.entrySet()) {
+            if (entry.getValue() > 0) {
+                totalWeight += entry.getValue();
+                operations.add(entry.getKey());
+                cumulativeWeights.add(totalWeight);
+                statistics.put(entry.getKey(), new EndpointStatistics());
+            }
+        }
+
+        System.out.printf("Sending %.1f requests/s for %s after a warmup of %s%n", options.rate, options.duration, options.warmup);
+        double meanIntervalNanos = 1e9 / options.rate;
+        long start = System.nanoTime();
+        long measurementStart = start + options.warmup.toNanos();
+        long end = measurementStart + options.duration.toNanos();
+        long scheduled = start;
+        long arrivals = 0;
+        while (true) {
+            // exponential inter-arrival times make a Poisson process
+            scheduled += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            if (scheduled >= end) {
+                break;
+            }
+            long remaining;
+            while ((remaining = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+            int draw = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights.get(index) <= draw) {
+                index++;
+            }
+            LoadTestOperation operation = operations.get(index);
+            boolean measured = scheduled >= measurementStart;
+            if (measured) {
+                arrivals++;
+            }
+            send(operation, operation.request(this, random), scheduled, measured ? statistics.get(operation) : null);
+        }
+
+        // requests still open after the timeout are reported as unfinished
+        long deadline = System.nanoTime() + options.timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        report(statistics, arrivals, inFlight.get());
+    }
+
+    private void send(LoadTestOperation operation, HttpRequest.Builder request, long scheduled, EndpointStatistics statistics) {
+        inFlight.incrementAndGet();
+        httpClient.sendAsync(request.timeout(options.timeout).build(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, failure) -> {
+                    double latencyMillis = (System.nanoTime() - scheduled) / 1e6;
+                    try {
+                        if (statistics != null) {
+                            statistics.record(failure == null ? response.statusCode() : 0, latencyMillis);
+                        }
+                        if (failure == null && response.statusCode() == 200 && operation.createsResult()) {
+                            addResult(response.body(), operation == LoadTestOperation.RUN);
+                        }
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+    }
+
+    // a stored result for every configured number of charge points, so reads have something to find from the start
+    private void seed() throws IOException, InterruptedException {
+        System.out.printf("Seeding %d simulation results%n", options.seedInputs);
+        for (int i = 0; i < options.seedInputs; i++) {
+            int chargePoints = options.chargePoints[i % options.chargePoints.length];
+            HttpRequest request = HttpRequest.newBuilder(uri("/api/run-simulation" + engineQuery()))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"numberOfChargePoints\":" + chargePoints + "}"))
+                    .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode() + ": "
+                        + new String(response.body()));
+            }
+            addResult(response.body(), true);
+        }
+    }
+
+    private void addResult(byte[] body, boolean newInput) {
+        try {
+            JsonNode result = objectMapper.readTree(body);
+            synchronized (resultIds) {
+                resultIds.add(result.get("id").asLong());
+            }
+            if (newInput) {
+                synchronized (inputIds) {
+                    inputIds.add(result.get("simulationInputId").asLong());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable simulation result", e);
+        }
+    }
+
+    private void report(Map<LoadTestOperation, EndpointStatistics> statistics, long arrivals, int unfinished) throws IOException {
+        double seconds = options.duration.toNanos() / 1e9;
+        EndpointStatistics total = new EndpointStatistics();
+        statistics.values().forEach(total::merge);
+
+        ObjectNode report = objectMapper.createObjectNode();
+        report.put("generatedAt", Instant.now().toString());
+        ObjectNode settings = report.putObject("options");
+        settings.put("rate", options.rate);
+        settings.put("warmupSeconds", options.warmup.toNanos() / 1e9);
+        settings.put("durationSeconds", seconds);
+        settings.put("timeoutSeconds", options.timeout.toNanos() / 1e9);
+        ObjectNode mix = settings.putObject("mix");
+        options.mix.forEach((operation, weight) -> mix.put(operation.getName(), weight));
+        ArrayNode chargePoints = settings.putArray("chargePoints");
+        for (int count : options.chargePoints) {
+            chargePoints.add(count);
+        }
+        settings.put("engine", options.engine);
+        settings.put("seedInputs", options.seedInputs);
+        settings.put("seed", options.seed);
+        report.put("offeredRatePerSecond", arrivals / seconds);
+        report.put("unfinished", unfinished);
+        report.set("total", total.toJson(seconds));
+        ObjectNode endpoints = report.putObject("operations");
+        statistics.forEach((operation, operationStatistics) -> endpoints.set(operation.getName(), operationStatistics.toJson(seconds)));
+
+        if (options.report.getParent() != null) {
+            Files.createDirectories(options.report.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(options.report.toFile(), report);
+
+        System.out.printf(HEADER_FORMAT, "operation", "requests", "per second", "rejected", "failed", "p50 ms", "p99 ms", "max ms");
+        statistics.forEach((operation, operationStatistics) ->
+                System.out.printf("%-14s %s%n", operation.getName(), operationStatistics.summary(seconds)));
+        System.out.printf("%-14s %s%n", "total", total.summary(seconds));
+        if (unfinished > 0) {
+            System.out.printf("%d requests were still unanswered after the timeout%n", unfinished);
+        }
+        System.out.printf("Report written to %s%n", options.report.toAbsolutePath());
+    }
+
+    URI uri(String path) {
+        return baseUri.resolve(path);
+    }
+
+    String engineQuery() {
+        return options.engine == null ? "" : "?engine=" + options.engine;
+    }
+
+    // the configured numbers of charge points and arrival probabilities between 0.5 and 2
+    String inputJson(SplittableRandom random) {
+        int chargePoints = options.chargePoints[random.nextInt(options.chargePoints.length)];
+        double multiplier = (5 + random.nextInt(16)) / 10.0;
+        return "{\"numberOfChargePoints\":" + chargePoints + ",\"arrivalProbabilityMultiplier\":" + multiplier + "}";
+    }
+
+    long randomResultId(SplittableRandom random) {
+        synchronized (resultIds) {
+            return resultIds.get(random.nextInt(resultIds.size()));
+        }
+    }
+
+    long randomInputId(SplittableRandom random) {
+        synchronized (inputIds) {
+            return inputIds.get(random.nextInt(inputIds.size()));
+        }
+    }
+}
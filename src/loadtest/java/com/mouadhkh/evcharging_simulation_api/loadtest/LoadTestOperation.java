@@ -0,0 +1,79 @@
+package com.mouadhkh.evcharging_simulation_api.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * The SimulationController calls a load test mixes, by the name used in the mix option and the report.
+ */
+enum LoadTestOperation {
+    RUN("run", true) {
+        @Override
+        HttpRequest.Builder request(LoadTest test, SplittableRandom random) {
+            return HttpRequest.newBuilder(test.uri("/api/run-simulation" + test.engineQuery()))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(test.inputJson(random)));
+        }
+    },
+    RUN_BY_INPUT("run-by-input", true) {
+        @Override
+        HttpRequest.Builder request(LoadTest test, SplittableRandom random) {
+            return HttpRequest.newBuilder(test.uri("/api/run-simulation/" + test.randomInputId(random) + test.engineQuery()))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+        }
+    },
+    READ("read", false) {
+        @Override
+        HttpRequest.Builder request(LoadTest test, SplittableRandom random) {
+            return HttpRequest.newBuilder(test.uri("/api/simulation-results/" + test.randomResultId(random))).GET();
+        }
+    },
+    READ_BY_INPUT("read-by-input", false) {
+        @Override
+        HttpRequest.Builder request(LoadTest test, SplittableRandom random) {
+            return HttpRequest.newBuilder(test.uri("/api/simulation-results-by-input/" + test.randomInputId(random))).GET();
+        }
+    },
+    LIST("list", false) {
+        @Override
+        HttpRequest.Builder request(LoadTest test, SplittableRandom random) {
+            return HttpRequest.newBuilder(test.uri("/api/simulation-results?size=20&page=" + random.nextInt(5))).GET();
+        }
+    },
+    CURSOR("cursor", false) {
+        @Override
+        HttpRequest.Builder request(LoadTest test, SplittableRandom random) {
+            return HttpRequest.newBuilder(test.uri("/api/simulation-results/cursor?limit=50&after="
+                    + Math.max(0, test.randomResultId(random) - 1))).GET();
+        }
+    };
+
+    private final String name;
+    // runs return a new result, whose id is read from the response and requested by later reads
+    private final boolean createsResult;
+
+    LoadTestOperation(String name, boolean createsResult) {
+        this.name = name;
+        this.createsResult = createsResult;
+    }
+
+    abstract HttpRequest.Builder request(LoadTest test, SplittableRandom random);
+
+    String getName() {
+        return name;
+    }
+
+    boolean createsResult() {
+        return createsResult;
+    }
+
+    static LoadTestOperation parse(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + name + ", use "
+                        + Arrays.stream(values()).map(LoadTestOperation::getName).collect(Collectors.joining(", "))));
+    }
+}
@@ -0,0 +1,93 @@
+package com.mouadhkh.evcharging_simulation_api.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of a load test, given as name=value arguments. Arguments starting with -- are passed on to the
+ * application, e.g. --spring.datasource.url=... to test against PostgreSQL instead of the embedded database.
+ */
+final class LoadTestOptions {
+    // roughly a dashboard: mostly reads, some listings, few simulations
+    private static final String DEFAULT_MIX = "run:1,run-by-input:1,read:10,read-by-input:2,list:3,cursor:3";
+
+    double rate = 20;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(60);
+    Duration timeout = Duration.ofSeconds(30);
+    Map<LoadTestOperation, Integer> mix = parseMix(DEFAULT_MIX);
+    int[] chargePoints = {5, 20, 100, 500};
+    String engine;
+    int seedInputs = 20;
+    long seed = 42;
+    Path report = Path.of("target", "loadtest-report.json");
+    final List<String> applicationArguments = new ArrayList<>();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            if (arg.startsWith("--")) {
+                options.applicationArguments.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected name=value, got: " + arg);
+            }
+            String value = arg.substring(separator + 1).trim();
+            switch (arg.substring(0, separator).trim()) {
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "warmup" -> options.warmup = Duration.parse(value);
+                case "duration" -> options.duration = Duration.parse(value);
+                case "timeout" -> options.timeout = Duration.parse(value);
+                case "mix" -> options.mix = parseMix(value);
+                case "charge-points" -> options.chargePoints = Arrays.stream(value.split(","))
+                        .mapToInt(chargePoints -> Integer.parseInt(chargePoints.trim())).toArray();
+                case "engine" -> options.engine = value.isEmpty() ? null : value;
+                case "seed-inputs" -> options.seedInputs = Integer.parseInt(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "report" -> options.report = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg.substring(0, separator)
+                        + ", use rate, warmup, duration, timeout, mix, charge-points, engine, seed-inputs, seed or report");
+            }
+        }
+        if (options.rate <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        if (options.seedInputs < 1) {
+            throw new IllegalArgumentException("At least one seed input is needed");
+        }
+        if (options.chargePoints.length == 0) {
+            throw new IllegalArgumentException("At least one number of charge points is needed");
+        }
+        return options;
+    }
+
+    // e.g. run:1,read:10, operations left out are not requested
+    private static Map<LoadTestOperation, Integer> parseMix(String mix) {
+        Map<LoadTestOperation, Integer> weights = new EnumMap<>(LoadTestOperation.class);
+        for (String entry : mix.split(",")) {
+            String[] operationAndWeight = entry.trim().split(":");
+            if (operationAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in the mix, got: " + entry);
+            }
+            int weight = Integer.parseInt(operationAndWeight[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights of the mix must not be negative");
+            }
+            weights.put(LoadTestOperation.parse(operationAndWeight[0].trim()), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,465 @@
+package com.mouadhkh.evcharging_simulation_api.archive;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * An immutable file of archived results, memory-mapped for reading.
+ * <p>
+ * Results are ordered by id and grouped into stripes of {@link #STRIPE_ROWS}. A stripe starts with its ids
+ * uncompressed, so lookups binary search them in place, followed by all other fields stored column by column and
+ * deflated together: the values of one column are alike, which compresses far better than row by row. The footer
+ * holds the sparse index, one entry per stripe with its offset and its id and input id range, and is all that is
+ * kept in memory.
+ */
+public final class ResultSegment {
+    static final int STRIPE_ROWS = 64;
+    private static final int MAGIC = 0x53524553; // "SRES"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int TRAILER_BYTES = 16;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long[] stripeOffsets;
+    private final int[] stripeRows;
+    private final long[] firstIds;
+    private final long[] lastIds;
+    private final long[] minInputIds;
+    private final long[] maxInputIds;
+
+    private ResultSegment(Path path, MappedByteBuffer buffer, long[] stripeOffsets, int[] stripeRows, long[] firstIds,
+                          long[] lastIds, long[] minInputIds, long[] maxInputIds) {
+        this.path = path;
+        this.buffer = buffer;
+        this.stripeOffsets = stripeOffsets;
+        this.stripeRows = stripeRows;
+        this.firstIds = firstIds;
+        this.lastIds = lastIds;
+        this.minInputIds = minInputIds;
+        this.maxInputIds = maxInputIds;
+    }
+
+    /**
+     * Writes the results into a new segment file. The file is complete and synced before it appears under its
+     * name, a crash leaves at most a temporary file behind.
+     */
+    public static void write(Path path, List<SimulationResult> results) throws IOException {
+        List<SimulationResult> sorted = results.stream().sorted(Comparator.comparing(SimulationResult::getId)).toList();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new ChannelOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            ByteArrayOutputStream footer = new ByteArrayOutputStream();
+            DataOutputStream index = new DataOutputStream(footer);
+            long offset = HEADER_BYTES;
+            int stripes = 0;
+            for (int from = 0; from < sorted.size(); from += STRIPE_ROWS) {
+                List<SimulationResult> stripe = sorted.subList(from, Math.min(from + STRIPE_ROWS, sorted.size()));
+                byte[] encoded = encodeStripe(stripe);
+                out.write(encoded);
+                index.writeLong(offset);
+                index.writeInt(stripe.size());
+                index.writeLong(stripe.get(0).getId());
+                index.writeLong(stripe.get(stripe.size() - 1).getId());
+                index.writeLong(stripe.stream().mapToLong(ResultSegment::inputId).min().orElseThrow());
+                index.writeLong(stripe.stream().mapToLong(ResultSegment::inputId).max().orElseThrow());
+                offset += encoded.length;
+                stripes++;
+            }
+            out.write(footer.toByteArray());
+            out.writeInt(stripes);
+            out.writeLong(offset);
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static ResultSegment open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int size = buffer.capacity();
+        if (size < HEADER_BYTES + TRAILER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(size - 4) != MAGIC) {
+            throw new IOException("Not a result segment: " + path);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported result segment version " + buffer.getInt(4) + ": " + path);
+        }
+        int stripes = buffer.getInt(size - TRAILER_BYTES);
+        int position = (int) buffer.getLong(size - TRAILER_BYTES + 4);
+        long[] stripeOffsets = new long[stripes];
+        int[] stripeRows = new int[stripes];
+        long[] firstIds = new long[stripes];
+        long[] lastIds = new long[stripes];
+        long[] minInputIds = new long[stripes];
+        long[] maxInputIds = new long[stripes];
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            stripeOffsets[stripe] = buffer.getLong(position);
+            stripeRows[stripe] = buffer.getInt(position + 8);
+            firstIds[stripe] = buffer.getLong(position + 12);
+            lastIds[stripe] = buffer.getLong(position + 20);
+            minInputIds[stripe] = buffer.getLong(position + 28);
+            maxInputIds[stripe] = buffer.getLong(position + 36);
+            position += 44;
+        }
+        return new ResultSegment(path, buffer, stripeOffsets, stripeRows, firstIds, lastIds, minInputIds, maxInputIds);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getFirstId() {
+        return firstIds.length == 0 ? Long.MAX_VALUE : firstIds[0];
+    }
+
+    public long getLastId() {
+        return lastIds.length == 0 ? Long.MIN_VALUE : lastIds[lastIds.length - 1];
+    }
+
+    public int getRowCount() {
+        int rows = 0;
+        for (int stripeRow : stripeRows) {
+            rows += stripeRow;
+        }
+        return rows;
+    }
+
+    public boolean contains(long id) {
+        int stripe = stripeOf(id);
+        return stripe >= 0 && rowOf(stripe, id) >= 0;
+    }
+
+    public SimulationResult find(long id) {
+        int stripe = stripeOf(id);
+        if (stripe < 0) {
+            return null;
+        }
+        int row = rowOf(stripe, id);
+        return row < 0 ? null : decodeStripe(stripe).get(row);
+    }
+
+    /**
+     * Only stripes whose input id range covers the input are decoded. Results of an input are created close
+     * together, so they usually share one or two stripes.
+     */
+    public List<SimulationResult> findAllBySimulationInputId(long inputId) {
+        List<SimulationResult> results = new ArrayList<>();
+        for (int stripe = 0; stripe < stripeRows.length; stripe++) {
+            if (inputId >= minInputIds[stripe] && inputId <= maxInputIds[stripe]) {
+                for (SimulationResult result : decodeStripe(stripe)) {
+                    if (result.getSimulationInput().getId() == inputId) {
+                        results.add(result);
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private int stripeOf(long id) {
+        int low = 0;
+        int high = firstIds.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (id < firstIds[middle]) {
+                high = middle - 1;
+            } else if (id > lastIds[middle]) {
+                low = middle + 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    // binary search of the uncompressed ids at the start of the stripe, no decompression needed
+    private int rowOf(int stripe, long id) {
+        int idsStart = (int) stripeOffsets[stripe] + 4;
+        int low = 0;
+        int high = stripeRows[stripe] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleId = buffer.getLong(idsStart + middle * 8);
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private static long inputId(SimulationResult result) {
+        return result.getSimulationInput().getId();
+    }
+
+    private static byte[] encodeStripe(List<SimulationResult> stripe) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(stripe.size());
+        for (SimulationResult result : stripe) {
+            out.writeLong(result.getId());
+        }
+        ByteArrayOutputStream columnBytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream columns = new DataOutputStream(new DeflaterOutputStream(columnBytes, deflater))) {
+            for (SimulationResult result : stripe) {
+                columns.writeLong(inputId(result));
+            }
+            writeNullableLongs(columns, stripe, SimulationResult::getSeed);
+            writeNullableLongs(columns, stripe, result -> result.getCreatedAt() == null ? null : result.getCreatedAt().getEpochSecond());
+            for (SimulationResult result : stripe) {
+                columns.writeInt(result.getCreatedAt() == null ? 0 : result.getCreatedAt().getNano());
+            }
+            for (SimulationResult result : stripe) {
+                columns.writeBoolean(result.getEngine() != null);
+                columns.writeUTF(result.getEngine() == null ? "" : result.getEngine());
+            }
+            writeDoubles(columns, stripe, SimulationResult::getTotalEnergyCharged);
+            writeDoubles(columns, stripe, SimulationResult::getActualMaxPowerDemand);
+            writeDoubles(columns, stripe, SimulationResult::getTheoreticalMaxPowerDemand);
+            writeDoubles(columns, stripe, SimulationResult::getConcurrencyFactor);
+            for (SimulationResult result : stripe) {
+                columns.writeInt(result.getEventsPerYear());
+            }
+            writeDoubleSeries(columns, stripe, SimulationResult::getUtilizationRates);
+            writeDoubleSeries(columns, stripe, SimulationResult::getAveragePowers);
+            writeDoubleSeries(columns, stripe, SimulationResult::getExemplaryDay);
+            writeIntSeries(columns, stripe, SimulationResult::getEventsPerMonth);
+            writeIntSeries(columns, stripe, SimulationResult::getEventsPerWeek);
+            writeIntSeries(columns, stripe, SimulationResult::getEventsPerDay);
+        } finally {
+            deflater.end();
+        }
+        out.write(columnBytes.toByteArray());
+        return bytes.toByteArray();
+    }
+
+    private List<SimulationResult> decodeStripe(int stripe) {
+        int rows = stripeRows[stripe];
+        int columnsStart = (int) stripeOffsets[stripe] + 4 + rows * 8;
+        // the last stripe ends where the footer starts
+        int columnsEnd = stripe + 1 < stripeOffsets.length ? (int) stripeOffsets[stripe + 1]
+                : (int) buffer.getLong(buffer.capacity() - TRAILER_BYTES + 4);
+        // a view per read: the mapped buffer is shared by concurrent readers and its position must not move
+        ByteBuffer compressed = buffer.slice(columnsStart, columnsEnd - columnsStart);
+        Inflater inflater = new Inflater();
+        try (DataInputStream columns = new DataInputStream(new InflaterInputStream(new ByteBufferInputStream(compressed), inflater))) {
+            List<SimulationResult> results = new ArrayList<>(rows);
+            int idsStart = (int) stripeOffsets[stripe] + 4;
+            for (int row = 0; row < rows; row++) {
+                results.add(SimulationResult.builder()
+                        .id(buffer.getLong(idsStart + row * 8))
+                        .simulationInput(SimulationInput.builder().id(columns.readLong()).build())
+                        .build());
+            }
+            Long[] seeds = readNullableLongs(columns, rows);
+            Long[] createdSeconds = readNullableLongs(columns, rows);
+            for (int row = 0; row < rows; row++) {
+                SimulationResult result = results.get(row);
+                int nanos = columns.readInt();
+                result.setSeed(seeds[row]);
+                result.setCreatedAt(createdSeconds[row] == null ? null : Instant.ofEpochSecond(createdSeconds[row], nanos));
+            }
+            for (SimulationResult result : results) {
+                boolean present = columns.readBoolean();
+                String engine = columns.readUTF();
+                result.setEngine(present ? engine : null);
+            }
+            for (SimulationResult result : results) {
+                result.setTotalEnergyCharged(columns.readDouble());
+            }
+            for (SimulationResult result : results) {
+                result.setActualMaxPowerDemand(columns.readDouble());
+            }
+            for (SimulationResult result : results) {
+                result.setTheoreticalMaxPowerDemand(columns.readDouble());
+            }
+            for (SimulationResult result : results) {
+                result.setConcurrencyFactor(columns.readDouble());
+            }
+            for (SimulationResult result : results) {
+                result.setEventsPerYear(columns.readInt());
+            }
+            double[][] utilizationRates = readDoubleSeries(columns, rows);
+            double[][] averagePowers = readDoubleSeries(columns, rows);
+            double[][] exemplaryDays = readDoubleSeries(columns, rows);
+            int[][] eventsPerMonth = readIntSeries(columns, rows);
+            int[][] eventsPerWeek = readIntSeries(columns, rows);
+            int[][] eventsPerDay = readIntSeries(columns, rows);
+            for (int row = 0; row < rows; row++) {
+                SimulationResult result = results.get(row);
+                result.setUtilizationRates(utilizationRates[row]);
+                result.setAveragePowers(averagePowers[row]);
+                result.setExemplaryDay(exemplaryDays[row]);
+                result.setEventsPerMonth(eventsPerMonth[row]);
+                result.setEventsPerWeek(eventsPerWeek[row]);
+                result.setEventsPerDay(eventsPerDay[row]);
+            }
+            return results;
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt stripe " + stripe + " in result segment " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeNullableLongs(DataOutputStream out, List<SimulationResult> stripe,
+                                           Function<SimulationResult, Long> column) throws IOException {
+        for (SimulationResult result : stripe) {
+            out.writeBoolean(column.apply(result) != null);
+        }
+        for (SimulationResult result : stripe) {
+            Long value = column.apply(result);
+            out.writeLong(value == null ? 0 : value);
+        }
+    }
+
+    private static Long[] readNullableLongs(DataInputStream in, int rows) throws IOException {
+        boolean[] present = new boolean[rows];
+        for (int row = 0; row < rows; row++) {
+            present[row] = in.readBoolean();
+        }
+        Long[] values = new Long[rows];
+        for (int row = 0; row < rows; row++) {
+            long value = in.readLong();
+            values[row] = present[row] ? value : null;
+        }
+        return values;
+    }
+
+    private static void writeDoubles(DataOutputStream out, List<SimulationResult> stripe,
+                                     Function<SimulationResult, Double> column) throws IOException {
+        for (SimulationResult result : stripe) {
+            out.writeDouble(column.apply(result));
+        }
+    }
+
+    private static void writeDoubleSeries(DataOutputStream out, List<SimulationResult> stripe,
+                                          Function<SimulationResult, double[]> column) throws IOException {
+        for (SimulationResult result : stripe) {
+            out.writeInt(column.apply(result).length);
+        }
+        for (SimulationResult result : stripe) {
+            for (double value : column.apply(result)) {
+                out.writeDouble(value);
+            }
+        }
+    }
+
+    private static double[][] readDoubleSeries(DataInputStream in, int rows) throws IOException {
+        double[][] series = new double[rows][];
+        for (int row = 0; row < rows; row++) {
+            series[row] = new double[in.readInt()];
+        }
+        for (double[] values : series) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = in.readDouble();
+            }
+        }
+        return series;
+    }
+
+    private static void writeIntSeries(DataOutputStream out, List<SimulationResult> stripe,
+                                       Function<SimulationResult, int[]> column) throws IOException {
+        for (SimulationResult result : stripe) {
+            out.writeInt(column.apply(result).length);
+        }
+        for (SimulationResult result : stripe) {
+            for (int value : column.apply(result)) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    private static int[][] readIntSeries(DataInputStream in, int rows) throws IOException {
+        int[][] series = new int[rows][];
+        for (int row = 0; row < rows; row++) {
+            series[row] = new int[in.readInt()];
+        }
+        for (int[] values : series) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = in.readInt();
+            }
+        }
+        return series;
+    }
+
+    private static final class ChannelOutputStream extends OutputStream {
+        private final FileChannel channel;
+
+        ChannelOutputStream(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            ByteBuffer source = ByteBuffer.wrap(bytes, offset, length);
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.mouadhkh.evcharging_simulation_api.archive;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Results moved out of the database by the {@link SimulationResultArchiver}, one {@link ResultSegment} file per
+ * archived batch. Only the sparse stripe index of each segment is held in memory, the data is read from the mapped
+ * files on demand. Archived results are detached: their input carries the id only.
+ * <p>
+ * The segments are found again on startup, instances serving the same database must share the directory. Segments
+ * archived by another instance are picked up when a lookup misses and the directory changed since it was last read.
+ */
+@Slf4j
+@Component
+public class SimulationResultArchive {
+    static final String SEGMENT_PREFIX = "results-";
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    // by the first id; id ranges of segments may overlap (ids are handed out in blocks per instance, so a lower id
+    // can be created later), but every result is archived once
+    private final ConcurrentSkipListMap<Long, ResultSegment> segments = new ConcurrentSkipListMap<>();
+    private final Set<Path> openedFiles = ConcurrentHashMap.newKeySet();
+    private volatile SegmentIndex index = SegmentIndex.of(List.of());
+    private volatile FileTime directoryModified = FileTime.fromMillis(0);
+
+    public SimulationResultArchive(@Value("${simulation.archive.directory:archive}") Path directory,
+                                   MeterRegistry meterRegistry) throws IOException {
+        this.directory = directory;
+        openNewSegments();
+        if (!segments.isEmpty()) {
+            log.info("Opened {} archived result segments in {}", segments.size(), directory.toAbsolutePath());
+        }
+        Gauge.builder("simulation.archive.segments", segments, Map::size)
+                .description("Segment files of archived simulation results")
+                .register(meterRegistry);
+    }
+
+    public Optional<SimulationResult> findById(Long id) {
+        Optional<ResultSegment> segment = segmentOf(id);
+        if (segment.isEmpty() && refresh()) {
+            segment = segmentOf(id);
+        }
+        return segment.map(found -> found.find(id));
+    }
+
+    public boolean contains(Long id) {
+        return segmentOf(id).isPresent() || refresh() && segmentOf(id).isPresent();
+    }
+
+    public List<SimulationResult> findAllBySimulationInputId(Long simulationInputId) {
+        refresh();
+        List<SimulationResult> results = new ArrayList<>();
+        for (ResultSegment segment : segments.values()) {
+            results.addAll(segment.findAllBySimulationInputId(simulationInputId));
+        }
+        return results;
+    }
+
+    /**
+     * Writes the results into a new segment and serves them from then on. Once this returns the results may be
+     * deleted from the database.
+     */
+    public void archive(List<SimulationResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        long firstId = results.stream().mapToLong(SimulationResult::getId).min().orElseThrow();
+        long lastId = results.stream().mapToLong(SimulationResult::getId).max().orElseThrow();
+        Path file = directory.resolve(String.format("%s%020d-%020d%s", SEGMENT_PREFIX, firstId, lastId, SEGMENT_SUFFIX));
+        try {
+            // created by the first archived batch, an application never archiving leaves no directory behind
+            Files.createDirectories(directory);
+            ResultSegment.write(file, results);
+            if (open(file)) {
+                reindex();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive simulation results " + firstId + " to " + lastId, e);
+        }
+    }
+
+    /**
+     * @return whether segments were added
+     */
+    private boolean refresh() {
+        try {
+            // a single stat while nothing changed, a segment appears by being renamed into the directory
+            if (Files.getLastModifiedTime(directory).equals(directoryModified)) {
+                return false;
+            }
+            return openNewSegments();
+        } catch (NoSuchFileException e) {
+            // nothing archived yet, by any instance
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the result archive " + directory, e);
+        }
+    }
+
+    private synchronized boolean openNewSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+        FileTime modified = Files.getLastModifiedTime(directory);
+        boolean added = false;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                added |= open(file);
+            }
+        }
+        if (added) {
+            reindex();
+        }
+        directoryModified = modified;
+        return added;
+    }
+
+    private synchronized void reindex() {
+        index = SegmentIndex.of(segments.values());
+    }
+
+    private synchronized boolean open(Path file) throws IOException {
+        if (openedFiles.contains(file)) {
+            return false;
+        }
+        ResultSegment segment = ResultSegment.open(file);
+        openedFiles.add(file);
+        if (segment.getRowCount() > 0) {
+            segments.put(segment.getFirstId(), segment);
+        }
+        return true;
+    }
+
+    // the interval index finds the segments whose id range covers the id, their sparse index the stripe
+    private Optional<ResultSegment> segmentOf(Long id) {
+        return index.find(id);
+    }
+
+    /**
+     * Id ranges of the segments ordered by first id, with the highest last id of every prefix. A lookup walks back
+     * from the last segment starting at or before the id only while an earlier range can still reach it: with
+     * disjoint ranges that is a single segment, and an id beyond every range is rejected by the binary search alone.
+     * Rebuilt whenever segments are added, which is rare next to lookups.
+     */
+    private record SegmentIndex(long[] firstIds, long[] lastIds, long[] maxLastIds, ResultSegment[] segments) {
+
+        static SegmentIndex of(Collection<ResultSegment> segmentsByFirstId) {
+            int size = segmentsByFirstId.size();
+            SegmentIndex index = new SegmentIndex(new long[size], new long[size], new long[size], new ResultSegment[size]);
+            int i = 0;
+            for (ResultSegment segment : segmentsByFirstId) {
+                index.firstIds[i] = segment.getFirstId();
+                index.lastIds[i] = segment.getLastId();
+                index.maxLastIds[i] = i == 0 ? segment.getLastId() : Math.max(index.maxLastIds[i - 1], segment.getLastId());
+                index.segments[i] = segment;
+                i++;
+            }
+            return index;
+        }
+
+        Optional<ResultSegment> find(long id) {
+            int i = Arrays.binarySearch(firstIds, id);
+            // the last segment starting at or before the id
+            if (i < 0) {
+                i = -i - 2;
+            }
+            for (; i >= 0 && maxLastIds[i] >= id; i--) {
+                if (lastIds[i] >= id && segments[i].contains(id)) {
+                    return Optional.of(segments[i]);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+}
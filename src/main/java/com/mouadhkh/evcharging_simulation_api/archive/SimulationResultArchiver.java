@@ -0,0 +1,95 @@
+package com.mouadhkh.evcharging_simulation_api.archive;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import com.mouadhkh.evcharging_simulation_api.migration.LegacySeriesMigration;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationResultRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves results older than the configured age out of the database into the {@link SimulationResultArchive}, a
+ * batch per transaction: the batch is locked, written to a segment file and deleted. Results archived by a run that
+ * failed before its delete committed are only deleted by the next one. Results are immutable, so an archived result
+ * never goes stale.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "simulation.archive.enabled", havingValue = "true")
+public class SimulationResultArchiver {
+
+    private final SimulationResultArchive simulationResultArchive;
+    private final SimulationResultRepository simulationResultRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration age;
+    private final int batchSize;
+    private final Counter archivedResults;
+
+    public SimulationResultArchiver(SimulationResultArchive simulationResultArchive,
+                                    SimulationResultRepository simulationResultRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${simulation.archive.age:30d}") Duration age,
+                                    @Value("${simulation.archive.batch-size:1000}") int batchSize,
+                                    MeterRegistry meterRegistry) {
+        this.simulationResultArchive = simulationResultArchive;
+        this.simulationResultRepository = simulationResultRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.age = age;
+        this.batchSize = batchSize;
+        this.archivedResults = Counter.builder("simulation.archive.results")
+                .description("Simulation results moved from the database into the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${simulation.archive.interval:PT1H}", initialDelayString = "${simulation.archive.interval:PT1H}")
+    public void archiveOldResults() {
+        Instant cutoff = Instant.now().minus(age);
+        boolean legacyTablesExist = LegacySeriesMigration.legacyTablesExist(jdbcTemplate);
+        int archived = 0;
+        Integer batch;
+        while ((batch = transactionTemplate.execute(status -> archiveBatch(cutoff, legacyTablesExist))) != null && batch > 0) {
+            archived += batch;
+        }
+        if (archived > 0) {
+            log.info("Archived {} simulation results created before {}", archived, cutoff);
+        }
+    }
+
+    private int archiveBatch(Instant cutoff, boolean legacyTablesExist) {
+        List<SimulationResult> results = simulationResultRepository.lockCreatedBefore(cutoff, batchSize);
+        if (results.isEmpty()) {
+            return 0;
+        }
+        simulationResultArchive.archive(results.stream()
+                .filter(result -> !simulationResultArchive.contains(result.getId()))
+                .toList());
+        List<Long> ids = results.stream().map(SimulationResult::getId).toList();
+        if (legacyTablesExist) {
+            MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids);
+            for (String table : LegacySeriesMigration.LEGACY_SERIES_TABLES) {
+                namedParameterJdbcTemplate.update("DELETE FROM " + table + " WHERE simulation_result_id IN (:ids)", parameters);
+            }
+        }
+        simulationResultRepository.deleteAllByIdInBatch(ids);
+        archivedResults.increment(results.size());
+        return results.size();
+    }
+}
@@ -0,0 +1,54 @@
+package com.mouadhkh.evcharging_simulation_api.controller;
+
+import com.mouadhkh.evcharging_simulation_api.dto.AnalyticsMetric;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "EV Charging Simulation Analytics", description = "Aggregates over the results in the database, computed by the database; " +
+        "archived results are not included")
+@RestController
+@RequestMapping("/api/analytics")
+public class SimulationAnalyticsController {
+
+    private final SimulationAnalyticsService simulationAnalyticsService;
+
+    public SimulationAnalyticsController(SimulationAnalyticsService simulationAnalyticsService) {
+        this.simulationAnalyticsService = simulationAnalyticsService;
+    }
+
+    @Operation(summary = "Get concurrency curve", description = "Mean, min, max and percentiles of the concurrency factor of the results in the database " +
+            "by number of charge points and arrival probability multiplier bucket, e.g. multiplierBucketWidth=0.5&engine=native")
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "400", description = "Invalid bucket width, charge point range or unknown engine")
+    @GetMapping("/concurrency-curve")
+    public ResponseEntity<?> getConcurrencyCurve(@RequestParam(defaultValue = "0.1") double multiplierBucketWidth,
+                                                 @RequestParam(required = false) Integer minChargePoints,
+                                                 @RequestParam(required = false) Integer maxChargePoints,
+                                                 @RequestParam(required = false) String engine) {
+        return getCurve(AnalyticsMetric.CONCURRENCY_FACTOR.getName(), multiplierBucketWidth, minChargePoints,
+                maxChargePoints, engine);
+    }
+
+    @Operation(summary = "Get metric curve", description = "Like the concurrency curve for any of the metrics concurrency-factor, " +
+            "max-power-demand and total-energy")
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "400", description = "Unknown metric, invalid bucket width, charge point range or unknown engine")
+    @GetMapping("/curves/{metric}")
+    public ResponseEntity<?> getCurve(@PathVariable String metric,
+                                      @RequestParam(defaultValue = "0.1") double multiplierBucketWidth,
+                                      @RequestParam(required = false) Integer minChargePoints,
+                                      @RequestParam(required = false) Integer maxChargePoints,
+                                      @RequestParam(required = false) String engine) {
+        try {
+            return ResponseEntity.ok(simulationAnalyticsService.getCurve(AnalyticsMetric.parse(metric),
+                    multiplierBucketWidth, minChargePoints, maxChargePoints, SimulationEngineType.parse(engine)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.mouadhkh.evcharging_simulation_api.controller;
 
+import com.mouadhkh.evcharging_simulation_api.dto.SeriesDownsamplingMode;
+import com.mouadhkh.evcharging_simulation_api.dto.SeriesWindow;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationCacheStatsDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationExportFormat;
 import com.mouadhkh.evcharging_simulation_api.dto.SimulationInputDTO;
 import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultSeries;
 import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationOverloadedException;
 import com.mouadhkh.evcharging_simulation_api.service.SimulationService;
+import com.mouadhkh.evcharging_simulation_api.service.StoredSimulationResult;
+import com.mouadhkh.evcharging_simulation_api.web.SimulationResultProtobufHttpMessageConverter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,17 +20,38 @@ import jakarta.persistence.EntityNotFoundException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Tag(name = "EV Charging Simulation", description = "An API that simulates how EV chargers are used based on probabilities and input parameters")
 @RestController
 @RequestMapping("/api")
 public class SimulationController {
 
+    /**
+     * Part of every result ETag. Results are cached by clients for a year: increase it whenever a change of the
+     * result DTO, its encodings or the series selection changes the response for the same request.
+     */
+    static final int RESULT_REPRESENTATION_VERSION = 1;
+
     private final SimulationService simulationService;
 
     public SimulationController(SimulationService simulationService) {
@@ -39,6 +69,21 @@ public class SimulationController {
         return ResponseEntity.ok(inputs);
     }
 
+    @Operation(summary = "Get simulation inputs after a cursor", description = "Returns the inputs with an id greater than after, " +
+            "ordered by id. Unlike the paginated listing it stays fast on deep pages and computes no total count")
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "400", description = "Invalid limit")
+    @GetMapping("/simulation-inputs/cursor")
+    public ResponseEntity<?> getSimulationInputsAfter(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(simulationService.getSimulationInputsAfter(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @Operation(summary = "Get simulation input by Id", description = "Returns a simulation input by its ID")
     @ApiResponse(responseCode = "200", description = "Successful operation")
     @ApiResponse(responseCode = "404", description = "Simulation input not found")
@@ -94,26 +139,52 @@ public class SimulationController {
         }
     }
 
-    @Operation(summary = "Run mock simulation", description = "Runs and persists a mock simulation with provided input(also persisted)")
+    @Operation(summary = "Run mock simulation", description = "Runs and persists a mock simulation with provided input(also persisted). " +
+            "Seeded runs are reproducible and cached: repeating one with identical parameters returns the stored result. " +
+            "The engine is external (default) or native, only the native engine honors EV consumption, charging power and the seed")
     @ApiResponse(responseCode = "200", description = "Simulation run successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid input, unknown engine or seed for an engine that cannot be seeded")
+    @ApiResponse(responseCode = "429", description = "Simulation capacity exhausted, retry after the Retry-After seconds")
     @PostMapping("/run-simulation")
-    public ResponseEntity<SimulationResultDTO> runMockSimulation(@RequestBody SimulationInput simulationInput) {
-        return ResponseEntity.ok(simulationService.runMockSimulation(simulationInput));
+    public ResponseEntity<?> runMockSimulation(@RequestBody SimulationInput simulationInput,
+                                               @RequestParam(required = false) Long seed,
+                                               @RequestParam(required = false) String engine) {
+        try {
+            return ResponseEntity.ok(simulationService.runMockSimulation(simulationInput, seed,
+                    SimulationEngineType.parse(engine)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (SimulationOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(e.getMessage());
+        }
     }
 
 
     @Operation(summary = "Run mock simulation by input Id", description = "Runs a NEW mock simulation using an existing input")
     @ApiResponse(responseCode = "200", description = "Simulation run successfully")
+    @ApiResponse(responseCode = "400", description = "Unknown engine or seed for an engine that cannot be seeded")
     @ApiResponse(responseCode = "404", description = "Simulation input not found")
     @ApiResponse(responseCode = "500", description = "Internal server error")
+    @ApiResponse(responseCode = "429", description = "Simulation capacity exhausted, retry after the Retry-After seconds")
     @PostMapping("/run-simulation/{id}")
-    public ResponseEntity<?> runMockSimulation(@PathVariable Long id) {
+    public ResponseEntity<?> runMockSimulation(@PathVariable Long id,
+                                               @RequestParam(required = false) Long seed,
+                                               @RequestParam(required = false) String engine) {
         try {
-            SimulationResultDTO result = simulationService.runNewMockSimulationByInputId(id);
+            SimulationResultDTO result = simulationService.runNewMockSimulationByInputId(id, seed,
+                    SimulationEngineType.parse(engine));
             return ResponseEntity.ok(result);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body("Simulation input with id " + id + " not found");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (SimulationOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("An error occurred while running the simulation: " + e.getMessage());
@@ -139,27 +210,163 @@ public class SimulationController {
         }
     }
 
-    @Operation(summary = "Get all simulation results", description = "Retrieves a paginated list of all simulation results")
+    @Operation(summary = "Get all simulation results", description = "Retrieves a paginated list of all simulation results. " +
+            "Only scalar KPIs are listed unless series are requested with include (e.g. include=exemplaryDay,eventsPerDay or include=all). " +
+            "Archived results are not listed")
     @ApiResponse(responseCode = "200", description = "Results retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Unknown series requested")
     @GetMapping("/simulation-results")
-    public ResponseEntity<Page<SimulationResultDTO>> getAllSimulationResults(
+    public ResponseEntity<?> getAllSimulationResults(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        Page<SimulationResultDTO> results = simulationService.getAllSimulationResults(PageRequest.of(page, size));
-        return ResponseEntity.ok(results);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) List<String> include) {
+        try {
+            Set<SimulationResultSeries> includedSeries = SimulationResultSeries.parse(include);
+            Page<SimulationResultDTO> results = simulationService.getAllSimulationResults(PageRequest.of(page, size), includedSeries);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get simulation results after a cursor", description = "Returns the results with an id greater than after, " +
+            "ordered by id, without a total count. Series are selected with include like for the paginated listing. Archived results " +
+            "are not listed")
+    @ApiResponse(responseCode = "200", description = "Results retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid limit or unknown series requested")
+    @GetMapping("/simulation-results/cursor")
+    public ResponseEntity<?> getSimulationResultsAfter(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) List<String> include) {
+        try {
+            Set<SimulationResultSeries> includedSeries = SimulationResultSeries.parse(include);
+            return ResponseEntity.ok(simulationService.getSimulationResultsAfter(after, limit, includedSeries));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
-    @Operation(summary = "Get simulation result by Id", description = "Retrieves a specific simulation result")
+    @Operation(summary = "Export simulation results", description = "Streams all simulation results matching the optional filters " +
+            "as NDJSON or CSV, read from a forward-only database cursor. createdFrom is inclusive, createdTo exclusive. Archived " +
+            "results are not exported")
+    @ApiResponse(responseCode = "200", description = "Export streamed successfully")
+    @ApiResponse(responseCode = "400", description = "Unsupported format")
+    @GetMapping("/simulation-results/export")
+    public ResponseEntity<?> exportSimulationResults(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long inputId,
+            @RequestParam(required = false) Instant createdFrom,
+            @RequestParam(required = false) Instant createdTo) {
+        SimulationExportFormat exportFormat;
+        try {
+            exportFormat = SimulationExportFormat.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        StreamingResponseBody body = outputStream ->
+                simulationService.exportSimulationResults(exportFormat, inputId, createdFrom, createdTo, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"simulation-results." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Get simulation result by Id", description = "Retrieves a specific simulation result. For charts the series " +
+            "can be narrowed with include, cut to the index range [from, to) and downsampled to about points values with mode lttb " +
+            "(line shape) or minmax (bucket extremes), e.g. include=eventsPerDay&from=90&to=180&points=50. " +
+            "seriesIndices then holds the original index of every returned value. Results never change, so responses carry " +
+            "an ETag and may be cached indefinitely; send If-None-Match to revalidate. A result whose series are not " +
+            "migrated yet is sent uncacheable")
     @ApiResponse(responseCode = "200", description = "Result retrieved successfully")
+    @ApiResponse(responseCode = "304", description = "Result not modified since the given ETag")
+    @ApiResponse(responseCode = "400", description = "Unknown series, invalid range or mode")
     @ApiResponse(responseCode = "404", description = "Simulation result not found")
     @GetMapping("/simulation-results/{id}")
-    public ResponseEntity<?> getSimulationResultById(@PathVariable Long id) {
+    public ResponseEntity<?> getSimulationResultById(@PathVariable Long id,
+                                                     @RequestParam(required = false) List<String> include,
+                                                     @RequestParam(required = false) Integer from,
+                                                     @RequestParam(required = false) Integer to,
+                                                     @RequestParam(required = false) Integer points,
+                                                     @RequestParam(defaultValue = "lttb") String mode,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                     WebRequest webRequest) {
         try {
-            SimulationResultDTO result = simulationService.getSimulationResultById(id);
-            return ResponseEntity.ok(result);
+            Set<SimulationResultSeries> includedSeries = include == null
+                    ? EnumSet.allOf(SimulationResultSeries.class)
+                    : SimulationResultSeries.parse(include);
+            SeriesWindow window = new SeriesWindow(from, to, points, SeriesDownsamplingMode.parse(mode));
+            MediaType format = resultFormat(accept);
+            String eTag = resultETag(id, includedSeries, window, format);
+            // revalidation only needs the row to still exist, the result itself is not loaded
+            if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                    && simulationService.simulationResultExists(id)
+                    && webRequest.checkNotModified(eTag)) {
+                return immutable(ResponseEntity.status(HttpStatus.NOT_MODIFIED), eTag).build();
+            }
+            StoredSimulationResult result = simulationService.getSimulationResultById(id, includedSeries, window);
+            if (!result.complete()) {
+                // served without its series until the migration moved them, nobody may keep this response
+                return ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore())
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .body(result.result());
+            }
+            return immutable(ResponseEntity.ok(), eTag).body(result.result());
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body("Simulation result with id " + id + " not found");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get simulation cache statistics", description = "Returns size and hit/miss counters of the seeded result cache")
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @GetMapping("/simulation-cache/stats")
+    public ResponseEntity<SimulationCacheStatsDTO> getSimulationCacheStats() {
+        return ResponseEntity.ok(simulationService.getSimulationCacheStats());
+    }
+
+    private static ResponseEntity.BodyBuilder immutable(ResponseEntity.BodyBuilder response, String eTag) {
+        return response.eTag(eTag)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .varyBy(HttpHeaders.ACCEPT);
+    }
+
+    /**
+     * The representation a result is written in for the given Accept header: CBOR, protobuf or JSON for everything
+     * else, the same choice the message converters make.
+     */
+    private static MediaType resultFormat(String accept) {
+        if (accept != null) {
+            List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(acceptedTypes);
+            for (MediaType acceptedType : acceptedTypes) {
+                for (MediaType format : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+                        SimulationResultProtobufHttpMessageConverter.APPLICATION_PROTOBUF)) {
+                    if (acceptedType.includes(format)) {
+                        return format;
+                    }
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * ETag of one representation of a result: the id and a SHA-256 digest of the representation version and the
+     * selected series, window and format, the same on every instance. Weak, the bytes differ once the response is
+     * compressed, and Tomcat does not compress responses with a strong ETag.
+     */
+    private static String resultETag(Long id, Set<SimulationResultSeries> includedSeries, SeriesWindow window, MediaType format) {
+        String variant = RESULT_REPRESENTATION_VERSION + "|" + new TreeSet<>(includedSeries) + "|" + window + "|" + format;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(variant.getBytes(StandardCharsets.UTF_8));
+            return "W/\"" + id + "-" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
         }
     }
 }
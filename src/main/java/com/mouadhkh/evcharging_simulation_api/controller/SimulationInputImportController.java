@@ -0,0 +1,47 @@
+package com.mouadhkh.evcharging_simulation_api.controller;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationImportFormat;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationInputImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@Tag(name = "EV Charging Simulation Input Import", description = "Bulk import of simulation inputs from CSV or JSON")
+@RestController
+@RequestMapping("/api")
+public class SimulationInputImportController {
+
+    private final SimulationInputImportService simulationInputImportService;
+
+    public SimulationInputImportController(SimulationInputImportService simulationInputImportService) {
+        this.simulationInputImportService = simulationInputImportService;
+    }
+
+    @Operation(summary = "Import simulation inputs", description = "Imports a CSV file (Content-Type text/csv, header line with " +
+            "numberOfChargePoints and optionally arrivalProbabilityMultiplier, evConsumption, chargingPowerPerChargePoint, " +
+            "separated by ',' or ';', cells optionally quoted, decimals written with '.' or with ',' in ';' separated files) or a " +
+            "JSON array of inputs (application/json). The body is read as a stream, valid rows are committed in chunks, " +
+            "invalid ones are skipped and reported with their row number")
+    @ApiResponse(responseCode = "200", description = "Import finished, see imported, failed and errors")
+    @ApiResponse(responseCode = "400", description = "Missing or unknown CSV columns, or the body is not a JSON array")
+    @ApiResponse(responseCode = "415", description = "Unsupported content type")
+    @PostMapping(value = "/simulation-inputs/bulk", consumes = {"text/csv", "application/json"})
+    public ResponseEntity<?> importSimulationInputs(HttpServletRequest request) throws IOException {
+        // the body is read from the request stream directly, a @RequestBody would buffer it completely
+        try {
+            SimulationImportFormat format = SimulationImportFormat.forContentType(request.getHeader(HttpHeaders.CONTENT_TYPE));
+            return ResponseEntity.ok(simulationInputImportService.importSimulationInputs(format, request.getInputStream()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (UncheckedIOException e) {
+            return ResponseEntity.badRequest().body("Malformed input: " + e.getCause().getMessage());
+        }
+    }
+}
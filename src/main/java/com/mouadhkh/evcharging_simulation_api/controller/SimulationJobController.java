@@ -0,0 +1,91 @@
+package com.mouadhkh.evcharging_simulation_api.controller;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationJobDTO;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+@Tag(name = "EV Charging Simulation Jobs", description = "Asynchronous execution of simulations, shared by all instances through the database. Poll the job until it finished")
+@RestController
+@RequestMapping("/api")
+public class SimulationJobController {
+
+    private final SimulationJobService simulationJobService;
+
+    public SimulationJobController(SimulationJobService simulationJobService) {
+        this.simulationJobService = simulationJobService;
+    }
+
+    @Operation(summary = "Submit simulation job", description = "Persists the provided input and queues a simulation for it")
+    @ApiResponse(responseCode = "202", description = "Simulation job queued")
+    @ApiResponse(responseCode = "400", description = "Invalid input or unknown engine")
+    @ApiResponse(responseCode = "503", description = "Simulation queue is full")
+    @PostMapping("/simulation-jobs")
+    public ResponseEntity<?> submitSimulation(@RequestBody SimulationInput simulationInput,
+                                              @RequestParam(required = false) Long seed,
+                                              @RequestParam(required = false) String engine) {
+        try {
+            return accepted(simulationJobService.submitSimulation(simulationInput, seed, SimulationEngineType.parse(engine)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Simulation queue is full, retry later");
+        }
+    }
+
+    @Operation(summary = "Submit simulation job by input Id", description = "Queues a NEW simulation using an existing input")
+    @ApiResponse(responseCode = "202", description = "Simulation job queued")
+    @ApiResponse(responseCode = "400", description = "Unknown engine")
+    @ApiResponse(responseCode = "404", description = "Simulation input not found")
+    @ApiResponse(responseCode = "503", description = "Simulation queue is full")
+    @PostMapping("/simulation-inputs/{inputId}/simulation-jobs")
+    public ResponseEntity<?> submitSimulationByInputId(@PathVariable Long inputId,
+                                                       @RequestParam(required = false) Long seed,
+                                                       @RequestParam(required = false) String engine) {
+        try {
+            return accepted(simulationJobService.submitSimulationByInputId(inputId, seed, SimulationEngineType.parse(engine)));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Simulation queue is full, retry later");
+        }
+    }
+
+    @Operation(summary = "Get simulation job by Id", description = "Returns status, timing and the result id once finished")
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "404", description = "Simulation job not found")
+    @GetMapping("/simulation-jobs/{id}")
+    public ResponseEntity<?> getSimulationJob(@PathVariable UUID id) {
+        try {
+            return ResponseEntity.ok(simulationJobService.getSimulationJob(id));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(e.getMessage());
+        }
+    }
+
+    private ResponseEntity<SimulationJobDTO> accepted(SimulationJobDTO job) {
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/simulation-jobs/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+}
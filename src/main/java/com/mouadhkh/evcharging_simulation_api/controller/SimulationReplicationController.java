@@ -0,0 +1,68 @@
+package com.mouadhkh.evcharging_simulation_api.controller;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationOverloadedException;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationReplicationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "EV Charging Simulation Replications", description = "Monte Carlo replications of a simulation input, aggregated into distributions")
+@RestController
+@RequestMapping("/api")
+public class SimulationReplicationController {
+
+    private final SimulationReplicationService simulationReplicationService;
+
+    public SimulationReplicationController(SimulationReplicationService simulationReplicationService) {
+        this.simulationReplicationService = simulationReplicationService;
+    }
+
+    @Operation(summary = "Run replications", description = "Runs n independent simulations of the input in parallel and persists mean, standard deviation and percentiles of their outcome. " +
+            "With a seed and the native engine the replications are reproducible")
+    @ApiResponse(responseCode = "201", description = "Replications run successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid number of replications")
+    @ApiResponse(responseCode = "404", description = "Simulation input not found")
+    @ApiResponse(responseCode = "500", description = "Internal server error")
+    @ApiResponse(responseCode = "429", description = "Simulation capacity exhausted, retry after the Retry-After seconds")
+    @PostMapping("/simulation-inputs/{id}/replications")
+    public ResponseEntity<?> runReplications(@PathVariable Long id,
+                                             @RequestParam(defaultValue = "100") int n,
+                                             @RequestParam(required = false) Long seed,
+                                             @RequestParam(required = false) String engine) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(simulationReplicationService.runReplications(
+                    id, n, seed, SimulationEngineType.parse(engine)));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (SimulationOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An error occurred while running the replications: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get replication result by Id", description = "Returns the aggregated distributions of a replication run")
+    @ApiResponse(responseCode = "200", description = "Successful operation")
+    @ApiResponse(responseCode = "404", description = "Replication result not found")
+    @GetMapping("/simulation-replications/{id}")
+    public ResponseEntity<?> getReplicationResultById(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(simulationReplicationService.getReplicationResultById(id));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(e.getMessage());
+        }
+    }
+}
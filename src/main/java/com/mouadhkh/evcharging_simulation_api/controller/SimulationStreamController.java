@@ -0,0 +1,137 @@
+package com.mouadhkh.evcharging_simulation_api.controller;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationOverloadedDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationProgressDTO;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationOverloadedException;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationProgressListener;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@Tag(name = "EV Charging Simulation Streams", description = "Runs a simulation and streams its progress as server-sent events")
+@RestController
+@RequestMapping("/api")
+public class SimulationStreamController {
+
+    private final SimulationStreamService simulationStreamService;
+    private final Duration streamTimeout;
+
+    public SimulationStreamController(SimulationStreamService simulationStreamService,
+                                      @Value("${simulation.streams.timeout:30m}") Duration streamTimeout) {
+        this.simulationStreamService = simulationStreamService;
+        this.streamTimeout = streamTimeout;
+    }
+
+    // The emitter is filled from the simulation thread: the servlet thread is released right away and no thread is
+    // held per watcher while the simulation waits for a worker. Errors detected before the stream is opened are
+    // reported by status only, an event stream response has no room for a plain text body.
+    @Operation(summary = "Run mock simulation as event stream", description = "Runs a NEW mock simulation using an existing input and streams " +
+            "'progress' events (percent of the year simulated, interim energy and peak demand) followed by a 'result' event with the " +
+            "simulation result, or an 'error' event. When the simulation capacity is exhausted, where a run that is not streamed " +
+            "answers 429, an 'overloaded' event carries retryAfterSeconds and sets the reconnection time to match. Only the " +
+            "native engine reports intermediate progress")
+    @ApiResponse(responseCode = "200", description = "Event stream opened, ending with a 'result', 'error' or 'overloaded' event")
+    @ApiResponse(responseCode = "400", description = "Unknown engine, seed for an engine that cannot be seeded or invalid input")
+    @ApiResponse(responseCode = "404", description = "Simulation input not found")
+    @ApiResponse(responseCode = "503", description = "Too many simulations streamed, retry later")
+    @GetMapping(path = "/run-simulation/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSimulation(@RequestParam Long inputId,
+                                                       @RequestParam(required = false) Long seed,
+                                                       @RequestParam(required = false) String engine) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        ProgressEvents progressEvents = new ProgressEvents(emitter);
+        emitter.onCompletion(progressEvents::close);
+        emitter.onTimeout(progressEvents::close);
+        emitter.onError(error -> progressEvents.close());
+        try {
+            simulationStreamService.streamSimulation(inputId, seed, SimulationEngineType.parse(engine), progressEvents)
+                    .whenComplete((result, error) -> {
+                        if (error == null) {
+                            progressEvents.send("result", result);
+                            emitter.complete();
+                        } else {
+                            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                            if (cause instanceof SimulationOverloadedException overloaded) {
+                                // the 429 of a run that is not streamed: the client backs off the same way, an
+                                // EventSource reconnecting on its own waits as long
+                                progressEvents.send(SseEmitter.event()
+                                        .name("overloaded")
+                                        .reconnectTime(TimeUnit.SECONDS.toMillis(overloaded.getRetryAfterSeconds()))
+                                        .data(new SimulationOverloadedDTO(overloaded.getMessage(),
+                                                overloaded.getRetryAfterSeconds()), MediaType.APPLICATION_JSON));
+                            } else if (!(cause instanceof CancellationException)) {
+                                progressEvents.send("error", cause.getMessage());
+                            }
+                            emitter.complete();
+                        }
+                    });
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    private static final class ProgressEvents implements SimulationProgressListener {
+        private final SseEmitter emitter;
+        private volatile boolean closed;
+        private int lastPercent = -1;
+
+        ProgressEvents(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onProgress(int daysSimulated, int totalDays, double energyCharged, double maxPowerDemand) {
+            if (closed) {
+                // the client is gone, abort the simulation instead of finishing it for nobody. Streamed runs bypass
+                // the result cache, nobody else waits for this one
+                throw new CancellationException("Simulation stream closed by the client");
+            }
+            // at most one event per percent, whatever granularity the engine reports at
+            int percent = daysSimulated * 100 / totalDays;
+            if (percent != lastPercent) {
+                lastPercent = percent;
+                send("progress", new SimulationProgressDTO(percent, daysSimulated, totalDays, energyCharged, maxPowerDemand));
+            }
+        }
+
+        void send(String name, Object data) {
+            send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        }
+
+        void send(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.mouadhkh.evcharging_simulation_api.controller;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationSweepRequestDTO;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationOverloadedException;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationSweepService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "EV Charging Simulation Sweeps", description = "Runs a grid of simulations over parameter ranges in parallel")
+@RestController
+@RequestMapping("/api")
+public class SimulationSweepController {
+
+    private final SimulationSweepService simulationSweepService;
+
+    public SimulationSweepController(SimulationSweepService simulationSweepService) {
+        this.simulationSweepService = simulationSweepService;
+    }
+
+    @Operation(summary = "Run parameter sweep", description = "Expands the parameter ranges into a grid, runs and persists a simulation per grid point and returns a summary table")
+    @ApiResponse(responseCode = "201", description = "Sweep run successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid ranges or sweep too large")
+    @ApiResponse(responseCode = "500", description = "Internal server error")
+    @ApiResponse(responseCode = "429", description = "Simulation capacity exhausted, retry after the Retry-After seconds")
+    @PostMapping("/simulation-sweeps")
+    public ResponseEntity<?> runSimulationSweep(@RequestBody SimulationSweepRequestDTO sweepRequest) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(simulationSweepService.runSimulationSweep(sweepRequest));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (SimulationOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An error occurred while running the simulation sweep: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.mouadhkh.evcharging_simulation_api.controller;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationWhatIfRequestDTO;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationOverloadedException;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationWhatIfService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "EV Charging Simulation What-If", description = "Sensitivity analysis of a result by replaying its arrivals with another consumption or charging power")
+@RestController
+@RequestMapping("/api")
+public class SimulationWhatIfController {
+
+    private final SimulationWhatIfService simulationWhatIfService;
+
+    public SimulationWhatIfController(SimulationWhatIfService simulationWhatIfService) {
+        this.simulationWhatIfService = simulationWhatIfService;
+    }
+
+    @Operation(summary = "Run what-if simulation", description = "Replays exactly the EV arrivals of a seeded native result with the given " +
+            "evConsumption and/or chargingPowerPerChargePoint and persists the outcome with a copy of the input. " +
+            "Only the charging sessions are recomputed, differences to the original are caused by the changed parameters alone")
+    @ApiResponse(responseCode = "201", description = "What-if simulation run successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid parameters or result not simulated by the native engine with a seed")
+    @ApiResponse(responseCode = "404", description = "Simulation result not found")
+    @ApiResponse(responseCode = "500", description = "Internal server error")
+    @ApiResponse(responseCode = "429", description = "Simulation capacity exhausted, retry after the Retry-After seconds")
+    @PostMapping("/simulation-results/{id}/what-if")
+    public ResponseEntity<?> runWhatIf(@PathVariable Long id, @RequestBody SimulationWhatIfRequestDTO whatIfRequest) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(simulationWhatIfService.runWhatIf(id, whatIfRequest));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (SimulationOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An error occurred while running the what-if simulation: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsCurveDTO {
+    private String metric;
+    // null when results of all engines are aggregated
+    private String engine;
+    private double multiplierBucketWidth;
+    // ordered by number of charge points, then multiplier bucket
+    private List<AnalyticsCurvePointDTO> points;
+}
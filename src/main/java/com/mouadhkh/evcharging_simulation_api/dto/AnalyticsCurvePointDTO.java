@@ -0,0 +1,24 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aggregate of a metric over all results of one number of charge points whose arrival probability multiplier lies
+ * in [arrivalProbabilityMultiplierFrom, arrivalProbabilityMultiplierFrom + bucket width).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsCurvePointDTO {
+    private int numberOfChargePoints;
+    private double arrivalProbabilityMultiplierFrom;
+    private long results;
+    private double mean;
+    private double min;
+    private double max;
+    private double p50;
+    private double p95;
+    private double p99;
+}
@@ -0,0 +1,35 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+/**
+ * Scalar result KPIs that can be aggregated by the analytics endpoints, with the column each one is stored in.
+ */
+public enum AnalyticsMetric {
+    CONCURRENCY_FACTOR("concurrency-factor", "concurrency_factor"),
+    ACTUAL_MAX_POWER_DEMAND("max-power-demand", "actual_max_power_demand"),
+    TOTAL_ENERGY_CHARGED("total-energy", "total_energy_charged");
+
+    private final String name;
+    private final String column;
+
+    AnalyticsMetric(String name, String column) {
+        this.name = name;
+        this.column = column;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public static AnalyticsMetric parse(String metric) {
+        for (AnalyticsMetric analyticsMetric : values()) {
+            if (analyticsMetric.name.equalsIgnoreCase(metric)) {
+                return analyticsMetric;
+            }
+        }
+        throw new IllegalArgumentException("Unknown metric: " + metric + ", use concurrency-factor, max-power-demand or total-energy");
+    }
+}
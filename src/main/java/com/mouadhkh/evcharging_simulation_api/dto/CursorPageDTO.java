@@ -0,0 +1,21 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A slice of rows ordered by id. Pass nextCursor as the "after" parameter to fetch the following slice, it is null
+ * once the last slice was returned. No total count is computed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int limit;
+    private boolean hasNext;
+    private Long nextCursor;
+}
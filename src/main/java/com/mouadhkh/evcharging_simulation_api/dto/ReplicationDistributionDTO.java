@@ -0,0 +1,19 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicationDistributionDTO {
+    private double mean;
+    private double standardDeviation;
+    private double min;
+    private double max;
+    private double p5;
+    private double p50;
+    private double p95;
+    private double p99;
+}
@@ -0,0 +1,27 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+public enum SeriesDownsamplingMode {
+    // Largest-Triangle-Three-Buckets: keeps the points that shape the line, best for line charts
+    LTTB("lttb"),
+    // minimum and maximum of every bucket: no peak is lost, best for peak demand
+    MIN_MAX("minmax");
+
+    private final String name;
+
+    SeriesDownsamplingMode(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static SeriesDownsamplingMode parse(String mode) {
+        for (SeriesDownsamplingMode downsamplingMode : values()) {
+            if (downsamplingMode.name.equalsIgnoreCase(mode)) {
+                return downsamplingMode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown downsampling mode: " + mode + ", use lttb or minmax");
+    }
+}
@@ -0,0 +1,28 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+/**
+ * Range [from, to) of the series to return and the number of points to downsample them to. Null bounds mean the
+ * start or end of each series, null points means no downsampling.
+ */
+public record SeriesWindow(Integer from, Integer to, Integer points, SeriesDownsamplingMode mode) {
+    public static final SeriesWindow FULL = new SeriesWindow(null, null, null, SeriesDownsamplingMode.LTTB);
+
+    public SeriesWindow {
+        if (from != null && from < 0) {
+            throw new IllegalArgumentException("from must not be negative");
+        }
+        if (from != null && to != null && to <= from) {
+            throw new IllegalArgumentException("to must be greater than from");
+        }
+        if (points != null && points < 3) {
+            throw new IllegalArgumentException("points must be at least 3");
+        }
+        if (mode == null) {
+            mode = SeriesDownsamplingMode.LTTB;
+        }
+    }
+
+    public boolean isFull() {
+        return from == null && to == null && points == null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class SimulationCacheStatsDTO {
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+}
@@ -0,0 +1,33 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+public enum SimulationEngineType {
+    // the charging-stations-simulator library
+    EXTERNAL("external"),
+    // the in-project engine, honoring all input parameters and the seed
+    NATIVE("native");
+
+    private final String name;
+
+    SimulationEngineType(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the engine with the given name, null for a null name (the configured default engine)
+     */
+    public static SimulationEngineType parse(String engine) {
+        if (engine == null) {
+            return null;
+        }
+        for (SimulationEngineType engineType : values()) {
+            if (engineType.name.equalsIgnoreCase(engine)) {
+                return engineType;
+            }
+        }
+        throw new IllegalArgumentException("Unknown simulation engine: " + engine + ", use external or native");
+    }
+}
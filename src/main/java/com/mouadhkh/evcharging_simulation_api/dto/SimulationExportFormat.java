@@ -0,0 +1,31 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+public enum SimulationExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String fileExtension;
+
+    SimulationExportFormat(String mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static SimulationExportFormat parse(String format) {
+        for (SimulationExportFormat exportFormat : values()) {
+            if (exportFormat.fileExtension.equalsIgnoreCase(format)) {
+                return exportFormat;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + format + ", use ndjson or csv");
+    }
+}
@@ -0,0 +1,14 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationImportErrorDTO {
+    // line of the CSV file (the header is line 1) or 1-based position in the JSON array
+    private long row;
+    private String message;
+}
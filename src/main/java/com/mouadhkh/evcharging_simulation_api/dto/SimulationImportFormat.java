@@ -0,0 +1,31 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+public enum SimulationImportFormat {
+    CSV("text/csv"),
+    JSON("application/json");
+
+    private final String mediaType;
+
+    SimulationImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @param contentType a Content-Type header, parameters such as the charset are ignored
+     */
+    public static SimulationImportFormat forContentType(String contentType) {
+        if (contentType != null) {
+            String baseType = contentType.split(";", 2)[0].trim();
+            for (SimulationImportFormat importFormat : values()) {
+                if (importFormat.mediaType.equalsIgnoreCase(baseType)) {
+                    return importFormat;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType + ", use text/csv or application/json");
+    }
+}
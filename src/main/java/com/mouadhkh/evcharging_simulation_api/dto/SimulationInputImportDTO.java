@@ -0,0 +1,21 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationInputImportDTO {
+    private long imported;
+    private long failed;
+    private long durationMillis;
+    // the first errors only, up to simulation.imports.max-errors
+    private List<SimulationImportErrorDTO> errors;
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,26 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Builder
+@Data
+public class SimulationJobDTO {
+    private UUID id;
+    private SimulationJobStatus status;
+    private Long simulationInputId;
+    private Long seed;
+    private String engine;
+    // instance that ran (or runs) the job and how often it was claimed
+    private String workerId;
+    private int attempts;
+    // only set once the job SUCCEEDED, the result itself is served by /simulation-results/{id}
+    private Long simulationResultId;
+    private String error;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,8 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+public enum SimulationJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
@@ -0,0 +1,14 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// the Retry-After of a run that is not streamed, for clients of an event stream
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationOverloadedDTO {
+    private String message;
+    private long retryAfterSeconds;
+}
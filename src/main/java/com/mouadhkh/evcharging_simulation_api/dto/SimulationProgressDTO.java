@@ -0,0 +1,17 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationProgressDTO {
+    private int percent;
+    private int daysSimulated;
+    private int totalDays;
+    // interim values up to the simulated day
+    private double energyCharged;
+    private double maxPowerDemand;
+}
@@ -0,0 +1,21 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Builder
+@Data
+public class SimulationReplicationResultDTO {
+    private Long id;
+    private Long simulationInputId;
+    private int replications;
+    private String engine;
+    private Long seed;
+    private long durationMillis;
+    private Instant createdAt;
+    private ReplicationDistributionDTO concurrencyFactor;
+    private ReplicationDistributionDTO actualMaxPowerDemand;
+    private ReplicationDistributionDTO totalEnergyCharged;
+}
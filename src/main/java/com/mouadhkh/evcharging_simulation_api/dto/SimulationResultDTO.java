@@ -1,25 +1,35 @@
 package com.mouadhkh.evcharging_simulation_api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
-import java.util.List;
+import java.time.Instant;
+import java.util.Map;
 
+// series that were not requested are left null and omitted from the response
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Builder
 @Data
 public class SimulationResultDTO {
     private Long id;
+    private Long simulationInputId;
+    private Instant createdAt;
     private double totalEnergyCharged;
     private double actualMaxPowerDemand;
     private double theoreticalMaxPowerDemand;
     private double concurrencyFactor;
-    private List<Double> exemplaryDay;
-    private List<Double> utilizationRates;
-    private List<Double> averagePowers;
+    private Long seed;
+    private String engine;
+    private double[] exemplaryDay;
+    private double[] utilizationRates;
+    private double[] averagePowers;
     private int eventsPerYear;
     // can transform it to Map month->eventsCount/day->eventsCount but we keep it light in the backend.
     // Do it in the frontend
-    private List<Integer> eventsPerMonth;
-    private List<Integer> eventsPerWeek;
-    private List<Integer> eventsPerDay;
+    private int[] eventsPerMonth;
+    private int[] eventsPerWeek;
+    private int[] eventsPerDay;
+    // only set when a range or downsampling was requested: original index of every returned value, by series
+    private Map<String, int[]> seriesIndices;
 }
@@ -0,0 +1,53 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The series of a result, named like the fields of {@link SimulationResultDTO}, that listings can opt into.
+ */
+public enum SimulationResultSeries {
+    UTILIZATION_RATES("utilizationRates"),
+    AVERAGE_POWERS("averagePowers"),
+    EXEMPLARY_DAY("exemplaryDay"),
+    EVENTS_PER_MONTH("eventsPerMonth"),
+    EVENTS_PER_WEEK("eventsPerWeek"),
+    EVENTS_PER_DAY("eventsPerDay");
+
+    private final String fieldName;
+
+    SimulationResultSeries(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Parses field names, "all" selects every series and null or empty selects none.
+     */
+    public static Set<SimulationResultSeries> parse(Collection<String> fieldNames) {
+        Set<SimulationResultSeries> series = EnumSet.noneOf(SimulationResultSeries.class);
+        if (fieldNames == null) {
+            return series;
+        }
+        for (String fieldName : fieldNames) {
+            if ("all".equalsIgnoreCase(fieldName)) {
+                return EnumSet.allOf(SimulationResultSeries.class);
+            }
+            series.add(fromFieldName(fieldName));
+        }
+        return series;
+    }
+
+    public static SimulationResultSeries fromFieldName(String fieldName) {
+        for (SimulationResultSeries series : values()) {
+            if (series.fieldName.equals(fieldName)) {
+                return series;
+            }
+        }
+        throw new IllegalArgumentException("Unknown series: " + fieldName);
+    }
+}
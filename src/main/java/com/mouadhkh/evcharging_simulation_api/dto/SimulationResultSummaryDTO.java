@@ -0,0 +1,24 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Scalar columns of a result only, selected directly by the listing query without loading any series
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationResultSummaryDTO {
+    private Long id;
+    private Long simulationInputId;
+    private Long seed;
+    private String engine;
+    private Instant createdAt;
+    private double totalEnergyCharged;
+    private double actualMaxPowerDemand;
+    private double theoreticalMaxPowerDemand;
+    private double concurrencyFactor;
+    private int eventsPerYear;
+}
@@ -0,0 +1,15 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Builder
+@Data
+public class SimulationSweepDTO {
+    private int size;
+    private long durationMillis;
+    // compact summary only, full results are served by /simulation-results/{id}
+    private List<SimulationSweepEntryDTO> entries;
+}
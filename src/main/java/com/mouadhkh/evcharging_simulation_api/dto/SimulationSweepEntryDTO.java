@@ -0,0 +1,17 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationSweepEntryDTO {
+    private Long simulationInputId;
+    private Long simulationResultId;
+    private int numberOfChargePoints;
+    private double arrivalProbabilityMultiplier;
+    private double concurrencyFactor;
+    private double actualMaxPowerDemand;
+}
@@ -0,0 +1,23 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Parameter ranges of a sweep, both bounds inclusive. The grid is the cartesian product of the charge point
+ * range and the arrival probability multiplier range, the remaining parameters are shared by every grid point.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationSweepRequestDTO {
+    private int minChargePoints = 1;
+    private int maxChargePoints = 1;
+    private int chargePointsStep = 1;
+    private double minArrivalProbabilityMultiplier = 1.0;
+    private double maxArrivalProbabilityMultiplier = 1.0;
+    private double arrivalProbabilityMultiplierStep = 0.1;
+    private Double evConsumption = 18.0;
+    private Double chargingPowerPerChargePoint = 11.0;
+}
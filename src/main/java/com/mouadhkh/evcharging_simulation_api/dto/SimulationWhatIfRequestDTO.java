@@ -0,0 +1,16 @@
+package com.mouadhkh.evcharging_simulation_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Parameters to change for a what-if run, null keeps the value of the original input.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationWhatIfRequestDTO {
+    private Double evConsumption;
+    private Double chargingPowerPerChargePoint;
+}
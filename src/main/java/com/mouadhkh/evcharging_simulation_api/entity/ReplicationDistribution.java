@@ -0,0 +1,35 @@
+package com.mouadhkh.evcharging_simulation_api.entity;
+
+import com.mouadhkh.evcharging_simulation_api.statistics.RunningStatistics;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+@Embeddable
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicationDistribution {
+    private double mean;
+    private double standardDeviation;
+    private double min;
+    private double max;
+    private double p5;
+    private double p50;
+    private double p95;
+    private double p99;
+
+    public static ReplicationDistribution of(RunningStatistics statistics) {
+        return ReplicationDistribution.builder()
+                .mean(statistics.getMean())
+                .standardDeviation(statistics.getStandardDeviation())
+                .min(statistics.getMin())
+                .max(statistics.getMax())
+                .p5(statistics.quantile(0.05))
+                .p50(statistics.quantile(0.50))
+                .p95(statistics.quantile(0.95))
+                .p99(statistics.quantile(0.99))
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.mouadhkh.evcharging_simulation_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Encoded arrivals of the native engine (see ArrivalTrace) for a seed, number of charge points and arrival
+ * probability multiplier, the only parameters they depend on. Shared by every result with these parameters.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"seed", "number_of_charge_points", "arrival_probability_multiplier"}))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationArrivalTrace {
+    private static final int EVENTS_COLUMN_LENGTH = 64 * 1024 * 1024;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "simulation_arrival_trace_seq")
+    @SequenceGenerator(name = "simulation_arrival_trace_seq", sequenceName = "simulation_arrival_trace_seq", allocationSize = 50)
+    private Long id;
+
+    private long seed;
+    private int numberOfChargePoints;
+    private double arrivalProbabilityMultiplier;
+    private int eventCount;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
+    @Column(length = EVENTS_COLUMN_LENGTH)
+    private byte[] events;
+}
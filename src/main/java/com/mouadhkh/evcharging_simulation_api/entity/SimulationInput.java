@@ -9,14 +9,19 @@ import java.util.List;
 
 
 @Entity
+// groups analytics by station size and multiplier and lets it join to the results of the matching inputs only
+@Table(indexes = @Index(name = "simulation_input_charge_points_multiplier_idx",
+        columnList = "number_of_charge_points, arrival_probability_multiplier"))
 @Getter
 @Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class SimulationInput {
+    // pooled sequence ids (unlike IDENTITY) let Hibernate assign ids without a round trip and batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "simulation_input_seq")
+    @SequenceGenerator(name = "simulation_input_seq", sequenceName = "simulation_input_seq", allocationSize = 50)
     private Long id;
     private int numberOfChargePoints;
 
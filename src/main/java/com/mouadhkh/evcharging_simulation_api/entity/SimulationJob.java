@@ -0,0 +1,50 @@
+package com.mouadhkh.evcharging_simulation_api.entity;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationJobStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A queued or executed asynchronous simulation. The table is the work queue shared by all instances: a worker claims
+ * QUEUED rows, holds them under a lease it renews while running and writes the outcome back. A RUNNING job whose
+ * lease expired belonged to a crashed worker and is queued again.
+ */
+@Entity
+@Table(indexes = @Index(name = "simulation_job_status_submitted_at_idx", columnList = "status, submitted_at"))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationJob {
+
+    @Id
+    private UUID id;
+
+    private Long simulationInputId;
+    private Long seed;
+    // name of the SimulationEngine, null for the default engine
+    private String engine;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private SimulationJobStatus status;
+
+    // node that claimed the job last, kept once finished to see where it ran
+    private String workerId;
+    private Instant leaseExpiresAt;
+    private int attempts;
+
+    // only set once the job SUCCEEDED
+    private Long simulationResultId;
+
+    @Column(length = 2000)
+    private String error;
+
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,77 @@
+package com.mouadhkh.evcharging_simulation_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Aggregate of N independent replications of the simulation of one input. The individual runs are not stored.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationReplicationResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "simulation_replication_result_seq")
+    @SequenceGenerator(name = "simulation_replication_result_seq", sequenceName = "simulation_replication_result_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "simulation_input_id")
+    private SimulationInput simulationInput;
+
+    private int replications;
+    // engine of the runs and the seed the seeds of the individual replications are derived from
+    private String engine;
+    private Long seed;
+    private long durationMillis;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "mean", column = @Column(name = "concurrency_factor_mean")),
+            @AttributeOverride(name = "standardDeviation", column = @Column(name = "concurrency_factor_standard_deviation")),
+            @AttributeOverride(name = "min", column = @Column(name = "concurrency_factor_min")),
+            @AttributeOverride(name = "max", column = @Column(name = "concurrency_factor_max")),
+            @AttributeOverride(name = "p5", column = @Column(name = "concurrency_factor_p5")),
+            @AttributeOverride(name = "p50", column = @Column(name = "concurrency_factor_p50")),
+            @AttributeOverride(name = "p95", column = @Column(name = "concurrency_factor_p95")),
+            @AttributeOverride(name = "p99", column = @Column(name = "concurrency_factor_p99"))
+    })
+    private ReplicationDistribution concurrencyFactor;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "mean", column = @Column(name = "actual_max_power_demand_mean")),
+            @AttributeOverride(name = "standardDeviation", column = @Column(name = "actual_max_power_demand_standard_deviation")),
+            @AttributeOverride(name = "min", column = @Column(name = "actual_max_power_demand_min")),
+            @AttributeOverride(name = "max", column = @Column(name = "actual_max_power_demand_max")),
+            @AttributeOverride(name = "p5", column = @Column(name = "actual_max_power_demand_p5")),
+            @AttributeOverride(name = "p50", column = @Column(name = "actual_max_power_demand_p50")),
+            @AttributeOverride(name = "p95", column = @Column(name = "actual_max_power_demand_p95")),
+            @AttributeOverride(name = "p99", column = @Column(name = "actual_max_power_demand_p99"))
+    })
+    private ReplicationDistribution actualMaxPowerDemand;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "mean", column = @Column(name = "total_energy_charged_mean")),
+            @AttributeOverride(name = "standardDeviation", column = @Column(name = "total_energy_charged_standard_deviation")),
+            @AttributeOverride(name = "min", column = @Column(name = "total_energy_charged_min")),
+            @AttributeOverride(name = "max", column = @Column(name = "total_energy_charged_max")),
+            @AttributeOverride(name = "p5", column = @Column(name = "total_energy_charged_p5")),
+            @AttributeOverride(name = "p50", column = @Column(name = "total_energy_charged_p50")),
+            @AttributeOverride(name = "p95", column = @Column(name = "total_energy_charged_p95")),
+            @AttributeOverride(name = "p99", column = @Column(name = "total_energy_charged_p99"))
+    })
+    private ReplicationDistribution totalEnergyCharged;
+}
@@ -1,20 +1,28 @@
 package com.mouadhkh.evcharging_simulation_api.entity;
 
+import com.mouadhkh.evcharging_simulation_api.entity.converter.DoubleArrayConverter;
+import com.mouadhkh.evcharging_simulation_api.entity.converter.IntArrayConverter;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Instant;
 
 @Entity
+// PostgreSQL does not index foreign keys by itself, results are looked up and joined by their input
+@Table(indexes = @Index(name = "simulation_result_simulation_input_id_idx", columnList = "simulation_input_id"))
 @Getter
 @Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class SimulationResult {
+    private static final int SERIES_COLUMN_LENGTH = 16 * 1024 * 1024;
+
+    // pooled sequence ids (unlike IDENTITY) let Hibernate assign ids without a round trip and batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "simulation_result_seq")
+    @SequenceGenerator(name = "simulation_result_seq", sequenceName = "simulation_result_seq", allocationSize = 50)
     private Long id;
 
     private double totalEnergyCharged;
@@ -22,48 +30,53 @@ public class SimulationResult {
     private double theoreticalMaxPowerDemand;
     private double concurrencyFactor;
 
-    @ManyToOne
+    // null for unseeded runs
+    private Long seed;
+
+    // name of the SimulationEngine, null for results persisted before engines were selectable
+    private String engine;
+
+    // null for results persisted before the column existed
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "simulation_input_id")
     private SimulationInput simulationInput;
 
 
-    @ElementCollection
-    @CollectionTable(name = "utilization_rates", joinColumns = @JoinColumn(name = "simulation_result_id"))
-    @Column(name = "utilization_rate")
+    // Series are stored as packed little-endian arrays (see PackedArrayCodec) in one column each instead of one
+    // row per value in a collection table.
+    @Convert(converter = DoubleArrayConverter.class)
+    @Column(name = "utilization_rates", length = SERIES_COLUMN_LENGTH)
     @Builder.Default
-    private List<Double> utilizationRates = new ArrayList<>();
+    private double[] utilizationRates = new double[0];
 
-    @ElementCollection
-    @CollectionTable(name = "average_powers", joinColumns = @JoinColumn(name = "simulation_result_id"))
-    @Column(name = "average_power")
+    @Convert(converter = DoubleArrayConverter.class)
+    @Column(name = "average_powers", length = SERIES_COLUMN_LENGTH)
     @Builder.Default
-    private List<Double> averagePowers = new ArrayList<>();
+    private double[] averagePowers = new double[0];
 
-    @ElementCollection
-    @CollectionTable(name = "exemplary_day", joinColumns = @JoinColumn(name = "simulation_result_id"))
-    @Column(name = "power_demand")
+    @Convert(converter = DoubleArrayConverter.class)
+    @Column(name = "exemplary_day", length = SERIES_COLUMN_LENGTH)
     @Builder.Default
-    private List<Double> exemplaryDay = new ArrayList<>();
+    private double[] exemplaryDay = new double[0];
 
     private int eventsPerYear;
 
-    @ElementCollection
-    @CollectionTable(name = "events_per_month", joinColumns = @JoinColumn(name = "simulation_result_id"))
-    @Column(name = "events_per_month")
+    @Convert(converter = IntArrayConverter.class)
+    @Column(name = "events_per_month", length = SERIES_COLUMN_LENGTH)
     @Builder.Default
-    private List<Integer> eventsPerMonth = new ArrayList<>();
+    private int[] eventsPerMonth = new int[0];
 
-    @ElementCollection
-    @CollectionTable(name = "events_per_week", joinColumns = @JoinColumn(name = "simulation_result_id"))
-    @Column(name = "events_per_week")
+    @Convert(converter = IntArrayConverter.class)
+    @Column(name = "events_per_week", length = SERIES_COLUMN_LENGTH)
     @Builder.Default
-    private List<Integer> eventsPerWeek = new ArrayList<>();
+    private int[] eventsPerWeek = new int[0];
 
-    @ElementCollection
-    @CollectionTable(name = "events_per_day", joinColumns = @JoinColumn(name = "simulation_result_id"))
-    @Column(name = "events_per_day")
+    @Convert(converter = IntArrayConverter.class)
+    @Column(name = "events_per_day", length = SERIES_COLUMN_LENGTH)
     @Builder.Default
-    private List<Integer> eventsPerDay = new ArrayList<>();
-
-
+    private int[] eventsPerDay = new int[0];
 }
\ No newline at end of file
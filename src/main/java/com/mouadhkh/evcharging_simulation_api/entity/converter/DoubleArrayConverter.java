@@ -0,0 +1,18 @@
+package com.mouadhkh.evcharging_simulation_api.entity.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class DoubleArrayConverter implements AttributeConverter<double[], byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(double[] values) {
+        return values == null ? null : PackedArrayCodec.encodeDoubles(values);
+    }
+
+    @Override
+    public double[] convertToEntityAttribute(byte[] packed) {
+        return packed == null ? null : PackedArrayCodec.decodeDoubles(packed);
+    }
+}
@@ -0,0 +1,18 @@
+package com.mouadhkh.evcharging_simulation_api.entity.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class IntArrayConverter implements AttributeConverter<int[], byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(int[] values) {
+        return values == null ? null : PackedArrayCodec.encodeInts(values);
+    }
+
+    @Override
+    public int[] convertToEntityAttribute(byte[] packed) {
+        return packed == null ? null : PackedArrayCodec.decodeInts(packed);
+    }
+}
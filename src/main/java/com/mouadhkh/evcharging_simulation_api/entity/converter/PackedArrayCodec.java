@@ -0,0 +1,125 @@
+package com.mouadhkh.evcharging_simulation_api.entity.converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Packs primitive arrays into a compact binary form: one encoding byte, the element count as little-endian int and
+ * the little-endian values, deflated when that saves space. Payloads below {@link #COMPRESSION_THRESHOLD} bytes are
+ * stored raw since deflating them costs more CPU than the few bytes it saves.
+ */
+public final class PackedArrayCodec {
+
+    static final byte RAW = 0;
+    static final byte DEFLATED = 1;
+    static final int COMPRESSION_THRESHOLD = 512;
+    private static final int HEADER_SIZE = 1 + Integer.BYTES;
+
+    private PackedArrayCodec() {
+    }
+
+    public static byte[] encodeDoubles(double[] values) {
+        ByteBuffer payload = ByteBuffer.allocate(values.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        payload.asDoubleBuffer().put(values);
+        return pack(values.length, payload.array());
+    }
+
+    public static double[] decodeDoubles(byte[] packed) {
+        int count = count(packed);
+        double[] values = new double[count];
+        unpack(packed, count * Double.BYTES).asDoubleBuffer().get(values);
+        return values;
+    }
+
+    public static byte[] encodeInts(int[] values) {
+        ByteBuffer payload = ByteBuffer.allocate(values.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        payload.asIntBuffer().put(values);
+        return pack(values.length, payload.array());
+    }
+
+    public static int[] decodeInts(byte[] packed) {
+        int count = count(packed);
+        int[] values = new int[count];
+        unpack(packed, count * Integer.BYTES).asIntBuffer().get(values);
+        return values;
+    }
+
+    private static byte[] pack(int count, byte[] payload) {
+        byte encoding = RAW;
+        byte[] body = payload;
+        if (payload.length >= COMPRESSION_THRESHOLD) {
+            byte[] deflated = deflate(payload);
+            if (deflated.length < payload.length) {
+                encoding = DEFLATED;
+                body = deflated;
+            }
+        }
+        ByteBuffer packed = ByteBuffer.allocate(HEADER_SIZE + body.length).order(ByteOrder.LITTLE_ENDIAN);
+        packed.put(encoding).putInt(count).put(body);
+        return packed.array();
+    }
+
+    private static int count(byte[] packed) {
+        if (packed.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Packed array is truncated");
+        }
+        return ByteBuffer.wrap(packed, 1, Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).getInt();
+    }
+
+    private static ByteBuffer unpack(byte[] packed, int payloadLength) {
+        if (packed[0] == RAW) {
+            if (packed.length - HEADER_SIZE != payloadLength) {
+                throw new IllegalArgumentException("Packed array length does not match its element count");
+            }
+            return ByteBuffer.wrap(packed, HEADER_SIZE, payloadLength).slice().order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (packed[0] == DEFLATED) {
+            return ByteBuffer.wrap(inflate(packed, payloadLength)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        throw new IllegalArgumentException("Unknown packed array encoding: " + packed[0]);
+    }
+
+    private static byte[] deflate(byte[] payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] packed, int payloadLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(packed, HEADER_SIZE, packed.length - HEADER_SIZE);
+            byte[] payload = new byte[payloadLength];
+            int read = 0;
+            while (read < payloadLength && !inflater.finished()) {
+                int n = inflater.inflate(payload, read, payloadLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != payloadLength) {
+                throw new IllegalArgumentException("Packed array payload is truncated");
+            }
+            return payload;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Packed array payload is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
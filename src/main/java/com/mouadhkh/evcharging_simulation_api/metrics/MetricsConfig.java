@@ -0,0 +1,15 @@
+package com.mouadhkh.evcharging_simulation_api.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedJacksonHttpMessageConverter timedJacksonHttpMessageConverter(ObjectMapper objectMapper,
+                                                                             SimulationMetrics simulationMetrics) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, simulationMetrics);
+    }
+}
@@ -0,0 +1,85 @@
+package com.mouadhkh.evcharging_simulation_api.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the simulation pipeline. Percentiles and histograms are configured through the
+ * management.metrics.distribution.* properties for every meter named simulation.*.
+ */
+@Component
+public class SimulationMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlightRuns = new AtomicInteger();
+
+    public SimulationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("simulation.runs.in.flight", inFlightRuns, AtomicInteger::get)
+                .description("Simulations currently executing")
+                .register(meterRegistry);
+    }
+
+    public <T> T recordRun(String engine, int numberOfChargePoints, Supplier<T> run) {
+        inFlightRuns.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return run.get();
+        } finally {
+            inFlightRuns.decrementAndGet();
+            sample.stop(Timer.builder("simulation.run")
+                    .description("Duration of a single simulated year")
+                    .tag("engine", engine)
+                    .tag("chargePoints", chargePointBucket(numberOfChargePoints))
+                    .register(meterRegistry));
+        }
+    }
+
+    public <T> T recordPersistence(Supplier<T> persistence) {
+        return Timer.builder("simulation.persist")
+                .description("Duration of the transaction persisting a simulation result")
+                .register(meterRegistry)
+                .record(persistence);
+    }
+
+    public void recordSerialization(String type, long nanos) {
+        Timer.builder("simulation.serialization")
+                .description("Time spent serializing and writing a response body")
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPayloadSize(String endpoint, long bytes) {
+        DistributionSummary.builder("simulation.result.payload")
+                .description("Size of simulation result response bodies")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    // bounded tag values: one timer series per order of magnitude of the station size
+    static String chargePointBucket(int numberOfChargePoints) {
+        if (numberOfChargePoints <= 10) {
+            return "1-10";
+        }
+        if (numberOfChargePoints <= 50) {
+            return "11-50";
+        }
+        if (numberOfChargePoints <= 200) {
+            return "51-200";
+        }
+        if (numberOfChargePoints <= 1000) {
+            return "201-1000";
+        }
+        return "1000+";
+    }
+}
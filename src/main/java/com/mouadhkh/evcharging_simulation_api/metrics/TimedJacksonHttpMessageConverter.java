@@ -0,0 +1,32 @@
+package com.mouadhkh.evcharging_simulation_api.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * The JSON converter of the application, additionally timing every body it writes. Registered as a bean it replaces
+ * the default Jackson converter.
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final SimulationMetrics simulationMetrics;
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, SimulationMetrics simulationMetrics) {
+        super(objectMapper);
+        this.simulationMetrics = simulationMetrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            simulationMetrics.recordSerialization(object.getClass().getSimpleName(), System.nanoTime() - start);
+        }
+    }
+}
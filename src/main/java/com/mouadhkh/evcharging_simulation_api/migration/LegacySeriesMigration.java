@@ -0,0 +1,135 @@
+package com.mouadhkh.evcharging_simulation_api.migration;
+
+import com.mouadhkh.evcharging_simulation_api.entity.converter.PackedArrayCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves the series of results written before they were stored packed out of the old one-row-per-value collection
+ * tables into the packed columns of simulation_result. Runs on startup, is idempotent (only rows whose packed
+ * columns are still null are touched) and leaves the legacy tables in place unless dropping them is enabled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "simulation.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class LegacySeriesMigration implements ApplicationRunner {
+
+    private record LegacySeries(String table, String column, boolean integer) {
+    }
+
+    private static final List<LegacySeries> LEGACY_SERIES = List.of(
+            new LegacySeries("utilization_rates", "utilization_rate", false),
+            new LegacySeries("average_powers", "average_power", false),
+            new LegacySeries("exemplary_day", "power_demand", false),
+            new LegacySeries("events_per_month", "events_per_month", true),
+            new LegacySeries("events_per_week", "events_per_week", true),
+            new LegacySeries("events_per_day", "events_per_day", true)
+    );
+
+    // while they exist their rows reference simulation_result, deleting a result must delete them first
+    public static final List<String> LEGACY_SERIES_TABLES = LEGACY_SERIES.stream().map(LegacySeries::table).toList();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean dropLegacyTables;
+
+    public LegacySeriesMigration(JdbcTemplate jdbcTemplate,
+                                 NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${simulation.migration.batch-size:500}") int batchSize,
+                                 @Value("${simulation.migration.drop-legacy-series-tables:false}") boolean dropLegacyTables) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.dropLegacyTables = dropLegacyTables;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!legacyTablesExist(jdbcTemplate)) {
+            return;
+        }
+        int migrated = 0;
+        List<Long> ids;
+        while (!(ids = nextUnmigratedIds()).isEmpty()) {
+            List<Long> batch = ids;
+            transactionTemplate.executeWithoutResult(status -> migrate(batch));
+            migrated += batch.size();
+        }
+        if (migrated > 0) {
+            log.info("Packed the series of {} legacy simulation results", migrated);
+        }
+        if (dropLegacyTables) {
+            LEGACY_SERIES.forEach(series -> jdbcTemplate.execute("DROP TABLE " + series.table()));
+            log.info("Dropped the legacy series tables");
+        }
+    }
+
+    public static boolean legacyTablesExist(JdbcTemplate jdbcTemplate) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.tables WHERE table_name = 'utilization_rates'", Integer.class);
+        return count != null && count > 0;
+    }
+
+    private List<Long> nextUnmigratedIds() {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM simulation_result WHERE utilization_rates IS NULL ORDER BY id LIMIT ?", Long.class, batchSize);
+    }
+
+    private void migrate(List<Long> ids) {
+        Map<String, Map<Long, byte[]>> packedByColumn = new HashMap<>();
+        for (LegacySeries series : LEGACY_SERIES) {
+            packedByColumn.put(series.table(), readPacked(series, ids));
+        }
+        List<Object[]> updates = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Object[] row = new Object[LEGACY_SERIES.size() + 1];
+            for (int i = 0; i < LEGACY_SERIES.size(); i++) {
+                LegacySeries series = LEGACY_SERIES.get(i);
+                row[i] = packedByColumn.get(series.table()).getOrDefault(id, emptySeries(series));
+            }
+            row[LEGACY_SERIES.size()] = id;
+            updates.add(row);
+        }
+        jdbcTemplate.batchUpdate("UPDATE simulation_result SET utilization_rates = ?, average_powers = ?, exemplary_day = ?, "
+                + "events_per_month = ?, events_per_week = ?, events_per_day = ? WHERE id = ?", updates);
+    }
+
+    private Map<Long, byte[]> readPacked(LegacySeries series, List<Long> ids) {
+        Map<Long, List<Number>> valuesById = new HashMap<>();
+        // The collection tables have no order column: rows were inserted in list order and never updated, so the
+        // physical order (ctid) is the list order.
+        namedParameterJdbcTemplate.query(
+                "SELECT simulation_result_id, " + series.column() + " FROM " + series.table()
+                        + " WHERE simulation_result_id IN (:ids) ORDER BY simulation_result_id, ctid",
+                new MapSqlParameterSource("ids", ids),
+                (RowCallbackHandler) rs -> valuesById.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>())
+                        .add((Number) rs.getObject(2)));
+        Map<Long, byte[]> packed = new HashMap<>();
+        valuesById.forEach((id, values) -> packed.put(id, series.integer()
+                ? PackedArrayCodec.encodeInts(values.stream().mapToInt(Number::intValue).toArray())
+                : PackedArrayCodec.encodeDoubles(values.stream().mapToDouble(Number::doubleValue).toArray())));
+        return packed;
+    }
+
+    private static byte[] emptySeries(LegacySeries series) {
+        return series.integer() ? PackedArrayCodec.encodeInts(new int[0]) : PackedArrayCodec.encodeDoubles(new double[0]);
+    }
+}
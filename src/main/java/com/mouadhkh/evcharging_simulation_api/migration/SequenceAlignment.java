@@ -0,0 +1,45 @@
+package com.mouadhkh.evcharging_simulation_api.migration;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Ids used to be generated by IDENTITY columns, the sequences that replaced them start at 1. Before anything is
+ * inserted the sequences are moved past the highest existing id, leaving one allocation block of headroom for the
+ * pooled optimizer. Runs while the context starts (after Hibernate updated the schema, before the web server
+ * accepts requests) and does nothing once a sequence is ahead of its table.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "simulation.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class SequenceAlignment implements InitializingBean {
+
+    private static final int ALLOCATION_SIZE = 50;
+    private static final List<String> TABLES = List.of("simulation_input", "simulation_result");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // depending on the EntityManagerFactory guarantees the schema update (creating the sequences) already ran
+    public SequenceAlignment(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String table : TABLES) {
+            String sequence = table + "_seq";
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+            if (maxId != null && lastValue != null && lastValue < maxId) {
+                jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', ?)", Long.class, maxId + ALLOCATION_SIZE);
+                log.info("Moved {} past the highest existing id {}", sequence, maxId);
+            }
+        }
+    }
+}
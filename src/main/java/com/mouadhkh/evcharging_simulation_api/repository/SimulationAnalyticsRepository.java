@@ -0,0 +1,69 @@
+package com.mouadhkh.evcharging_simulation_api.repository;
+
+import com.mouadhkh.evcharging_simulation_api.dto.AnalyticsCurvePointDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.AnalyticsMetric;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Aggregates over all stored results, computed by the database. Only scalar columns are read, none of the packed
+ * series, and the result has one row per group. Percentiles need percentile_cont, which JPQL lacks, hence plain SQL
+ * (supported by PostgreSQL and H2).
+ */
+@Repository
+public class SimulationAnalyticsRepository {
+
+    // a tiny offset keeps multipliers on a bucket boundary (0.3 / 0.1 = 2.9999...) in the bucket they start
+    private static final double BUCKET_EPSILON = 1e-9;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SimulationAnalyticsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<AnalyticsCurvePointDTO> findCurve(AnalyticsMetric metric, double multiplierBucketWidth,
+                                                  int minChargePoints, int maxChargePoints, SimulationEngineType engine) {
+        // the column comes from the enum, never from the request. The bucket is computed in a subquery: a parameter
+        // repeated in GROUP BY would be a second bind variable, which PostgreSQL does not match with the select list
+        StringBuilder rows = new StringBuilder()
+                .append("SELECT i.number_of_charge_points AS charge_points, ")
+                .append("FLOOR(i.arrival_probability_multiplier / :width + ").append(BUCKET_EPSILON).append(") AS bucket, ")
+                .append("r.").append(metric.getColumn()).append(" AS metric_value ")
+                .append("FROM simulation_result r JOIN simulation_input i ON i.id = r.simulation_input_id ")
+                .append("WHERE i.number_of_charge_points BETWEEN :minChargePoints AND :maxChargePoints");
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("width", multiplierBucketWidth)
+                .addValue("minChargePoints", minChargePoints)
+                .addValue("maxChargePoints", maxChargePoints);
+        if (engine != null) {
+            // results stored before engines were selectable have no engine and were all run externally
+            rows.append(engine == SimulationEngineType.EXTERNAL
+                    ? " AND (r.engine = :engine OR r.engine IS NULL)"
+                    : " AND r.engine = :engine");
+            parameters.addValue("engine", engine.getName());
+        }
+        String sql = "SELECT charge_points, bucket, COUNT(*) AS results, AVG(metric_value) AS mean, " +
+                "MIN(metric_value) AS min_value, MAX(metric_value) AS max_value, " +
+                "PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY metric_value) AS p50, " +
+                "PERCENTILE_CONT(0.95) WITHIN GROUP (ORDER BY metric_value) AS p95, " +
+                "PERCENTILE_CONT(0.99) WITHIN GROUP (ORDER BY metric_value) AS p99 " +
+                "FROM (" + rows + ") grouped " +
+                "GROUP BY charge_points, bucket ORDER BY charge_points, bucket";
+
+        return jdbcTemplate.query(sql, parameters, (rs, rowNum) -> new AnalyticsCurvePointDTO(
+                rs.getInt("charge_points"),
+                Math.round(rs.getLong("bucket") * multiplierBucketWidth * 1e6) / 1e6,
+                rs.getLong("results"),
+                rs.getDouble("mean"),
+                rs.getDouble("min_value"),
+                rs.getDouble("max_value"),
+                rs.getDouble("p50"),
+                rs.getDouble("p95"),
+                rs.getDouble("p99")));
+    }
+}
@@ -0,0 +1,26 @@
+package com.mouadhkh.evcharging_simulation_api.repository;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationArrivalTrace;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface SimulationArrivalTraceRepository extends JpaRepository<SimulationArrivalTrace, Long> {
+
+    Optional<SimulationArrivalTrace> findBySeedAndNumberOfChargePointsAndArrivalProbabilityMultiplier(
+            long seed, int numberOfChargePoints, double arrivalProbabilityMultiplier);
+
+    // traces no seeded native result in the database has the parameters of any more, e.g. once they were archived
+    @Transactional
+    @Modifying
+    @Query("delete from SimulationArrivalTrace t where t.createdAt < :createdBefore and not exists (" +
+            "select r.id from SimulationResult r join r.simulationInput i where r.engine = 'native' " +
+            "and r.seed = t.seed and i.numberOfChargePoints = t.numberOfChargePoints " +
+            "and i.arrivalProbabilityMultiplier = t.arrivalProbabilityMultiplier)")
+    int deleteUnreferencedCreatedBefore(@Param("createdBefore") Instant createdBefore);
+}
@@ -1,7 +1,12 @@
 package com.mouadhkh.evcharging_simulation_api.repository;
 
 import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface SimulationInputRepository extends JpaRepository<SimulationInput, Long> {
+    // keyset pagination: an index seek on the primary key, the List return type skips the count query
+    List<SimulationInput> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
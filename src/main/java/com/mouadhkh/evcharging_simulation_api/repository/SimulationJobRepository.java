@@ -0,0 +1,88 @@
+package com.mouadhkh.evcharging_simulation_api.repository;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationJob;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface SimulationJobRepository extends JpaRepository<SimulationJob, UUID> {
+    String STATUS = "com.mouadhkh.evcharging_simulation_api.dto.SimulationJobStatus.";
+
+    // Held until the transaction ends, so submissions of all instances take their turn at the capacity check of
+    // enqueue. Workers do not take it, claiming jobs is never blocked by a submission.
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:key)) AS submission_lock", nativeQuery = true)
+    int lockSubmissions(@Param("key") long key);
+
+    // Inserts a QUEUED job unless capacity jobs are queued already, the count and the insert are one statement.
+    // Must run after lockSubmissions in the same transaction: its snapshot then includes every earlier submission.
+    @Modifying
+    @Query(value = "INSERT INTO simulation_job (id, simulation_input_id, seed, engine, status, attempts, submitted_at) " +
+            "SELECT :id, :simulationInputId, CAST(:seed AS bigint), CAST(:engine AS varchar), 'QUEUED', 0, :submittedAt " +
+            "WHERE (SELECT count(*) FROM simulation_job WHERE status = 'QUEUED') < :capacity", nativeQuery = true)
+    int enqueue(@Param("id") UUID id, @Param("simulationInputId") Long simulationInputId, @Param("seed") Long seed,
+                @Param("engine") String engine, @Param("submittedAt") Instant submittedAt, @Param("capacity") int capacity);
+
+    // Rows locked by another worker's claim are skipped instead of waited for, so concurrent workers each get
+    // different jobs without blocking each other. Must run in the transaction that marks the jobs RUNNING.
+    @Query(value = "SELECT * FROM simulation_job WHERE status = 'QUEUED' ORDER BY submitted_at LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<SimulationJob> lockQueued(@Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("update SimulationJob j set j.leaseExpiresAt = :leaseExpiresAt " +
+            "where j.id in :ids and j.workerId = :workerId and j.status = " + STATUS + "RUNNING")
+    int renewLeases(@Param("ids") Collection<UUID> ids, @Param("workerId") String workerId,
+                    @Param("leaseExpiresAt") Instant leaseExpiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("update SimulationJob j set j.status = " + STATUS + "QUEUED, j.leaseExpiresAt = null " +
+            "where j.status = " + STATUS + "RUNNING and j.leaseExpiresAt < :now and j.attempts < :maxAttempts")
+    int requeueExpired(@Param("now") Instant now, @Param("maxAttempts") int maxAttempts);
+
+    // Gives a claimed job back without counting the attempt, for work this worker could not start
+    @Transactional
+    @Modifying
+    @Query("update SimulationJob j set j.status = " + STATUS + "QUEUED, j.leaseExpiresAt = null, " +
+            "j.attempts = j.attempts - 1 " +
+            "where j.id = :id and j.workerId = :workerId and j.status = " + STATUS + "RUNNING")
+    int requeue(@Param("id") UUID id, @Param("workerId") String workerId);
+
+    @Transactional
+    @Modifying
+    @Query("update SimulationJob j set j.status = " + STATUS + "FAILED, j.leaseExpiresAt = null, " +
+            "j.finishedAt = :now, j.error = 'Worker lease expired on every attempt' " +
+            "where j.status = " + STATUS + "RUNNING and j.leaseExpiresAt < :now and j.attempts >= :maxAttempts")
+    int failExpired(@Param("now") Instant now, @Param("maxAttempts") int maxAttempts);
+
+    // Only the worker still holding the lease may finish the job: a worker that lost it (the job was queued again)
+    // must not overwrite the outcome of the next attempt.
+    @Transactional
+    @Modifying
+    @Query("update SimulationJob j set j.status = " + STATUS + "SUCCEEDED, j.simulationResultId = :resultId, " +
+            "j.finishedAt = :now, j.leaseExpiresAt = null " +
+            "where j.id = :id and j.workerId = :workerId and j.status = " + STATUS + "RUNNING")
+    int markSucceeded(@Param("id") UUID id, @Param("workerId") String workerId, @Param("resultId") Long resultId,
+                      @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update SimulationJob j set j.status = " + STATUS + "FAILED, j.error = :error, j.finishedAt = :now, " +
+            "j.leaseExpiresAt = null " +
+            "where j.id = :id and j.workerId = :workerId and j.status = " + STATUS + "RUNNING")
+    int markFailed(@Param("id") UUID id, @Param("workerId") String workerId, @Param("error") String error,
+                   @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from SimulationJob j where j.finishedAt < :expiry")
+    int deleteFinishedBefore(@Param("expiry") Instant expiry);
+}
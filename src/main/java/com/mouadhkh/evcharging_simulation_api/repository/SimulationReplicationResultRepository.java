@@ -0,0 +1,7 @@
+package com.mouadhkh.evcharging_simulation_api.repository;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationReplicationResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SimulationReplicationResultRepository extends JpaRepository<SimulationReplicationResult, Long> {
+}
@@ -1,10 +1,37 @@
 package com.mouadhkh.evcharging_simulation_api.repository;
 
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultSummaryDTO;
 import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 
-public interface SimulationResultRepository extends JpaRepository<SimulationResult, Long> {
+public interface SimulationResultRepository extends JpaRepository<SimulationResult, Long>, SimulationResultRepositoryCustom {
     List<SimulationResult> findAllBySimulationInputId(Long simulationInputId);
+
+    @Query(value = "SELECT new com.mouadhkh.evcharging_simulation_api.dto.SimulationResultSummaryDTO(" +
+            "r.id, r.simulationInput.id, r.seed, r.engine, r.createdAt, r.totalEnergyCharged, r.actualMaxPowerDemand, " +
+            "r.theoreticalMaxPowerDemand, r.concurrencyFactor, r.eventsPerYear) FROM SimulationResult r",
+            countQuery = "SELECT count(r) FROM SimulationResult r")
+    Page<SimulationResultSummaryDTO> findAllSummaries(Pageable pageable);
+
+    @Query("SELECT new com.mouadhkh.evcharging_simulation_api.dto.SimulationResultSummaryDTO(" +
+            "r.id, r.simulationInput.id, r.seed, r.engine, r.createdAt, r.totalEnergyCharged, r.actualMaxPowerDemand, " +
+            "r.theoreticalMaxPowerDemand, r.concurrencyFactor, r.eventsPerYear) FROM SimulationResult r " +
+            "WHERE r.id > :after ORDER BY r.id")
+    List<SimulationResultSummaryDTO> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    List<SimulationResult> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Results to archive, rows locked by another instance's archiver are skipped. Results whose series were not yet
+    // moved out of the legacy tables (packed columns null) are left for the migration. Must run in the transaction
+    // that deletes them.
+    @Query(value = "SELECT * FROM simulation_result WHERE (created_at < :cutoff OR created_at IS NULL) " +
+            "AND utilization_rates IS NOT NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<SimulationResult> lockCreatedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
 }
@@ -0,0 +1,14 @@
+package com.mouadhkh.evcharging_simulation_api.repository;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+
+import java.time.Instant;
+import java.util.stream.Stream;
+
+public interface SimulationResultRepositoryCustom {
+    /**
+     * Streams the results matching the optional filters in id order from a forward-only cursor. Has to be consumed
+     * and closed within a transaction, entities should be detached once processed to keep the heap flat.
+     */
+    Stream<SimulationResult> streamAll(Long simulationInputId, Instant createdFrom, Instant createdTo, int fetchSize);
+}
@@ -0,0 +1,47 @@
+package com.mouadhkh.evcharging_simulation_api.repository;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+class SimulationResultRepositoryCustomImpl implements SimulationResultRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    SimulationResultRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Stream<SimulationResult> streamAll(Long simulationInputId, Instant createdFrom, Instant createdTo, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SimulationResult> query = cb.createQuery(SimulationResult.class);
+        Root<SimulationResult> result = query.from(SimulationResult.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (simulationInputId != null) {
+            predicates.add(cb.equal(result.get("simulationInput").get("id"), simulationInputId));
+        }
+        if (createdFrom != null) {
+            predicates.add(cb.greaterThanOrEqualTo(result.get("createdAt"), createdFrom));
+        }
+        if (createdTo != null) {
+            predicates.add(cb.lessThan(result.get("createdAt"), createdTo));
+        }
+        query.select(result).where(predicates.toArray(Predicate[]::new)).orderBy(cb.asc(result.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,160 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * The arrivals the {@link NativeSimulationEngine} draws for a seed, number of charge points and arrival probability
+ * multiplier: every EV that arrives with a non-zero demand, whether its charge point is free or not. Power and
+ * consumption do not influence the arrivals, so one trace can be replayed with any of them.
+ * <p>
+ * Events are grouped by charge point in time order, each one packs the interval of the year and the index of its
+ * demand in the demand distribution. The encoded form stores per charge point the number of events followed by the
+ * varint encoded distance to the previous event, about two bytes per arrival.
+ */
+public final class ArrivalTrace {
+    static final int DEMAND_BITS = 4;
+    static final int DEMAND_MASK = (1 << DEMAND_BITS) - 1;
+
+    private final int[] offsets;
+    private final int[] events;
+
+    /**
+     * @param offsets events of charge point i are events[offsets[i]] to events[offsets[i + 1]] (exclusive)
+     * @param events  interval << DEMAND_BITS | demand index
+     */
+    ArrivalTrace(int[] offsets, int[] events) {
+        this.offsets = offsets;
+        this.events = events;
+    }
+
+    static int event(int interval, int demandIndex) {
+        return interval << DEMAND_BITS | demandIndex;
+    }
+
+    static int interval(int event) {
+        return event >>> DEMAND_BITS;
+    }
+
+    static int demandIndex(int event) {
+        return event & DEMAND_MASK;
+    }
+
+    public int getChargePoints() {
+        return offsets.length - 1;
+    }
+
+    public int getEventCount() {
+        return events.length;
+    }
+
+    int firstEvent(int chargePoint) {
+        return offsets[chargePoint];
+    }
+
+    int endEvent(int chargePoint) {
+        return offsets[chargePoint + 1];
+    }
+
+    int event(int index) {
+        return events[index];
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(events.length * 2 + getChargePoints());
+        for (int chargePoint = 0; chargePoint < getChargePoints(); chargePoint++) {
+            writeVarInt(out, endEvent(chargePoint) - firstEvent(chargePoint));
+            int previousInterval = 0;
+            for (int i = firstEvent(chargePoint); i < endEvent(chargePoint); i++) {
+                int interval = interval(events[i]);
+                writeVarInt(out, event(interval - previousInterval, demandIndex(events[i])));
+                previousInterval = interval;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static ArrivalTrace decode(byte[] encoded, int chargePoints, int eventCount) {
+        int[] offsets = new int[chargePoints + 1];
+        int[] events = new int[eventCount];
+        int[] position = {0};
+        int next = 0;
+        for (int chargePoint = 0; chargePoint < chargePoints; chargePoint++) {
+            offsets[chargePoint] = next;
+            int count = readVarInt(encoded, position);
+            int interval = 0;
+            for (int i = 0; i < count; i++) {
+                int delta = readVarInt(encoded, position);
+                interval += interval(delta);
+                events[next++] = event(interval, demandIndex(delta));
+            }
+        }
+        offsets[chargePoints] = next;
+        if (next != eventCount || position[0] != encoded.length) {
+            throw new IllegalArgumentException("Corrupt arrival trace");
+        }
+        return new ArrivalTrace(offsets, events);
+    }
+
+    /**
+     * Collects events in the order they are drawn (interval by interval, charge point by charge point) and groups
+     * them by charge point, which keeps each charge point's events in time order.
+     */
+    static final class Builder {
+        private final int chargePoints;
+        private int[] chargePointOfEvent = new int[1024];
+        private int[] drawnEvents = new int[1024];
+        private int size;
+
+        Builder(int chargePoints) {
+            this.chargePoints = chargePoints;
+        }
+
+        void add(int chargePoint, int interval, int demandIndex) {
+            if (size == drawnEvents.length) {
+                chargePointOfEvent = Arrays.copyOf(chargePointOfEvent, size * 2);
+                drawnEvents = Arrays.copyOf(drawnEvents, size * 2);
+            }
+            chargePointOfEvent[size] = chargePoint;
+            drawnEvents[size++] = event(interval, demandIndex);
+        }
+
+        ArrivalTrace build() {
+            int[] offsets = new int[chargePoints + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[chargePointOfEvent[i] + 1]++;
+            }
+            for (int chargePoint = 0; chargePoint < chargePoints; chargePoint++) {
+                offsets[chargePoint + 1] += offsets[chargePoint];
+            }
+            int[] next = Arrays.copyOf(offsets, chargePoints);
+            int[] events = new int[size];
+            for (int i = 0; i < size; i++) {
+                events[next[chargePointOfEvent[i]]++] = drawnEvents[i];
+            }
+            return new ArrivalTrace(offsets, events);
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(byte[] in, int[] position) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (position[0] >= in.length || shift > 28) {
+                throw new IllegalArgumentException("Corrupt arrival trace");
+            }
+            byte b = in[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import com.mouadhkh.simulator.ChargingStationSimulator;
+import com.mouadhkh.simulator.model.ChargePointMetric;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Engine backed by the charging-stations-simulator library. The library only takes the number of charge points and
+ * the arrival probability multiplier and cannot be seeded: EV consumption, charging power and the seed are ignored.
+ */
+@Component
+public class ExternalSimulationEngine implements SimulationEngine {
+
+    @Override
+    public SimulationEngineType getType() {
+        return SimulationEngineType.EXTERNAL;
+    }
+
+    @Override
+    public boolean isSeeded() {
+        return false;
+    }
+
+    @Override
+    public SimulationResult simulate(SimulationInput simulationInput, long seed) {
+        ChargingStationSimulator simulator = new ChargingStationSimulator(
+                simulationInput.getNumberOfChargePoints(),
+                simulationInput.getArrivalProbabilityMultiplier()
+        );
+        return toEntity(simulator.run());
+    }
+
+    public SimulationResult toEntity(com.mouadhkh.simulator.simulation.SimulationResult simulationResult) {
+        List<ChargePointMetric> chargingPointMetrics = simulationResult.getChargingPointsMetrics();
+        double[] utilizationRates = new double[chargingPointMetrics.size()];
+        double[] averagePowers = new double[chargingPointMetrics.size()];
+        for (int i = 0; i < chargingPointMetrics.size(); i++) {
+            ChargePointMetric metric = chargingPointMetrics.get(i);
+            utilizationRates[i] = metric.getUtilizationRate();
+            averagePowers[i] = metric.getAveragePower();
+        }
+        return SimulationResult.builder()
+                .totalEnergyCharged(simulationResult.getTotalEnergyConsumed())
+                .actualMaxPowerDemand(simulationResult.getActualMaxPowerDemand())
+                .theoreticalMaxPowerDemand(simulationResult.getTheoreticalMaxPowerDemand())
+                .concurrencyFactor(simulationResult.getConcurrencyFactor())
+                .utilizationRates(utilizationRates)
+                .averagePowers(averagePowers)
+                .exemplaryDay(toDoubleArray(simulationResult.getExemplaryDay()))
+                .eventsPerYear(simulationResult.getYearlyChargingEvents())
+                .eventsPerMonth(toIntArray(simulationResult.getMonthlyChargingEvents()))
+                .eventsPerWeek(toIntArray(simulationResult.getWeeklyChargingEvents()))
+                .eventsPerDay(toIntArray(simulationResult.getDailyChargingEvents()))
+                .build();
+    }
+
+    private static double[] toDoubleArray(List<Double> values) {
+        return values.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    private static int[] toIntArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,63 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Stored results mapped to their response, bounded by the size of their series. Stored results never change, so
+ * entries are never invalidated, only evicted; results still waiting for the legacy series migration are not put.
+ * Cached results are shared between requests and must not be modified.
+ */
+@Component
+public class MappedResultCache {
+    private static final int FIELDS_SIZE = 128;
+
+    private final Cache<String, SimulationResultDTO> cache;
+
+    public MappedResultCache(@Value("${simulation.mapped-result-cache.max-size:64MB}") DataSize maxSize,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, SimulationResultDTO result) -> weight(result))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "mappedResults");
+    }
+
+    public SimulationResultDTO getIfPresent(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, SimulationResultDTO result) {
+        cache.put(key, result);
+    }
+
+    // the series dominate, the scalar fields are a rough constant
+    private static int weight(SimulationResultDTO result) {
+        long bytes = FIELDS_SIZE
+                + Double.BYTES * (length(result.getExemplaryDay()) + length(result.getUtilizationRates())
+                + length(result.getAveragePowers()))
+                + Integer.BYTES * (length(result.getEventsPerMonth()) + length(result.getEventsPerWeek())
+                + length(result.getEventsPerDay()));
+        if (result.getSeriesIndices() != null) {
+            for (int[] indices : result.getSeriesIndices().values()) {
+                bytes += Integer.BYTES * (long) indices.length;
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long length(double[] values) {
+        return values == null ? 0 : values.length;
+    }
+
+    private static long length(int[] values) {
+        return values == null ? 0 : values.length;
+    }
+}
@@ -0,0 +1,290 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import org.springframework.stereotype.Component;
+
+import java.util.SplittableRandom;
+
+/**
+ * In-project engine simulating a (non leap) year in 15 minute intervals. The whole state lives in flat primitive
+ * arrays indexed by charge point and the interval loop allocates nothing.
+ * <p>
+ * In every interval a free charge point receives an EV with the arrival probability of the hour (scaled by the
+ * multiplier). The EV needs the energy for a driving distance drawn from the demand distribution, at the input's
+ * consumption, and charges with the charge point's power until that energy is delivered. Random draws depend on the
+ * seed only, never on occupancy: the same seed offers the same arrivals whatever the power and consumption are.
+ * {@link #traceArrivals} records them and {@link #replay} charges them again with another power or consumption.
+ */
+@Component
+public class NativeSimulationEngine implements SimulationEngine {
+    static final int INTERVALS_PER_HOUR = 4;
+    static final int INTERVALS_PER_DAY = 24 * INTERVALS_PER_HOUR;
+    static final int DAYS_PER_YEAR = 365;
+    static final int INTERVALS_PER_YEAR = DAYS_PER_YEAR * INTERVALS_PER_DAY;
+    static final double INTERVAL_HOURS = 1.0 / INTERVALS_PER_HOUR;
+    private static final int[] DAYS_PER_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int WEEKS_PER_YEAR = (DAYS_PER_YEAR + 6) / 7;
+    // below this an EV counts as fully charged, guards against floating point leftovers
+    private static final double CHARGED_EPSILON = 1e-9;
+
+    // probability of an arrival at a charge point per interval, by hour of the day
+    private static final double[] ARRIVAL_PROBABILITY_BY_HOUR = {
+            0.0094, 0.0094, 0.0094, 0.0094, 0.0094, 0.0094, 0.0094, 0.0094,
+            0.0283, 0.0283, 0.0566, 0.0566, 0.0566, 0.0755, 0.0755, 0.0755,
+            0.1038, 0.1038, 0.1038, 0.0472, 0.0472, 0.0472, 0.0094, 0.0094
+    };
+    // driving distance an arriving EV charges for, 0 means it leaves without charging
+    private static final double[] DEMAND_KILOMETERS = {0, 5, 10, 20, 30, 50, 100, 200, 300};
+    private static final double[] DEMAND_CUMULATIVE_PROBABILITY = cumulative(
+            0.3431, 0.0490, 0.0980, 0.1176, 0.0882, 0.1176, 0.1078, 0.0490, 0.0294);
+
+    @Override
+    public SimulationEngineType getType() {
+        return SimulationEngineType.NATIVE;
+    }
+
+    @Override
+    public boolean isSeeded() {
+        return true;
+    }
+
+    @Override
+    public SimulationResult simulate(SimulationInput simulationInput, long seed) {
+        return simulate(simulationInput, seed, SimulationProgressListener.NONE);
+    }
+
+    @Override
+    public SimulationResult simulate(SimulationInput simulationInput, long seed, SimulationProgressListener progressListener) {
+        requireParameters(simulationInput);
+        int chargePoints = simulationInput.getNumberOfChargePoints();
+        double chargingPower = simulationInput.getChargingPowerPerChargePoint();
+        double consumptionPerKilometer = simulationInput.getEvConsumption() / 100;
+        double maxEnergyPerInterval = chargingPower * INTERVAL_HOURS;
+        double[] arrivalProbability = arrivalProbability(simulationInput);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] remainingEnergy = new double[chargePoints];
+        double[] chargedEnergy = new double[chargePoints];
+        int[] chargingIntervals = new int[chargePoints];
+        int[] eventsPerDay = new int[DAYS_PER_YEAR];
+        double[] dayPower = new double[INTERVALS_PER_DAY];
+        double[] exemplaryDay = new double[INTERVALS_PER_DAY];
+        double exemplaryDayPeak = -1;
+        double totalEnergy = 0;
+        double maxPower = 0;
+
+        for (int day = 0; day < DAYS_PER_YEAR; day++) {
+            double dayPeak = 0;
+            for (int interval = 0; interval < INTERVALS_PER_DAY; interval++) {
+                double probability = arrivalProbability[interval / INTERVALS_PER_HOUR];
+                double intervalEnergy = 0;
+                for (int chargePoint = 0; chargePoint < chargePoints; chargePoint++) {
+                    if (random.nextDouble() < probability) {
+                        double demandKilometers = DEMAND_KILOMETERS[demandIndex(random.nextDouble())];
+                        if (remainingEnergy[chargePoint] == 0 && demandKilometers > 0) {
+                            remainingEnergy[chargePoint] = demandKilometers * consumptionPerKilometer;
+                            eventsPerDay[day]++;
+                        }
+                    }
+                    double remaining = remainingEnergy[chargePoint];
+                    if (remaining > 0) {
+                        double energy = Math.min(remaining, maxEnergyPerInterval);
+                        remaining -= energy;
+                        remainingEnergy[chargePoint] = remaining < CHARGED_EPSILON ? 0 : remaining;
+                        chargedEnergy[chargePoint] += energy;
+                        chargingIntervals[chargePoint]++;
+                        intervalEnergy += energy;
+                    }
+                }
+                double power = intervalEnergy / INTERVAL_HOURS;
+                dayPower[interval] = power;
+                dayPeak = Math.max(dayPeak, power);
+                totalEnergy += intervalEnergy;
+            }
+            maxPower = Math.max(maxPower, dayPeak);
+            // the exemplary day is the one with the highest peak demand
+            if (dayPeak > exemplaryDayPeak) {
+                exemplaryDayPeak = dayPeak;
+                System.arraycopy(dayPower, 0, exemplaryDay, 0, INTERVALS_PER_DAY);
+            }
+            progressListener.onProgress(day + 1, DAYS_PER_YEAR, totalEnergy, maxPower);
+        }
+
+        return toResult(chargePoints, chargingPower, totalEnergy, maxPower, exemplaryDay, chargedEnergy,
+                chargingIntervals, eventsPerDay);
+    }
+
+    /**
+     * Draws the arrivals of a run with this seed, exactly as {@link #simulate} does, without charging them.
+     */
+    public ArrivalTrace traceArrivals(SimulationInput simulationInput, long seed) {
+        requireParameters(simulationInput);
+        int chargePoints = simulationInput.getNumberOfChargePoints();
+        double[] arrivalProbability = arrivalProbability(simulationInput);
+        SplittableRandom random = new SplittableRandom(seed);
+        ArrivalTrace.Builder trace = new ArrivalTrace.Builder(chargePoints);
+        for (int interval = 0; interval < INTERVALS_PER_YEAR; interval++) {
+            double probability = arrivalProbability[interval % INTERVALS_PER_DAY / INTERVALS_PER_HOUR];
+            for (int chargePoint = 0; chargePoint < chargePoints; chargePoint++) {
+                if (random.nextDouble() < probability) {
+                    int demandIndex = demandIndex(random.nextDouble());
+                    // an EV without demand never occupies a charge point, whatever power and consumption are
+                    if (DEMAND_KILOMETERS[demandIndex] > 0) {
+                        trace.add(chargePoint, interval, demandIndex);
+                    }
+                }
+            }
+        }
+        return trace.build();
+    }
+
+    /**
+     * Charges the arrivals of a trace with the power and consumption of the input. Replaying the trace of a seed
+     * with the input it was drawn for gives exactly the result of {@link #simulate} with that seed.
+     * <p>
+     * Charge points are independent of each other, so each one walks its own arrivals: an arrival at a busy charge
+     * point is turned away, any other starts a session. Only intervals in which something is charged are visited.
+     */
+    public SimulationResult replay(SimulationInput simulationInput, ArrivalTrace trace) {
+        requireParameters(simulationInput);
+        int chargePoints = simulationInput.getNumberOfChargePoints();
+        if (trace.getChargePoints() != chargePoints) {
+            throw new IllegalArgumentException("Arrival trace of " + trace.getChargePoints()
+                    + " charge points cannot be replayed with " + chargePoints);
+        }
+        double chargingPower = simulationInput.getChargingPowerPerChargePoint();
+        double consumptionPerKilometer = simulationInput.getEvConsumption() / 100;
+        double maxEnergyPerInterval = chargingPower * INTERVAL_HOURS;
+
+        // filled charge point by charge point, which sums each interval in the same order as simulate does
+        double[] intervalEnergy = new double[INTERVALS_PER_YEAR];
+        double[] chargedEnergy = new double[chargePoints];
+        int[] chargingIntervals = new int[chargePoints];
+        int[] eventsPerDay = new int[DAYS_PER_YEAR];
+        for (int chargePoint = 0; chargePoint < chargePoints; chargePoint++) {
+            int freeFrom = 0;
+            for (int i = trace.firstEvent(chargePoint); i < trace.endEvent(chargePoint) && freeFrom < INTERVALS_PER_YEAR; i++) {
+                int arrival = ArrivalTrace.interval(trace.event(i));
+                if (arrival < freeFrom) {
+                    continue;
+                }
+                eventsPerDay[arrival / INTERVALS_PER_DAY]++;
+                double remaining = DEMAND_KILOMETERS[ArrivalTrace.demandIndex(trace.event(i))] * consumptionPerKilometer;
+                int interval = arrival;
+                while (remaining > 0 && interval < INTERVALS_PER_YEAR) {
+                    double energy = Math.min(remaining, maxEnergyPerInterval);
+                    remaining -= energy;
+                    remaining = remaining < CHARGED_EPSILON ? 0 : remaining;
+                    chargedEnergy[chargePoint] += energy;
+                    intervalEnergy[interval++] += energy;
+                }
+                chargingIntervals[chargePoint] += interval - arrival;
+                freeFrom = remaining > 0 ? INTERVALS_PER_YEAR : interval;
+            }
+        }
+
+        double[] exemplaryDay = new double[INTERVALS_PER_DAY];
+        double exemplaryDayPeak = -1;
+        double totalEnergy = 0;
+        double maxPower = 0;
+        for (int day = 0; day < DAYS_PER_YEAR; day++) {
+            int dayStart = day * INTERVALS_PER_DAY;
+            double dayPeak = 0;
+            for (int interval = 0; interval < INTERVALS_PER_DAY; interval++) {
+                dayPeak = Math.max(dayPeak, intervalEnergy[dayStart + interval] / INTERVAL_HOURS);
+                totalEnergy += intervalEnergy[dayStart + interval];
+            }
+            maxPower = Math.max(maxPower, dayPeak);
+            if (dayPeak > exemplaryDayPeak) {
+                exemplaryDayPeak = dayPeak;
+                for (int interval = 0; interval < INTERVALS_PER_DAY; interval++) {
+                    exemplaryDay[interval] = intervalEnergy[dayStart + interval] / INTERVAL_HOURS;
+                }
+            }
+        }
+        return toResult(chargePoints, chargingPower, totalEnergy, maxPower, exemplaryDay, chargedEnergy,
+                chargingIntervals, eventsPerDay);
+    }
+
+    // unlike the external engine all parameters are used, a null one would fail deep in the run
+    private static void requireParameters(SimulationInput simulationInput) {
+        if (simulationInput.getArrivalProbabilityMultiplier() == null || simulationInput.getEvConsumption() == null
+                || simulationInput.getChargingPowerPerChargePoint() == null) {
+            throw new IllegalArgumentException("The native engine needs arrival probability multiplier, EV energy "
+                    + "consumption and charging power per point");
+        }
+    }
+
+    private static double[] arrivalProbability(SimulationInput simulationInput) {
+        double[] arrivalProbability = new double[ARRIVAL_PROBABILITY_BY_HOUR.length];
+        for (int hour = 0; hour < arrivalProbability.length; hour++) {
+            arrivalProbability[hour] = Math.min(1, ARRIVAL_PROBABILITY_BY_HOUR[hour]
+                    * simulationInput.getArrivalProbabilityMultiplier());
+        }
+        return arrivalProbability;
+    }
+
+    private static SimulationResult toResult(int chargePoints, double chargingPower, double totalEnergy, double maxPower,
+                                             double[] exemplaryDay, double[] chargedEnergy, int[] chargingIntervals,
+                                             int[] eventsPerDay) {
+        double theoreticalMaxPower = chargePoints * chargingPower;
+        double[] utilizationRates = new double[chargePoints];
+        double[] averagePowers = new double[chargePoints];
+        for (int chargePoint = 0; chargePoint < chargePoints; chargePoint++) {
+            utilizationRates[chargePoint] = (double) chargingIntervals[chargePoint] / INTERVALS_PER_YEAR;
+            averagePowers[chargePoint] = chargedEnergy[chargePoint] / (INTERVALS_PER_YEAR * INTERVAL_HOURS);
+        }
+        int[] eventsPerMonth = new int[DAYS_PER_MONTH.length];
+        int[] eventsPerWeek = new int[WEEKS_PER_YEAR];
+        int eventsPerYear = 0;
+        for (int day = 0, month = 0, monthEnd = DAYS_PER_MONTH[0]; day < DAYS_PER_YEAR; day++) {
+            if (day == monthEnd) {
+                monthEnd += DAYS_PER_MONTH[++month];
+            }
+            eventsPerMonth[month] += eventsPerDay[day];
+            eventsPerWeek[day / 7] += eventsPerDay[day];
+            eventsPerYear += eventsPerDay[day];
+        }
+
+        return SimulationResult.builder()
+                .totalEnergyCharged(totalEnergy)
+                .actualMaxPowerDemand(maxPower)
+                .theoreticalMaxPowerDemand(theoreticalMaxPower)
+                .concurrencyFactor(theoreticalMaxPower == 0 ? 0 : maxPower / theoreticalMaxPower)
+                .utilizationRates(utilizationRates)
+                .averagePowers(averagePowers)
+                .exemplaryDay(exemplaryDay)
+                .eventsPerYear(eventsPerYear)
+                .eventsPerMonth(eventsPerMonth)
+                .eventsPerWeek(eventsPerWeek)
+                .eventsPerDay(eventsPerDay)
+                .build();
+    }
+
+
+    private static int demandIndex(double draw) {
+        for (int i = 0; i < DEMAND_CUMULATIVE_PROBABILITY.length - 1; i++) {
+            if (draw < DEMAND_CUMULATIVE_PROBABILITY[i]) {
+                return i;
+            }
+        }
+        return DEMAND_KILOMETERS.length - 1;
+    }
+
+    // normalized, the published distribution does not add up to exactly 100%
+    private static double[] cumulative(double... probabilities) {
+        double total = 0;
+        for (double probability : probabilities) {
+            total += probability;
+        }
+        double[] cumulative = new double[probabilities.length];
+        double sum = 0;
+        for (int i = 0; i < probabilities.length; i++) {
+            sum += probabilities[i];
+            cumulative[i] = sum / total;
+        }
+        return cumulative;
+    }
+}
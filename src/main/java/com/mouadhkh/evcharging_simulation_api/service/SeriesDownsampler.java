@@ -0,0 +1,102 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SeriesDownsamplingMode;
+
+import java.util.Arrays;
+
+/**
+ * Shape-preserving downsampling of a series for charts. Both modes select a subset of the original points, so the
+ * result is returned as their indices and values keep their type.
+ */
+public final class SeriesDownsampler {
+
+    private SeriesDownsampler() {
+    }
+
+    /**
+     * @return ascending indices of the points of [from, to) to keep, all of them if there are no more than points
+     */
+    public static int[] select(double[] values, int from, int to, int points, SeriesDownsamplingMode mode) {
+        if (to - from <= points) {
+            return range(from, to);
+        }
+        return switch (mode) {
+            case LTTB -> largestTriangleThreeBuckets(values, from, to, points);
+            case MIN_MAX -> minMax(values, from, to, points);
+        };
+    }
+
+    public static int[] range(int from, int to) {
+        int[] indices = new int[Math.max(0, to - from)];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = from + i;
+        }
+        return indices;
+    }
+
+    // First and last point are kept. Every other bucket contributes the point forming the largest triangle with the
+    // point kept from the previous bucket and the average of the next bucket.
+    static int[] largestTriangleThreeBuckets(double[] values, int from, int to, int points) {
+        int length = to - from;
+        int[] selected = new int[points];
+        double bucketSize = (double) (length - 2) / (points - 2);
+        int previous = from;
+        selected[0] = from;
+        for (int bucket = 0; bucket < points - 2; bucket++) {
+            int nextStart = from + (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = from + Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, length);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += i;
+                averageY += values[i];
+            }
+            averageX /= nextEnd - nextStart;
+            averageY /= nextEnd - nextStart;
+
+            int start = from + (int) Math.floor(bucket * bucketSize) + 1;
+            int end = from + (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((previous - averageX) * (values[i] - values[previous])
+                        - (previous - i) * (averageY - values[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        selected[points - 1] = to - 1;
+        return selected;
+    }
+
+    // points / 2 buckets contributing their minimum and maximum in index order, one point if they coincide
+    static int[] minMax(double[] values, int from, int to, int points) {
+        int buckets = points / 2;
+        int length = to - from;
+        int[] selected = new int[buckets * 2];
+        int count = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int start = from + (int) ((long) bucket * length / buckets);
+            int end = from + (int) ((long) (bucket + 1) * length / buckets);
+            int min = start;
+            int max = start;
+            for (int i = start + 1; i < end; i++) {
+                if (values[i] < values[min]) {
+                    min = i;
+                }
+                if (values[i] > values[max]) {
+                    max = i;
+                }
+            }
+            selected[count++] = Math.min(min, max);
+            if (min != max) {
+                selected[count++] = Math.max(min, max);
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+}
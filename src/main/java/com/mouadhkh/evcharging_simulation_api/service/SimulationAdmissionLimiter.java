@@ -0,0 +1,284 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the simulation work running at once so a burst of simulations cannot take all CPUs from cheap reads.
+ * <p>
+ * Work is weighted by its number of charge points, which its cost grows with, and the limit is a number of charge
+ * points in flight. A run heavier than the whole limit is admitted alone. Runs that do not fit wait in a bounded
+ * FIFO queue for at most max-wait, anything beyond is rejected right away with a {@link SimulationOverloadedException}.
+ * <p>
+ * The limit adapts to the observed run time per charge point (gradient algorithm): while a short-term average stays
+ * close to the long-term one the limit grows by about its square root, once runs slow down because the CPUs are
+ * saturated it shrinks by the ratio of both averages. Both averages are kept per engine, the engines differ a lot in
+ * run time per charge point and a switch between them is no change of the load. Each single simulation run is one
+ * sample: work of many runs admitted as a whole ({@link #runBatch}) reports its runs through {@link #measure}.
+ */
+@Component
+public class SimulationAdmissionLimiter {
+    private static final double SHORT_TERM_SMOOTHING = 0.2;
+    private static final double LONG_TERM_SMOOTHING = 0.02;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueCapacity;
+    private final long maxWaitNanos;
+    private final Counter rejections;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition capacityReleased = lock.newCondition();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    // by engine name, nanoseconds of run time per charge point
+    private final Map<String, RunTimeAverages> runTimes = new HashMap<>();
+    // of whole admissions, for the retry-after estimate
+    private double averageRunNanos;
+
+    public SimulationAdmissionLimiter(@Value("${simulation.admission.enabled:true}") boolean enabled,
+                                      @Value("${simulation.admission.initial-limit:2000}") int initialLimit,
+                                      @Value("${simulation.admission.min-limit:50}") int minLimit,
+                                      @Value("${simulation.admission.max-limit:100000}") int maxLimit,
+                                      @Value("${simulation.admission.queue-capacity:50}") int queueCapacity,
+                                      @Value("${simulation.admission.max-wait:10s}") Duration maxWait,
+                                      MeterRegistry meterRegistry) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalStateException("Admission limits must satisfy 1 <= min-limit <= initial-limit <= max-limit");
+        }
+        this.enabled = enabled;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitNanos = maxWait.toNanos();
+        Gauge.builder("simulation.admission.limit", this, SimulationAdmissionLimiter::getLimit)
+                .description("Charge points of simulation work admitted at once")
+                .register(meterRegistry);
+        Gauge.builder("simulation.admission.in.flight", this, SimulationAdmissionLimiter::getInFlight)
+                .description("Charge points of simulation work currently admitted")
+                .register(meterRegistry);
+        Gauge.builder("simulation.admission.queued", this, SimulationAdmissionLimiter::getQueued)
+                .description("Simulations waiting for admission")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("simulation.admission.rejections")
+                .description("Simulations rejected because of overload")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a single simulation of the engine once its charge points fit into the limit.
+     *
+     * @throws SimulationOverloadedException when the queue is full or the work waited longer than max-wait
+     */
+    public <T> T run(String engine, int chargePoints, Supplier<T> work) {
+        return runBatch(chargePoints, () -> measure(engine, chargePoints, work));
+    }
+
+    /**
+     * Runs work of many simulations as a whole once the given weight fits into the limit, e.g. all runs of a sweep
+     * executing at once on its pool. Each of its runs has to be wrapped in {@link #measure}, the duration of the whole
+     * batch is no run time per charge point.
+     *
+     * @throws SimulationOverloadedException when the queue is full or the work waited longer than max-wait
+     */
+    public <T> T runBatch(int weight, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        int permits = acquire(Math.max(1, weight));
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            T result = work.get();
+            completed = true;
+            return result;
+        } finally {
+            release(permits, completed ? System.nanoTime() - start : -1);
+        }
+    }
+
+    /**
+     * Runs one simulation of admitted work and adapts the limit to its run time per charge point.
+     */
+    public <T> T measure(String engine, int chargePoints, Supplier<T> run) {
+        if (!enabled) {
+            return run.get();
+        }
+        long start = System.nanoTime();
+        T result = run.get();
+        recordRun(engine, chargePoints, System.nanoTime() - start);
+        return result;
+    }
+
+    private int acquire(int weight) {
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && fits(weight)) {
+                return admit(weight);
+            }
+            if (waiters.size() >= queueCapacity) {
+                throw overloaded("Simulation capacity exhausted and " + queueCapacity + " simulations already waiting");
+            }
+            Waiter waiter = new Waiter(weight);
+            waiters.addLast(waiter);
+            long remainingNanos = maxWaitNanos;
+            try {
+                // FIFO: a heavy run at the head is not overtaken by lighter ones forever
+                while (waiters.peekFirst() != waiter || !fits(weight)) {
+                    if (remainingNanos <= 0) {
+                        throw overloaded("Simulation capacity exhausted, waited " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms");
+                    }
+                    remainingNanos = capacityReleased.awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw overloaded("Interrupted while waiting for simulation capacity");
+            } finally {
+                waiters.remove(waiter);
+                // the next waiter may be at the head now
+                capacityReleased.signalAll();
+            }
+            return admit(weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean fits(int weight) {
+        return inFlight == 0 || inFlight + permits(weight) <= limit;
+    }
+
+    private int permits(int weight) {
+        return Math.min(weight, (int) limit);
+    }
+
+    private int admit(int weight) {
+        int permits = permits(weight);
+        inFlight += permits;
+        return permits;
+    }
+
+    private void release(int permits, long runNanos) {
+        lock.lock();
+        try {
+            inFlight -= permits;
+            if (runNanos >= 0) {
+                averageRunNanos = averageRunNanos == 0 ? runNanos
+                        : averageRunNanos + SHORT_TERM_SMOOTHING * (runNanos - averageRunNanos);
+            }
+            capacityReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // runs report while their work is still admitted, in flight includes them
+    void recordRun(String engine, int chargePoints, long runNanos) {
+        lock.lock();
+        try {
+            double runTimePerChargePoint = (double) runNanos / Math.max(1, chargePoints);
+            RunTimeAverages runTime = runTimes.get(engine);
+            if (runTime == null) {
+                runTimes.put(engine, new RunTimeAverages(runTimePerChargePoint));
+                return;
+            }
+            runTime.add(runTimePerChargePoint);
+            // an underused limit says nothing about whether more would be fine, only shrinking is allowed then
+            double headroom = inFlight * 2 < limit && waiters.isEmpty() ? 0 : Math.sqrt(limit);
+            double gradient = runTime.shortTerm == 0 ? 1
+                    : Math.max(MIN_GRADIENT, Math.min(1, runTime.longTerm / runTime.shortTerm));
+            double newLimit = limit * gradient + headroom;
+            limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private SimulationOverloadedException overloaded(String message) {
+        rejections.increment();
+        return new SimulationOverloadedException(message, retryAfterSeconds());
+    }
+
+    // about the time the admitted and queued work needs to drain, at least a second
+    private long retryAfterSeconds() {
+        double queuedChargePoints = inFlight;
+        for (Waiter waiter : waiters) {
+            queuedChargePoints += waiter.weight;
+        }
+        double seconds = queuedChargePoints / limit * averageRunNanos / 1e9;
+        return Math.max(1, (long) Math.ceil(seconds));
+    }
+
+    double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getQueued() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class RunTimeAverages {
+        private double shortTerm;
+        private double longTerm;
+
+        RunTimeAverages(double runTimePerChargePoint) {
+            this.shortTerm = runTimePerChargePoint;
+            this.longTerm = runTimePerChargePoint;
+        }
+
+        void add(double runTimePerChargePoint) {
+            shortTerm += SHORT_TERM_SMOOTHING * (runTimePerChargePoint - shortTerm);
+            longTerm += LONG_TERM_SMOOTHING * (runTimePerChargePoint - longTerm);
+            // after a lasting change of the workload the long-term average follows instead of holding the limit down
+            if (longTerm > 2 * shortTerm) {
+                longTerm *= 0.95;
+            }
+        }
+    }
+
+    // identity matters, two waiters of the same weight are still different waiters
+    private static final class Waiter {
+        private final int weight;
+
+        Waiter(int weight) {
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.AnalyticsCurveDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.AnalyticsMetric;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+
+public interface SimulationAnalyticsService {
+
+    /**
+     * Distribution of a metric over all stored results, by number of charge points and arrival probability
+     * multiplier bucket.
+     */
+    AnalyticsCurveDTO getCurve(AnalyticsMetric metric, double multiplierBucketWidth, Integer minChargePoints,
+                               Integer maxChargePoints, SimulationEngineType engine);
+}
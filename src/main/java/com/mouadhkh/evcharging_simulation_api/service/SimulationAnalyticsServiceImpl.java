@@ -0,0 +1,37 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.AnalyticsCurveDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.AnalyticsMetric;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationAnalyticsRepository;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SimulationAnalyticsServiceImpl implements SimulationAnalyticsService {
+
+    private final SimulationAnalyticsRepository simulationAnalyticsRepository;
+
+    public SimulationAnalyticsServiceImpl(SimulationAnalyticsRepository simulationAnalyticsRepository) {
+        this.simulationAnalyticsRepository = simulationAnalyticsRepository;
+    }
+
+    @Override
+    public AnalyticsCurveDTO getCurve(AnalyticsMetric metric, double multiplierBucketWidth, Integer minChargePoints,
+                                      Integer maxChargePoints, SimulationEngineType engine) {
+        // multipliers are validated to lie between 0.2 and 2, finer buckets than this hold single values anyway
+        if (!(multiplierBucketWidth >= 0.01)) {
+            throw new IllegalArgumentException("Multiplier bucket width must be at least 0.01");
+        }
+        int min = minChargePoints == null ? 1 : minChargePoints;
+        int max = maxChargePoints == null ? Integer.MAX_VALUE : maxChargePoints;
+        if (min > max) {
+            throw new IllegalArgumentException("minChargePoints must not be greater than maxChargePoints");
+        }
+        return AnalyticsCurveDTO.builder()
+                .metric(metric.getName())
+                .engine(engine == null ? null : engine.getName())
+                .multiplierBucketWidth(multiplierBucketWidth)
+                .points(simulationAnalyticsRepository.findCurve(metric, multiplierBucketWidth, min, max, engine))
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+
+/**
+ * Simulates one year of a charging station. Implementations are stateless and called concurrently.
+ */
+public interface SimulationEngine {
+
+    SimulationEngineType getType();
+
+    /**
+     * @return whether the outcome is determined by the seed
+     */
+    boolean isSeeded();
+
+    /**
+     * @param seed seed of the random arrivals, engines that cannot be seeded ignore it
+     * @return the outcome as a not yet persisted result
+     */
+    SimulationResult simulate(SimulationInput simulationInput, long seed);
+
+    /**
+     * Like {@link #simulate(SimulationInput, long)}, reporting progress to the listener. Engines that cannot observe
+     * their progress only run the simulation.
+     */
+    default SimulationResult simulate(SimulationInput simulationInput, long seed, SimulationProgressListener progressListener) {
+        return simulate(simulationInput, seed);
+    }
+}
@@ -0,0 +1,311 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationImportFormat;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Reads imported inputs one row at a time, nothing but the current row is held in memory. A row that cannot be
+ * turned into an input is returned with an error so the import can go on with the next one; only input that cannot
+ * be read any further (malformed JSON, an unusable CSV header) ends it with an exception.
+ */
+abstract class SimulationInputImportReader implements Closeable {
+    static final String NUMBER_OF_CHARGE_POINTS = "numberOfChargePoints";
+    static final String ARRIVAL_PROBABILITY_MULTIPLIER = "arrivalProbabilityMultiplier";
+    static final String EV_CONSUMPTION = "evConsumption";
+    static final String CHARGING_POWER_PER_CHARGE_POINT = "chargingPowerPerChargePoint";
+    private static final List<String> COLUMNS = List.of(NUMBER_OF_CHARGE_POINTS, ARRIVAL_PROBABILITY_MULTIPLIER,
+            EV_CONSUMPTION, CHARGING_POWER_PER_CHARGE_POINT);
+
+    /**
+     * @param row   see SimulationImportErrorDTO
+     * @param input null if the row is invalid
+     * @param error null if the row is valid
+     */
+    record Row(long row, SimulationInput input, String error) {
+    }
+
+    static SimulationInputImportReader create(SimulationImportFormat format, InputStream inputStream, ObjectMapper objectMapper)
+            throws IOException {
+        return switch (format) {
+            case CSV -> new CsvReader(inputStream);
+            case JSON -> new JsonReader(inputStream, objectMapper);
+        };
+    }
+
+    /**
+     * @return the next row, null at the end of the input
+     */
+    abstract Row next() throws IOException;
+
+    /**
+     * @return the number of the row read last
+     */
+    abstract long getRow();
+
+    /**
+     * Reads RFC 4180 CSV: cells separated by ',' or, as spreadsheets export it in locales with a decimal comma, by ';'.
+     * Cells may be quoted, a quoted cell may contain the delimiter, doubled quotes and line breaks. Decimals are
+     * written with '.' or, in ';' separated files, with ','; digit grouping, NaN, infinities and hexadecimal or
+     * suffixed Java literals are rejected.
+     */
+    private static final class CsvReader extends SimulationInputImportReader {
+        private static final Pattern DECIMAL = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+        private static final Pattern INTEGER = Pattern.compile("[+-]?\\d+");
+
+        private final BufferedReader reader;
+        private char delimiter;
+        private String[] header;
+        private long line;
+
+        CsvReader(InputStream inputStream) {
+            this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        Row next() throws IOException {
+            if (header == null) {
+                readHeader();
+            }
+            String record;
+            do {
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.isBlank());
+            long row = line - lineBreaks(record);
+
+            List<String> cells;
+            try {
+                cells = split(record, delimiter);
+            } catch (IllegalArgumentException e) {
+                return new Row(row, null, e.getMessage());
+            }
+            if (cells.size() != header.length) {
+                return new Row(row, null, "Expected " + header.length + " columns, found " + cells.size());
+            }
+            SimulationInput.SimulationInputBuilder input = SimulationInput.builder();
+            for (int column = 0; column < header.length; column++) {
+                String cell = cells.get(column).trim();
+                // an empty cell keeps the default, like a property missing in JSON
+                if (cell.isEmpty() && !header[column].equals(NUMBER_OF_CHARGE_POINTS)) {
+                    continue;
+                }
+                try {
+                    switch (header[column]) {
+                        case NUMBER_OF_CHARGE_POINTS -> input.numberOfChargePoints(integer(cell));
+                        case ARRIVAL_PROBABILITY_MULTIPLIER -> input.arrivalProbabilityMultiplier(decimal(cell));
+                        case EV_CONSUMPTION -> input.evConsumption(decimal(cell));
+                        case CHARGING_POWER_PER_CHARGE_POINT -> input.chargingPowerPerChargePoint(decimal(cell));
+                        default -> throw new IllegalStateException(header[column]);
+                    }
+                } catch (NumberFormatException e) {
+                    return new Row(row, null, "Invalid " + header[column] + ": '" + cell + "'");
+                }
+            }
+            return new Row(row, input.build(), null);
+        }
+
+        private void readHeader() throws IOException {
+            String headerLine = readRecord();
+            if (headerLine == null) {
+                throw new IllegalArgumentException("CSV import is empty, expected a header line");
+            }
+            // spreadsheet exports start with a byte order mark
+            headerLine = headerLine.replace("\uFEFF", "");
+            delimiter = headerLine.contains(";") && !headerLine.contains(",") ? ';' : ',';
+            List<String> names = split(headerLine, delimiter);
+            header = new String[names.size()];
+            for (int column = 0; column < names.size(); column++) {
+                header[column] = column(names.get(column).trim());
+            }
+            if (!List.of(header).contains(NUMBER_OF_CHARGE_POINTS)) {
+                throw new IllegalArgumentException("CSV header must contain the column " + NUMBER_OF_CHARGE_POINTS);
+            }
+        }
+
+        /**
+         * @return the next record, the lines of a quoted cell spanning several joined by '\n', null at the end
+         */
+        private String readRecord() throws IOException {
+            String record = reader.readLine();
+            if (record == null) {
+                return null;
+            }
+            line++;
+            // a record ends with a line break outside of quotes: once the number of quotes read is even
+            while (quotes(record) % 2 != 0) {
+                String continuation = reader.readLine();
+                if (continuation == null) {
+                    // split reports the unterminated cell
+                    return record;
+                }
+                line++;
+                record = record + "\n" + continuation;
+            }
+            return record;
+        }
+
+        private static List<String> split(String record, char delimiter) {
+            List<String> cells = new ArrayList<>();
+            StringBuilder cell = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < record.length(); i++) {
+                char c = record.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        cell.append(c);
+                    } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"' && cell.toString().isBlank()) {
+                    // blanks around a quoted cell are dropped, as they are trimmed from unquoted cells
+                    quoted = true;
+                    cell.setLength(0);
+                } else if (c == delimiter) {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                } else {
+                    cell.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted cell");
+            }
+            cells.add(cell.toString());
+            return cells;
+        }
+
+        private static int quotes(String record) {
+            int quotes = 0;
+            for (int i = 0; i < record.length(); i++) {
+                if (record.charAt(i) == '"') {
+                    quotes++;
+                }
+            }
+            return quotes;
+        }
+
+        private static int lineBreaks(String record) {
+            int lineBreaks = 0;
+            for (int i = 0; i < record.length(); i++) {
+                if (record.charAt(i) == '\n') {
+                    lineBreaks++;
+                }
+            }
+            return lineBreaks;
+        }
+
+        private static int integer(String cell) {
+            if (!INTEGER.matcher(cell).matches()) {
+                throw new NumberFormatException(cell);
+            }
+            return Integer.parseInt(cell);
+        }
+
+        // Double.parseDouble alone would also accept NaN, Infinity, hexadecimal floats and a trailing d or f
+        private double decimal(String cell) {
+            String number = delimiter == ';' ? cell.replace(',', '.') : cell;
+            if (!DECIMAL.matcher(number).matches()) {
+                throw new NumberFormatException(cell);
+            }
+            return Double.parseDouble(number);
+        }
+
+        private static String column(String name) {
+            for (String column : COLUMNS) {
+                if (column.toLowerCase(Locale.ROOT).equals(name.toLowerCase(Locale.ROOT))) {
+                    return column;
+                }
+            }
+            throw new IllegalArgumentException("Unknown CSV column: " + name + ", use " + String.join(", ", COLUMNS));
+        }
+
+        @Override
+        long getRow() {
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class JsonReader extends SimulationInputImportReader {
+        private final JsonParser parser;
+        private long element;
+
+        JsonReader(InputStream inputStream, ObjectMapper objectMapper) throws IOException {
+            this.parser = objectMapper.getFactory().createParser(inputStream);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("JSON import must be an array of simulation inputs");
+            }
+        }
+
+        @Override
+        Row next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            element++;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return new Row(element, null, "Expected a simulation input object");
+            }
+            // one element at a time: the tree of a single input is tiny, the array is never materialized
+            JsonNode node = parser.readValueAsTree();
+            SimulationInput.SimulationInputBuilder input = SimulationInput.builder();
+            JsonNode chargePoints = node.get(NUMBER_OF_CHARGE_POINTS);
+            if (chargePoints == null || !chargePoints.canConvertToInt() || !chargePoints.isIntegralNumber()) {
+                return new Row(element, null, NUMBER_OF_CHARGE_POINTS + " must be an integer");
+            }
+            input.numberOfChargePoints(chargePoints.intValue());
+            for (String property : COLUMNS.subList(1, COLUMNS.size())) {
+                JsonNode value = node.get(property);
+                if (value == null || value.isNull()) {
+                    continue;
+                }
+                if (!value.isNumber()) {
+                    return new Row(element, null, property + " must be a number");
+                }
+                switch (property) {
+                    case ARRIVAL_PROBABILITY_MULTIPLIER -> input.arrivalProbabilityMultiplier(value.doubleValue());
+                    case EV_CONSUMPTION -> input.evConsumption(value.doubleValue());
+                    case CHARGING_POWER_PER_CHARGE_POINT -> input.chargingPowerPerChargePoint(value.doubleValue());
+                    default -> throw new IllegalStateException(property);
+                }
+            }
+            return new Row(element, input.build(), null);
+        }
+
+        @Override
+        long getRow() {
+            return element;
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationImportFormat;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationInputImportDTO;
+
+import java.io.InputStream;
+
+public interface SimulationInputImportService {
+
+    /**
+     * Reads, validates and persists inputs until the end of the stream. Invalid rows are reported and skipped,
+     * valid ones are committed chunk by chunk and stay persisted even if a later part of the input is malformed.
+     */
+    SimulationInputImportDTO importSimulationInputs(SimulationImportFormat format, InputStream inputStream);
+}
@@ -0,0 +1,136 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationImportErrorDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationImportFormat;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationInputImportDTO;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationInputRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory stays bounded whatever the size of the import: rows are read one at a time, at most one chunk of inputs is
+ * held before it is inserted (in JDBC batches of hibernate.jdbc.batch_size, ids come from the pooled sequence) and
+ * committed, and only the first errors are kept.
+ */
+@Service
+public class SimulationInputImportServiceImpl implements SimulationInputImportService {
+
+    private final SimulationInputRepository simulationInputRepository;
+    private final SimulationInputValidator simulationInputValidator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public SimulationInputImportServiceImpl(SimulationInputRepository simulationInputRepository,
+                                            SimulationInputValidator simulationInputValidator,
+                                            TransactionTemplate transactionTemplate,
+                                            EntityManager entityManager,
+                                            ObjectMapper objectMapper,
+                                            @Value("${simulation.imports.chunk-size:1000}") int chunkSize,
+                                            @Value("${simulation.imports.max-errors:100}") int maxErrors) {
+        this.simulationInputRepository = simulationInputRepository;
+        this.simulationInputValidator = simulationInputValidator;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public SimulationInputImportDTO importSimulationInputs(SimulationImportFormat format, InputStream inputStream) {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport(maxErrors);
+        List<SimulationInput> chunk = new ArrayList<>(chunkSize);
+        long chunkFirstRow = 0;
+        try (SimulationInputImportReader reader = SimulationInputImportReader.create(format, inputStream, objectMapper)) {
+            try {
+                SimulationInputImportReader.Row row;
+                while ((row = reader.next()) != null) {
+                    if (row.error() != null) {
+                        report.fail(row.row(), row.error());
+                        continue;
+                    }
+                    try {
+                        simulationInputValidator.validateSimulationInput(row.input());
+                    } catch (IllegalArgumentException e) {
+                        report.fail(row.row(), e.getMessage());
+                        continue;
+                    }
+                    if (chunk.isEmpty()) {
+                        chunkFirstRow = row.row();
+                    }
+                    chunk.add(row.input());
+                    if (chunk.size() == chunkSize) {
+                        persist(chunk, chunkFirstRow, report);
+                    }
+                }
+            } catch (IOException e) {
+                // the rows read before are still imported, the rest of the input cannot be read
+                report.fail(reader.getRow() + 1, "Malformed input, import stopped: " + e.getMessage());
+            }
+            persist(chunk, chunkFirstRow, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return SimulationInputImportDTO.builder()
+                .imported(report.imported)
+                .failed(report.failed)
+                .durationMillis((System.nanoTime() - start) / 1_000_000)
+                .errors(report.errors)
+                .errorsTruncated(report.failed > report.errors.size())
+                .build();
+    }
+
+    private void persist(List<SimulationInput> chunk, long firstRow, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.execute(status -> {
+                simulationInputRepository.saveAll(chunk);
+                // flush and detach so the persistence context never holds more than one chunk
+                entityManager.flush();
+                entityManager.clear();
+                return null;
+            });
+            report.imported += chunk.size();
+        } catch (DataAccessException | TransactionException e) {
+            report.failed += chunk.size() - 1;
+            report.fail(firstRow, chunk.size() + " rows from this one on not imported: " + e.getMessage());
+        }
+        chunk.clear();
+    }
+
+    private static final class ImportReport {
+        private final int maxErrors;
+        private final List<SimulationImportErrorDTO> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new SimulationImportErrorDTO(row, message));
+            }
+        }
+    }
+}
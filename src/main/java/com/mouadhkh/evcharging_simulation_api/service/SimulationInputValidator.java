@@ -0,0 +1,37 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SimulationInputValidator {
+
+    public void validateSimulationInput(SimulationInput simulationInput) {
+        if (simulationInput.getNumberOfChargePoints() <= 0) {
+            throw new IllegalArgumentException("Number of charge points must be positive");
+        }
+        // the fields have defaults, only an explicit null in the request leaves them unset
+        if (simulationInput.getArrivalProbabilityMultiplier() == null
+                || simulationInput.getEvConsumption() == null
+                || simulationInput.getChargingPowerPerChargePoint() == null) {
+            throw new IllegalArgumentException("Arrival probability multiplier, EV energy consumption and charging power "
+                    + "per point must not be null");
+        }
+        // NaN passes every comparison below, and no simulation can use an infinite value
+        if (!Double.isFinite(simulationInput.getArrivalProbabilityMultiplier())
+                || !Double.isFinite(simulationInput.getEvConsumption())
+                || !Double.isFinite(simulationInput.getChargingPowerPerChargePoint())) {
+            throw new IllegalArgumentException("Arrival probability multiplier, EV energy consumption and charging power "
+                    + "per point must be finite numbers");
+        }
+        if (simulationInput.getArrivalProbabilityMultiplier() < 0.2 || simulationInput.getArrivalProbabilityMultiplier() > 2) {
+            throw new IllegalArgumentException("Arrival probability multiplier must be between 20% and 200%");
+        }
+        if (simulationInput.getEvConsumption() <= 0) {
+            throw new IllegalArgumentException("EV energy consumption must be positive");
+        }
+        if (simulationInput.getChargingPowerPerChargePoint() <= 0) {
+            throw new IllegalArgumentException("Charging power per point must be positive");
+        }
+    }
+}
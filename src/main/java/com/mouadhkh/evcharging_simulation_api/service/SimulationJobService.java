@@ -0,0 +1,15 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationJobDTO;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+
+import java.util.UUID;
+
+public interface SimulationJobService {
+    SimulationJobDTO submitSimulation(SimulationInput simulationInput, Long seed, SimulationEngineType engine);
+
+    SimulationJobDTO submitSimulationByInputId(Long inputId, Long seed, SimulationEngineType engine);
+
+    SimulationJobDTO getSimulationJob(UUID id);
+}
@@ -0,0 +1,106 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationInputDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationJobDTO;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationJob;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationJobRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Submits jobs to the simulation_job table. They are executed by the {@link SimulationJobWorker} of whichever
+ * instance claims them first, which need not be the instance that accepted the request.
+ */
+@Service
+public class SimulationJobServiceImpl implements SimulationJobService {
+    // key of the PostgreSQL advisory lock serializing submissions, "SIMJOB" in ASCII
+    private static final long SUBMISSION_LOCK = 0x53494D4A4F42L;
+
+    private final SimulationService simulationService;
+    private final SimulationJobRepository simulationJobRepository;
+    private final ObjectProvider<SimulationJobWorker> simulationJobWorker;
+    private final SimulationRunner simulationRunner;
+    private final TransactionTemplate transactionTemplate;
+    private final int queueCapacity;
+
+    public SimulationJobServiceImpl(SimulationService simulationService,
+                                    SimulationJobRepository simulationJobRepository,
+                                    ObjectProvider<SimulationJobWorker> simulationJobWorker,
+                                    SimulationRunner simulationRunner,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${simulation.jobs.queue-capacity:100}") int queueCapacity) {
+        this.simulationService = simulationService;
+        this.simulationJobRepository = simulationJobRepository;
+        this.simulationJobWorker = simulationJobWorker;
+        this.simulationRunner = simulationRunner;
+        this.transactionTemplate = transactionTemplate;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public SimulationJobDTO submitSimulation(SimulationInput simulationInput, Long seed, SimulationEngineType engine) {
+        // a job that could never succeed is rejected before anything is stored
+        simulationRunner.validateSeed(engine, seed);
+        // persisting the input up front validates it synchronously and gives the job a stable input id
+        SimulationInputDTO savedInput = simulationService.createSimulationInput(simulationInput);
+        return submit(savedInput.getId(), seed, engine);
+    }
+
+    @Override
+    public SimulationJobDTO submitSimulationByInputId(Long inputId, Long seed, SimulationEngineType engine) {
+        simulationRunner.validateSeed(engine, seed);
+        simulationService.getSimulationInputById(inputId);
+        return submit(inputId, seed, engine);
+    }
+
+    @Override
+    public SimulationJobDTO getSimulationJob(UUID id) {
+        return simulationJobRepository.findById(id)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new EntityNotFoundException("SimulationJob with id: " + id + " not found"));
+    }
+
+    private SimulationJobDTO submit(Long inputId, Long seed, SimulationEngineType engine) {
+        UUID jobId = UUID.randomUUID();
+        // the queue is shared by all instances: the capacity is checked by the insert itself, one submission at a time
+        Integer inserted = transactionTemplate.execute(status -> {
+            simulationJobRepository.lockSubmissions(SUBMISSION_LOCK);
+            return simulationJobRepository.enqueue(jobId, inputId, seed, engine == null ? null : engine.getName(),
+                    Instant.now(), queueCapacity);
+        });
+        if (inserted == null || inserted == 0) {
+            throw new RejectedExecutionException("Simulation queue is full");
+        }
+        // a worker on this instance with free capacity starts it right away instead of at its next poll
+        simulationJobWorker.ifAvailable(SimulationJobWorker::pollQueue);
+        return simulationJobRepository.findById(jobId)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new IllegalStateException("SimulationJob " + jobId + " vanished after its submission"));
+    }
+
+    private SimulationJobDTO convertToDTO(SimulationJob job) {
+        return SimulationJobDTO.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .simulationInputId(job.getSimulationInputId())
+                .seed(job.getSeed())
+                .engine(job.getEngine())
+                .workerId(job.getWorkerId())
+                .attempts(job.getAttempts())
+                .simulationResultId(job.getSimulationResultId())
+                .error(job.getError())
+                .submittedAt(job.getSubmittedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationJobStatus;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationJob;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationJobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes simulation jobs claimed from the simulation_job table, at most pool-size at a time on this instance.
+ * The lease of every running job is renewed on each heartbeat; jobs whose lease expired (their worker crashed) are
+ * queued again by any worker, so a job runs at least once. Instances started with
+ * simulation.jobs.worker.enabled=false accept and serve jobs without executing any.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "simulation.jobs.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class SimulationJobWorker {
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final SimulationService simulationService;
+    private final SimulationJobRepository simulationJobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String workerId;
+    private final int maxConcurrentJobs;
+    private final Duration leaseDuration;
+    private final int maxAttempts;
+    private final Duration jobRetention;
+    private final ThreadPoolExecutor simulationExecutor;
+    private final Set<UUID> runningJobs = ConcurrentHashMap.newKeySet();
+
+    public SimulationJobWorker(SimulationService simulationService,
+                               SimulationJobRepository simulationJobRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${simulation.jobs.worker-id:}") String workerId,
+                               @Value("${simulation.jobs.pool-size:0}") int poolSize,
+                               @Value("${simulation.jobs.lease:PT1M}") Duration leaseDuration,
+                               @Value("${simulation.jobs.max-attempts:3}") int maxAttempts,
+                               @Value("${simulation.jobs.retention:PT1H}") Duration jobRetention,
+                               MeterRegistry meterRegistry) {
+        this.simulationService = simulationService;
+        this.simulationJobRepository = simulationJobRepository;
+        this.transactionTemplate = transactionTemplate;
+        // unique per application context, several may share a JVM (tests) or a host
+        this.workerId = workerId.isBlank()
+                ? ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : workerId;
+        this.maxConcurrentJobs = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.leaseDuration = leaseDuration;
+        this.maxAttempts = maxAttempts;
+        this.jobRetention = jobRetention;
+        // never more jobs are claimed than there are threads, the queue stays (nearly) empty
+        this.simulationExecutor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), simulationThreadFactory());
+        new ExecutorServiceMetrics(simulationExecutor, "simulationJobs", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Claims as many queued jobs as this instance has free capacity for and starts them.
+     */
+    @Scheduled(fixedDelayString = "${simulation.jobs.poll-interval:PT1S}")
+    public synchronized void pollQueue() {
+        int freeCapacity = maxConcurrentJobs - runningJobs.size();
+        if (freeCapacity <= 0 || simulationExecutor.isShutdown()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<SimulationJob> claimedJobs = transactionTemplate.execute(status -> {
+            List<SimulationJob> jobs = simulationJobRepository.lockQueued(freeCapacity);
+            for (SimulationJob job : jobs) {
+                job.setStatus(SimulationJobStatus.RUNNING);
+                job.setWorkerId(workerId);
+                job.setLeaseExpiresAt(now.plus(leaseDuration));
+                job.setStartedAt(now);
+                job.setAttempts(job.getAttempts() + 1);
+            }
+            return jobs;
+        });
+        for (SimulationJob job : claimedJobs) {
+            runningJobs.add(job.getId());
+            simulationExecutor.execute(() -> execute(job));
+        }
+    }
+
+    /**
+     * Renews the leases of the jobs running here, queues jobs of crashed workers again and purges old jobs.
+     */
+    @Scheduled(fixedDelayString = "${simulation.jobs.heartbeat-interval:PT10S}")
+    public void heartbeat() {
+        Instant now = Instant.now();
+        if (!runningJobs.isEmpty()) {
+            simulationJobRepository.renewLeases(List.copyOf(runningJobs), workerId, now.plus(leaseDuration));
+        }
+        int requeued = simulationJobRepository.requeueExpired(now, maxAttempts);
+        int failed = simulationJobRepository.failExpired(now, maxAttempts);
+        if (requeued > 0 || failed > 0) {
+            log.warn("Leases of {} simulation jobs expired, {} queued again and {} failed", requeued + failed, requeued, failed);
+        }
+        simulationJobRepository.deleteFinishedBefore(now.minus(jobRetention));
+    }
+
+    private void execute(SimulationJob job) {
+        try {
+            // the result is only stored while this worker still holds the lease: the update of the job locks its row,
+            // a worker that lost the job rolls its result back instead of leaving an orphan
+            simulationService.runMockSimulationJob(job.getSimulationInputId(), job.getSeed(),
+                    SimulationEngineType.parse(job.getEngine()), result -> {
+                        if (simulationJobRepository.markSucceeded(job.getId(), workerId, result.getId(), Instant.now()) == 0) {
+                            throw new LeaseLostException();
+                        }
+                    });
+        } catch (LeaseLostException e) {
+            log.warn("Simulation job {} finished after its lease was lost, its result is discarded", job.getId());
+        } catch (SimulationOverloadedException e) {
+            // interactive simulations saturate this instance, another worker (or a later poll) takes the job
+            log.info("Simulation job {} requeued: {}", job.getId(), e.getMessage());
+            simulationJobRepository.requeue(job.getId(), workerId);
+        } catch (Exception e) {
+            log.warn("Simulation job {} failed", job.getId(), e);
+            simulationJobRepository.markFailed(job.getId(), workerId, truncate(String.valueOf(e.getMessage())), Instant.now());
+        } finally {
+            runningJobs.remove(job.getId());
+        }
+    }
+
+    // the job was queued again meanwhile, thrown in the transaction storing the result to roll it back
+    private static final class LeaseLostException extends RuntimeException {
+
+        LeaseLostException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static ThreadFactory simulationThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "simulation-job-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        simulationExecutor.shutdownNow();
+        // leases of interrupted jobs are left to expire, another instance picks the jobs up once they did
+    }
+}
@@ -0,0 +1,19 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+/**
+ * Thrown instead of running a simulation when the {@link SimulationAdmissionLimiter} has no capacity left and its
+ * wait queue is full or the wait timed out.
+ */
+public class SimulationOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public SimulationOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,13 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+/**
+ * Receives the progress of a running simulation. Called on the simulating thread after every simulated day, so
+ * implementations must be cheap; throwing aborts the simulation.
+ */
+@FunctionalInterface
+public interface SimulationProgressListener {
+    SimulationProgressListener NONE = (daysSimulated, totalDays, energyCharged, maxPowerDemand) -> {
+    };
+
+    void onProgress(int daysSimulated, int totalDays, double energyCharged, double maxPowerDemand);
+}
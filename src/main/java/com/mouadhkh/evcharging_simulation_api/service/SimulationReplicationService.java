@@ -0,0 +1,12 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationReplicationResultDTO;
+
+public interface SimulationReplicationService {
+
+    SimulationReplicationResultDTO runReplications(Long simulationInputId, int replications, Long seed,
+                                                   SimulationEngineType engine);
+
+    SimulationReplicationResultDTO getReplicationResultById(Long id);
+}
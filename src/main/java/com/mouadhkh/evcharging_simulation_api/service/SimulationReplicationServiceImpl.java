@@ -0,0 +1,180 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.ReplicationDistributionDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationReplicationResultDTO;
+import com.mouadhkh.evcharging_simulation_api.entity.ReplicationDistribution;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationReplicationResult;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import com.mouadhkh.evcharging_simulation_api.metrics.SimulationMetrics;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationInputRepository;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationReplicationResultRepository;
+import com.mouadhkh.evcharging_simulation_api.statistics.RunningStatistics;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+@Service
+public class SimulationReplicationServiceImpl implements SimulationReplicationService {
+
+    private final SimulationInputRepository simulationInputRepository;
+    private final SimulationReplicationResultRepository simulationReplicationResultRepository;
+    private final SimulationRunner simulationRunner;
+    private final SimulationInputValidator simulationInputValidator;
+    private final SimulationMetrics simulationMetrics;
+    private final SimulationAdmissionLimiter simulationAdmissionLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxReplications;
+    private final ForkJoinPool replicationPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public SimulationReplicationServiceImpl(SimulationInputRepository simulationInputRepository,
+                                            SimulationReplicationResultRepository simulationReplicationResultRepository,
+                                            SimulationRunner simulationRunner,
+                                            SimulationInputValidator simulationInputValidator,
+                                            SimulationMetrics simulationMetrics,
+                                            SimulationAdmissionLimiter simulationAdmissionLimiter,
+                                            TransactionTemplate transactionTemplate,
+                                            @Value("${simulation.replications.max:10000}") int maxReplications) {
+        this.simulationInputRepository = simulationInputRepository;
+        this.simulationReplicationResultRepository = simulationReplicationResultRepository;
+        this.simulationRunner = simulationRunner;
+        this.simulationInputValidator = simulationInputValidator;
+        this.simulationMetrics = simulationMetrics;
+        this.simulationAdmissionLimiter = simulationAdmissionLimiter;
+        this.transactionTemplate = transactionTemplate;
+        this.maxReplications = maxReplications;
+    }
+
+    @Override
+    public SimulationReplicationResultDTO runReplications(Long simulationInputId, int replications, Long seed,
+                                                          SimulationEngineType engine) {
+        if (replications < 2 || replications > maxReplications) {
+            throw new IllegalArgumentException("Number of replications must be between 2 and " + maxReplications);
+        }
+        SimulationInput simulationInput = simulationInputRepository.findById(simulationInputId)
+                .orElseThrow(() -> new EntityNotFoundException("SimulationInput with id:" + simulationInputId + " not found"));
+        simulationInputValidator.validateSimulationInput(simulationInput);
+
+        SimulationEngineType engineType = simulationRunner.resolve(engine);
+        simulationRunner.validateSeed(engineType, seed);
+        long baseSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        long start = System.nanoTime();
+        // admitted as a whole, weighted by the runs executing at once on the replication pool, each run reports its
+        // own run time
+        int concurrentRuns = Math.min(replications, replicationPool.getParallelism());
+        ReplicationAccumulator accumulator = simulationAdmissionLimiter.runBatch(
+                simulationInput.getNumberOfChargePoints() * concurrentRuns,
+                () -> replicate(simulationInput, replications, engineType, baseSeed));
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+
+        SimulationReplicationResult replicationResult = SimulationReplicationResult.builder()
+                .replications(replications)
+                .engine(engineType.getName())
+                // the base seed of an engine ignoring it reproduces nothing and is not stored
+                .seed(simulationRunner.isSeeded(engineType) ? baseSeed : null)
+                .durationMillis(durationMillis)
+                .concurrencyFactor(ReplicationDistribution.of(accumulator.concurrencyFactor))
+                .actualMaxPowerDemand(ReplicationDistribution.of(accumulator.actualMaxPowerDemand))
+                .totalEnergyCharged(ReplicationDistribution.of(accumulator.totalEnergyCharged))
+                .build();
+        return transactionTemplate.execute(status -> {
+            replicationResult.setSimulationInput(simulationInputRepository.getReferenceById(simulationInputId));
+            return convertToDTO(simulationReplicationResultRepository.save(replicationResult));
+        });
+    }
+
+    @Override
+    public SimulationReplicationResultDTO getReplicationResultById(Long id) {
+        return simulationReplicationResultRepository.findById(id)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new EntityNotFoundException("SimulationReplicationResult with id:" + id + " not found"));
+    }
+
+    private ReplicationAccumulator replicate(SimulationInput simulationInput, int replications,
+                                             SimulationEngineType engineType, long baseSeed) {
+        int chargePoints = simulationInput.getNumberOfChargePoints();
+        try {
+            // each split of the parallel stream folds its runs into its own accumulator right away, so no run
+            // outlives its own aggregation and memory does not grow with the number of replications
+            return replicationPool.submit(() -> IntStream.range(0, replications)
+                    .parallel()
+                    .mapToObj(i -> simulationAdmissionLimiter.measure(engineType.getName(), chargePoints,
+                            () -> simulationMetrics.recordRun(engineType.getName(), chargePoints,
+                                    () -> simulationRunner.simulate(simulationInput, engineType, replicationSeed(baseSeed, i)))))
+                    .collect(ReplicationAccumulator::new, ReplicationAccumulator::accept, ReplicationAccumulator::combine))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation replications interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation replications failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // replication i of a base seed is reproducible on its own, whichever thread runs it (SplitMix64 finalizer)
+    static long replicationSeed(long baseSeed, int replication) {
+        long z = baseSeed + (replication + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private SimulationReplicationResultDTO convertToDTO(SimulationReplicationResult replicationResult) {
+        return SimulationReplicationResultDTO.builder()
+                .id(replicationResult.getId())
+                .simulationInputId(replicationResult.getSimulationInput().getId())
+                .replications(replicationResult.getReplications())
+                .engine(replicationResult.getEngine())
+                .seed(replicationResult.getSeed())
+                .durationMillis(replicationResult.getDurationMillis())
+                .createdAt(replicationResult.getCreatedAt())
+                .concurrencyFactor(convertToDTO(replicationResult.getConcurrencyFactor()))
+                .actualMaxPowerDemand(convertToDTO(replicationResult.getActualMaxPowerDemand()))
+                .totalEnergyCharged(convertToDTO(replicationResult.getTotalEnergyCharged()))
+                .build();
+    }
+
+    private ReplicationDistributionDTO convertToDTO(ReplicationDistribution distribution) {
+        return new ReplicationDistributionDTO(
+                distribution.getMean(),
+                distribution.getStandardDeviation(),
+                distribution.getMin(),
+                distribution.getMax(),
+                distribution.getP5(),
+                distribution.getP50(),
+                distribution.getP95(),
+                distribution.getP99()
+        );
+    }
+
+    private static final class ReplicationAccumulator {
+        private final RunningStatistics concurrencyFactor = new RunningStatistics();
+        private final RunningStatistics actualMaxPowerDemand = new RunningStatistics();
+        private final RunningStatistics totalEnergyCharged = new RunningStatistics();
+
+        void accept(SimulationResult result) {
+            concurrencyFactor.accept(result.getConcurrencyFactor());
+            actualMaxPowerDemand.accept(result.getActualMaxPowerDemand());
+            totalEnergyCharged.accept(result.getTotalEnergyCharged());
+        }
+
+        void combine(ReplicationAccumulator other) {
+            concurrencyFactor.combine(other.concurrencyFactor);
+            actualMaxPowerDemand.combine(other.actualMaxPowerDemand);
+            totalEnergyCharged.combine(other.totalEnergyCharged);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        replicationPool.shutdownNow();
+    }
+}
@@ -0,0 +1,126 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of persisted results of seeded simulations. Entries are weighted by the number of series values
+ * they hold, so a few results of huge stations cannot crowd out the memory budget silently. Only seeded engines are
+ * cached: an evicted entry is simulated again with the identical outcome.
+ */
+@Component
+public class SimulationResultCache {
+
+    /**
+     * @param simulationInputId null for an input that is not stored yet, its run is served by the result of an
+     *                          identical one, whose input is the stored equivalent
+     */
+    public record Key(Long simulationInputId,
+                      SimulationEngineType engine,
+                      int numberOfChargePoints,
+                      double arrivalProbabilityMultiplier,
+                      double evConsumption,
+                      double chargingPowerPerChargePoint,
+                      long seed) {
+    }
+
+    private final AsyncCache<Key, SimulationResultDTO> cache;
+
+    public SimulationResultCache(@Value("${simulation.cache.max-weight:2000000}") long maxWeight,
+                                 @Value("${simulation.cache.expire-after-write:1h}") Duration expireAfterWrite,
+                                 MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, SimulationResultDTO result) -> weigh(result))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "simulationResults");
+    }
+
+    /**
+     * @param simulationInput a validated input, none of its parameters is null
+     */
+    public static Key keyOf(SimulationInput simulationInput, SimulationEngineType engine, long seed) {
+        return new Key(
+                simulationInput.getId(),
+                engine,
+                simulationInput.getNumberOfChargePoints(),
+                simulationInput.getArrivalProbabilityMultiplier(),
+                simulationInput.getEvConsumption(),
+                simulationInput.getChargingPowerPerChargePoint(),
+                seed
+        );
+    }
+
+    /**
+     * Returns the cached result for the key or computes it on the calling thread. Concurrent callers asking for a
+     * key that is being computed wait for that computation instead of starting their own.
+     */
+    public SimulationResultDTO get(Key key, Supplier<SimulationResultDTO> loader) {
+        CompletableFuture<SimulationResultDTO> pending = new CompletableFuture<>();
+        CompletableFuture<SimulationResultDTO> cached = cache.get(key, (k, executor) -> pending);
+        if (cached == pending) {
+            try {
+                pending.complete(loader.get());
+            } catch (Throwable e) {
+                // whatever the loader threw, errors included, the entry is dropped and its waiters are released, the
+                // next caller recomputes instead of waiting for a computation that never completes
+                cache.asMap().remove(key, pending);
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    // runs pending evictions right away instead of on the cache's executor
+    void cleanUp() {
+        cache.synchronous().cleanUp();
+    }
+
+    private static int weigh(SimulationResultDTO result) {
+        return 1 + length(result.getExemplaryDay()) + length(result.getUtilizationRates())
+                + length(result.getAveragePowers()) + length(result.getEventsPerMonth())
+                + length(result.getEventsPerWeek()) + length(result.getEventsPerDay());
+    }
+
+    private static int length(double[] series) {
+        return series == null ? 0 : series.length;
+    }
+
+    private static int length(int[] series) {
+        return series == null ? 0 : series.length;
+    }
+}
@@ -0,0 +1,131 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationExportFormat;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Writes exported results row by row. Nothing is buffered beyond the writer's own buffer, which is pushed to the
+ * response on every flush.
+ */
+abstract class SimulationResultExportWriter {
+
+    protected final Writer writer;
+
+    private SimulationResultExportWriter(OutputStream outputStream) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    static SimulationResultExportWriter create(SimulationExportFormat format, OutputStream outputStream, ObjectMapper objectMapper) {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(outputStream, objectMapper);
+            case CSV -> new CsvWriter(outputStream);
+        };
+    }
+
+    abstract void writeHeader() throws IOException;
+
+    abstract void writeRow(SimulationResultDTO result) throws IOException;
+
+    void flush() throws IOException {
+        writer.flush();
+    }
+
+    private static final class NdjsonWriter extends SimulationResultExportWriter {
+        private final ObjectWriter objectWriter;
+
+        NdjsonWriter(OutputStream outputStream, ObjectMapper objectMapper) {
+            super(outputStream);
+            this.objectWriter = objectMapper.writerFor(SimulationResultDTO.class);
+        }
+
+        @Override
+        void writeHeader() {
+            // NDJSON has no header
+        }
+
+        @Override
+        void writeRow(SimulationResultDTO result) throws IOException {
+            writer.write(objectWriter.writeValueAsString(result));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * One line per result. Series are written as space separated values within their column so every row keeps the
+     * same column count.
+     */
+    private static final class CsvWriter extends SimulationResultExportWriter {
+        private static final String HEADER = "id,simulationInputId,seed,engine,createdAt,totalEnergyCharged,actualMaxPowerDemand,"
+                + "theoreticalMaxPowerDemand,concurrencyFactor,eventsPerYear,utilizationRates,averagePowers,exemplaryDay,"
+                + "eventsPerMonth,eventsPerWeek,eventsPerDay";
+
+        CsvWriter(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        void writeHeader() throws IOException {
+            writer.write(HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        void writeRow(SimulationResultDTO result) throws IOException {
+            writer.write(String.valueOf(result.getId()));
+            writer.write(',');
+            writer.write(nullToEmpty(result.getSimulationInputId()));
+            writer.write(',');
+            writer.write(nullToEmpty(result.getSeed()));
+            writer.write(',');
+            writer.write(nullToEmpty(result.getEngine()));
+            writer.write(',');
+            writer.write(nullToEmpty(result.getCreatedAt()));
+            writer.write(',');
+            writer.write(Double.toString(result.getTotalEnergyCharged()));
+            writer.write(',');
+            writer.write(Double.toString(result.getActualMaxPowerDemand()));
+            writer.write(',');
+            writer.write(Double.toString(result.getTheoreticalMaxPowerDemand()));
+            writer.write(',');
+            writer.write(Double.toString(result.getConcurrencyFactor()));
+            writer.write(',');
+            writer.write(Integer.toString(result.getEventsPerYear()));
+            writer.write(',');
+            writer.write(join(result.getUtilizationRates()));
+            writer.write(',');
+            writer.write(join(result.getAveragePowers()));
+            writer.write(',');
+            writer.write(join(result.getExemplaryDay()));
+            writer.write(',');
+            writer.write(join(result.getEventsPerMonth()));
+            writer.write(',');
+            writer.write(join(result.getEventsPerWeek()));
+            writer.write(',');
+            writer.write(join(result.getEventsPerDay()));
+            writer.write('\n');
+        }
+
+        private static String nullToEmpty(Object value) {
+            return value == null ? "" : value.toString();
+        }
+
+        private static String join(double[] series) {
+            return series == null ? "" : Arrays.stream(series).mapToObj(Double::toString).collect(Collectors.joining(" "));
+        }
+
+        private static String join(int[] series) {
+            return series == null ? "" : Arrays.stream(series).mapToObj(Integer::toString).collect(Collectors.joining(" "));
+        }
+    }
+}
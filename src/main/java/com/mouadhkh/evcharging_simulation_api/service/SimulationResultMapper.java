@@ -0,0 +1,126 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SeriesWindow;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultSeries;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultSummaryDTO;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+public class SimulationResultMapper {
+
+    public SimulationResultDTO toDTO(SimulationResult simulationResult) {
+        return toDTO(simulationResult, EnumSet.allOf(SimulationResultSeries.class));
+    }
+
+    public SimulationResultDTO toDTO(SimulationResult simulationResult, Set<SimulationResultSeries> includedSeries) {
+        return SimulationResultDTO.builder()
+                .id(simulationResult.getId())
+                // reading the id of the lazy input does not initialize it
+                .simulationInputId(simulationResult.getSimulationInput() == null ? null
+                        : simulationResult.getSimulationInput().getId())
+                .createdAt(simulationResult.getCreatedAt())
+                .totalEnergyCharged(simulationResult.getTotalEnergyCharged())
+                .actualMaxPowerDemand(simulationResult.getActualMaxPowerDemand())
+                .theoreticalMaxPowerDemand(simulationResult.getTheoreticalMaxPowerDemand())
+                .concurrencyFactor(simulationResult.getConcurrencyFactor())
+                .seed(simulationResult.getSeed())
+                .engine(simulationResult.getEngine())
+                .averagePowers(includedSeries.contains(SimulationResultSeries.AVERAGE_POWERS)
+                        ? simulationResult.getAveragePowers() : null)
+                .utilizationRates(includedSeries.contains(SimulationResultSeries.UTILIZATION_RATES)
+                        ? simulationResult.getUtilizationRates() : null)
+                .exemplaryDay(includedSeries.contains(SimulationResultSeries.EXEMPLARY_DAY)
+                        ? simulationResult.getExemplaryDay() : null)
+                .eventsPerYear(simulationResult.getEventsPerYear())
+                .eventsPerMonth(includedSeries.contains(SimulationResultSeries.EVENTS_PER_MONTH)
+                        ? simulationResult.getEventsPerMonth() : null)
+                .eventsPerWeek(includedSeries.contains(SimulationResultSeries.EVENTS_PER_WEEK)
+                        ? simulationResult.getEventsPerWeek() : null)
+                .eventsPerDay(includedSeries.contains(SimulationResultSeries.EVENTS_PER_DAY)
+                        ? simulationResult.getEventsPerDay() : null)
+                .build();
+    }
+
+    public SimulationResultDTO toDTO(SimulationResult simulationResult, Set<SimulationResultSeries> includedSeries,
+                                     SeriesWindow window) {
+        SimulationResultDTO dto = toDTO(simulationResult, includedSeries);
+        if (window.isFull()) {
+            return dto;
+        }
+        Map<String, int[]> seriesIndices = new LinkedHashMap<>();
+        dto.setExemplaryDay(select(dto.getExemplaryDay(), SimulationResultSeries.EXEMPLARY_DAY, window, seriesIndices));
+        dto.setUtilizationRates(select(dto.getUtilizationRates(), SimulationResultSeries.UTILIZATION_RATES, window, seriesIndices));
+        dto.setAveragePowers(select(dto.getAveragePowers(), SimulationResultSeries.AVERAGE_POWERS, window, seriesIndices));
+        dto.setEventsPerMonth(select(dto.getEventsPerMonth(), SimulationResultSeries.EVENTS_PER_MONTH, window, seriesIndices));
+        dto.setEventsPerWeek(select(dto.getEventsPerWeek(), SimulationResultSeries.EVENTS_PER_WEEK, window, seriesIndices));
+        dto.setEventsPerDay(select(dto.getEventsPerDay(), SimulationResultSeries.EVENTS_PER_DAY, window, seriesIndices));
+        dto.setSeriesIndices(seriesIndices);
+        return dto;
+    }
+
+    private static double[] select(double[] values, SimulationResultSeries series, SeriesWindow window,
+                                   Map<String, int[]> seriesIndices) {
+        if (values == null) {
+            return null;
+        }
+        int[] indices = indices(values, window);
+        seriesIndices.put(series.getFieldName(), indices);
+        double[] selected = new double[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = values[indices[i]];
+        }
+        return selected;
+    }
+
+    private static int[] select(int[] values, SimulationResultSeries series, SeriesWindow window,
+                                Map<String, int[]> seriesIndices) {
+        if (values == null) {
+            return null;
+        }
+        double[] asDoubles = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            asDoubles[i] = values[i];
+        }
+        int[] indices = indices(asDoubles, window);
+        seriesIndices.put(series.getFieldName(), indices);
+        int[] selected = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = values[indices[i]];
+        }
+        return selected;
+    }
+
+    // the window is clipped to every series, the series of a result differ in length
+    private static int[] indices(double[] values, SeriesWindow window) {
+        int from = window.from() == null ? 0 : Math.min(window.from(), values.length);
+        int to = window.to() == null ? values.length : Math.min(window.to(), values.length);
+        if (to <= from) {
+            return new int[0];
+        }
+        return window.points() == null
+                ? SeriesDownsampler.range(from, to)
+                : SeriesDownsampler.select(values, from, to, window.points(), window.mode());
+    }
+
+    public SimulationResultDTO toDTO(SimulationResultSummaryDTO summary) {
+        return SimulationResultDTO.builder()
+                .id(summary.getId())
+                .simulationInputId(summary.getSimulationInputId())
+                .createdAt(summary.getCreatedAt())
+                .totalEnergyCharged(summary.getTotalEnergyCharged())
+                .actualMaxPowerDemand(summary.getActualMaxPowerDemand())
+                .theoreticalMaxPowerDemand(summary.getTheoreticalMaxPowerDemand())
+                .concurrencyFactor(summary.getConcurrencyFactor())
+                .seed(summary.getSeed())
+                .engine(summary.getEngine())
+                .eventsPerYear(summary.getEventsPerYear())
+                .build();
+    }
+}
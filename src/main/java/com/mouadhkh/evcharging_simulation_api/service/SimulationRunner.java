@@ -0,0 +1,85 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs an input on the requested {@link SimulationEngine} and returns its outcome as a not yet persisted
+ * {@link SimulationResult}. Stateless and free of any database access so it can be called concurrently from
+ * worker threads.
+ */
+@Component
+public class SimulationRunner {
+
+    private final Map<SimulationEngineType, SimulationEngine> engines = new EnumMap<>(SimulationEngineType.class);
+    private final SimulationEngineType defaultEngine;
+
+    public SimulationRunner(List<SimulationEngine> engines,
+                            @Value("${simulation.engine.default:external}") String defaultEngine) {
+        for (SimulationEngine engine : engines) {
+            this.engines.put(engine.getType(), engine);
+        }
+        this.defaultEngine = SimulationEngineType.parse(defaultEngine);
+        if (!this.engines.containsKey(this.defaultEngine)) {
+            throw new IllegalStateException("No simulation engine " + defaultEngine + " available");
+        }
+    }
+
+    /**
+     * @return the given engine, the configured default one for null
+     */
+    public SimulationEngineType resolve(SimulationEngineType engine) {
+        return engine == null ? defaultEngine : engine;
+    }
+
+    /**
+     * @return whether the given engine, the configured default one for null, reproduces a run from its seed
+     */
+    public boolean isSeeded(SimulationEngineType engineType) {
+        SimulationEngine engine = engines.get(resolve(engineType));
+        return engine != null && engine.isSeeded();
+    }
+
+    /**
+     * Rejects a seed for an engine that ignores it: its result would be stored as reproducible but is not.
+     */
+    public void validateSeed(SimulationEngineType engineType, Long seed) {
+        SimulationEngineType resolvedEngineType = resolve(engineType);
+        if (seed != null && engines.containsKey(resolvedEngineType) && !isSeeded(resolvedEngineType)) {
+            throw new IllegalArgumentException("Simulation engine " + resolvedEngineType.getName()
+                    + " cannot be seeded, use the native engine for seeded runs");
+        }
+    }
+
+    public SimulationResult simulate(SimulationInput simulationInput) {
+        return simulate(simulationInput, null, null);
+    }
+
+    public SimulationResult simulate(SimulationInput simulationInput, SimulationEngineType engineType, Long seed) {
+        return simulate(simulationInput, engineType, seed, SimulationProgressListener.NONE);
+    }
+
+    public SimulationResult simulate(SimulationInput simulationInput, SimulationEngineType engineType, Long seed,
+                                     SimulationProgressListener progressListener) {
+        SimulationEngineType resolvedEngineType = resolve(engineType);
+        SimulationEngine engine = engines.get(resolvedEngineType);
+        if (engine == null) {
+            throw new IllegalArgumentException("Simulation engine " + resolvedEngineType.getName() + " is not available");
+        }
+        long effectiveSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        SimulationResult result = engine.simulate(simulationInput, effectiveSeed, progressListener);
+        result.setEngine(resolvedEngineType.getName());
+        // an engine honoring seeds records the drawn one for unseeded runs too, which makes every run reproducible;
+        // the seed of any other engine reproduces nothing and is not stored
+        result.setSeed(engine.isSeeded() ? effectiveSeed : null);
+        return result;
+    }
+}
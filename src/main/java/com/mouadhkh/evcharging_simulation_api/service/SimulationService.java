@@ -1,16 +1,28 @@
 package com.mouadhkh.evcharging_simulation_api.service;
 
+import com.mouadhkh.evcharging_simulation_api.dto.CursorPageDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SeriesWindow;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationCacheStatsDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationExportFormat;
 import com.mouadhkh.evcharging_simulation_api.dto.SimulationInputDTO;
 import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultSeries;
 import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.OutputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface SimulationService {
     Page<SimulationInputDTO> getAllSimulationInputs(Pageable pageable);
 
+    CursorPageDTO<SimulationInputDTO> getSimulationInputsAfter(long after, int limit);
+
     SimulationInputDTO getSimulationInputById(Long id);
 
     SimulationInputDTO createSimulationInput(SimulationInput simulationInput);
@@ -19,13 +31,47 @@ public interface SimulationService {
 
     void deleteSimulationInput(Long id);
 
-    SimulationResultDTO runMockSimulation(SimulationInput simulationInput);
+    SimulationResultDTO runMockSimulation(SimulationInput simulationInput, Long seed, SimulationEngineType engine);
 
     List<SimulationResultDTO> getSimulationResultByInputId(Long id);
 
-    SimulationResultDTO runNewMockSimulationByInputId(Long id);
+    SimulationResultDTO runNewMockSimulationByInputId(Long id, Long seed, SimulationEngineType engine);
+
+    SimulationResultDTO runNewMockSimulationByInputId(Long id, Long seed, SimulationEngineType engine,
+                                                      SimulationProgressListener progressListener);
+
+    /**
+     * Checks a run of an existing input the way runNewMockSimulationByInputId does, without running it.
+     *
+     * @throws jakarta.persistence.EntityNotFoundException if the input does not exist
+     * @throws IllegalArgumentException                    if the stored input is invalid or the engine cannot be seeded
+     */
+    void validateSimulationRunByInputId(Long id, Long seed, SimulationEngineType engine);
+
+    /**
+     * Runs a new simulation of an existing input for a job. The completion is called in the transaction storing the
+     * result and rolls the result back by throwing. Seeded runs are neither served from nor added to the result cache,
+     * a result rolled back must not be shared.
+     */
+    SimulationResultDTO runMockSimulationJob(Long id, Long seed, SimulationEngineType engine,
+                                             Consumer<SimulationResultDTO> completion);
+
+    Page<SimulationResultDTO> getAllSimulationResults(Pageable pageable, Set<SimulationResultSeries> includedSeries);
 
-    Page<SimulationResultDTO> getAllSimulationResults(Pageable pageable);
+    CursorPageDTO<SimulationResultDTO> getSimulationResultsAfter(long after, int limit, Set<SimulationResultSeries> includedSeries);
 
     SimulationResultDTO getSimulationResultById(Long id);
+
+    /**
+     * The result with the given series and window, served from a cache of mapped results when possible. The returned
+     * result may be shared and must not be modified.
+     */
+    StoredSimulationResult getSimulationResultById(Long id, Set<SimulationResultSeries> includedSeries, SeriesWindow window);
+
+    boolean simulationResultExists(Long id);
+
+    void exportSimulationResults(SimulationExportFormat format, Long inputId, Instant createdFrom, Instant createdTo,
+                                 OutputStream outputStream);
+
+    SimulationCacheStatsDTO getSimulationCacheStats();
 }
@@ -1,33 +1,95 @@
 package com.mouadhkh.evcharging_simulation_api.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mouadhkh.evcharging_simulation_api.archive.SimulationResultArchive;
+import com.mouadhkh.evcharging_simulation_api.dto.CursorPageDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SeriesWindow;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationCacheStatsDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationExportFormat;
 import com.mouadhkh.evcharging_simulation_api.dto.SimulationInputDTO;
 import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultSeries;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultSummaryDTO;
 import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
 import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import com.mouadhkh.evcharging_simulation_api.metrics.SimulationMetrics;
 import com.mouadhkh.evcharging_simulation_api.repository.SimulationInputRepository;
 import com.mouadhkh.evcharging_simulation_api.repository.SimulationResultRepository;
-import com.mouadhkh.simulator.ChargingStationSimulator;
-import com.mouadhkh.simulator.model.ChargePointMetric;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class SimulationServiceImpl implements SimulationService {
+    private static final int MAX_CURSOR_LIMIT = 1000;
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final Consumer<SimulationResultDTO> NO_COMPLETION = result -> {
+    };
 
     private final SimulationInputRepository simulationInputRepository;
     private final SimulationResultRepository simulationResultRepository;
+    private final SimulationRunner simulationRunner;
+    private final SimulationInputValidator simulationInputValidator;
+    private final SimulationResultCache simulationResultCache;
+    private final MappedResultCache mappedResultCache;
+    private final SimulationResultMapper simulationResultMapper;
+    private final SimulationMetrics simulationMetrics;
+    private final SimulationAdmissionLimiter simulationAdmissionLimiter;
+    private final SimulationResultArchive simulationResultArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
     public SimulationServiceImpl(SimulationInputRepository simulationInputRepository,
-                                 SimulationResultRepository simulationResultRepository) {
+                                 SimulationResultRepository simulationResultRepository,
+                                 SimulationRunner simulationRunner,
+                                 SimulationInputValidator simulationInputValidator,
+                                 SimulationResultCache simulationResultCache,
+                                 MappedResultCache mappedResultCache,
+                                 SimulationResultMapper simulationResultMapper,
+                                 SimulationMetrics simulationMetrics,
+                                 SimulationAdmissionLimiter simulationAdmissionLimiter,
+                                 SimulationResultArchive simulationResultArchive,
+                                 TransactionTemplate transactionTemplate,
+                                 EntityManager entityManager,
+                                 ObjectMapper objectMapper) {
         this.simulationInputRepository = simulationInputRepository;
         this.simulationResultRepository = simulationResultRepository;
+        this.simulationRunner = simulationRunner;
+        this.simulationInputValidator = simulationInputValidator;
+        this.simulationResultCache = simulationResultCache;
+        this.mappedResultCache = mappedResultCache;
+        this.simulationResultMapper = simulationResultMapper;
+        this.simulationMetrics = simulationMetrics;
+        this.simulationAdmissionLimiter = simulationAdmissionLimiter;
+        this.simulationResultArchive = simulationResultArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
     }
 
     public Page<SimulationInputDTO> getAllSimulationInputs(Pageable pageable) {
@@ -35,6 +97,14 @@ public class SimulationServiceImpl implements SimulationService {
         return inputPage.map(this::convertToDTO);
     }
 
+    @Override
+    public CursorPageDTO<SimulationInputDTO> getSimulationInputsAfter(long after, int limit) {
+        validateCursorLimit(limit);
+        // one extra row tells whether another slice follows without counting
+        List<SimulationInput> inputs = simulationInputRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.ofSize(limit + 1));
+        return toCursorPage(inputs.stream().map(this::convertToDTO).toList(), limit, SimulationInputDTO::getId);
+    }
+
     @Override
     public SimulationInputDTO getSimulationInputById(Long id) {
         return simulationInputRepository.findById(id)
@@ -74,50 +144,84 @@ public class SimulationServiceImpl implements SimulationService {
         simulationInputRepository.deleteById(id);
     }
 
-    @Transactional
+    // Not transactional on purpose: the simulation runs for a whole simulated year and must not pin a pooled
+    // connection. A transaction is only opened once the result is ready to be persisted.
     @Override
-    public SimulationResultDTO runMockSimulation(SimulationInput simulationInput) {
-        validateSimulationInput(simulationInput);
-        ChargingStationSimulator simulator = new ChargingStationSimulator(
-                simulationInput.getNumberOfChargePoints(),
-                simulationInput.getArrivalProbabilityMultiplier()
-        );
+    public SimulationResultDTO runMockSimulation(SimulationInput simulationInput, Long seed, SimulationEngineType engine) {
+        return runMockSimulation(simulationInput, seed, engine, SimulationProgressListener.NONE);
+    }
 
-        com.mouadhkh.simulator.simulation.SimulationResult simulationResult = simulator.run();
-        List<Double> utilizationRates = new ArrayList<>();
-        List<Double> averagePowers = new ArrayList<>();
-        List<ChargePointMetric> chargingPointMetrics = simulationResult.getChargingPointsMetrics();
-        for (ChargePointMetric metric : chargingPointMetrics) {
-            utilizationRates.add(metric.getUtilizationRate());
-            averagePowers.add(metric.getAveragePower());
+    private SimulationResultDTO runMockSimulation(SimulationInput simulationInput, Long seed, SimulationEngineType engine,
+                                                  SimulationProgressListener progressListener) {
+        validateSimulationInput(simulationInput);
+        SimulationEngineType engineType = simulationRunner.resolve(engine);
+        simulationRunner.validateSeed(engineType, seed);
+        // a watched run always simulates: a cached result has no progress to report, and a watcher leaving aborts
+        // its own run only instead of the run every caller coalesced on the same cache entry waits for
+        if (seed == null || progressListener != SimulationProgressListener.NONE) {
+            return simulateAndPersist(simulationInput, engineType, seed, progressListener, NO_COMPLETION);
         }
-        SimulationResult result = SimulationResult.builder()
-                .totalEnergyCharged(simulationResult.getTotalEnergyConsumed())
-                .actualMaxPowerDemand(simulationResult.getActualMaxPowerDemand())
-                .theoreticalMaxPowerDemand(simulationResult.getTheoreticalMaxPowerDemand())
-                .concurrencyFactor(simulationResult.getConcurrencyFactor())
-                .utilizationRates(utilizationRates)
-                .averagePowers(averagePowers)
-                .exemplaryDay(simulationResult.getExemplaryDay())
-                .eventsPerYear(simulationResult.getYearlyChargingEvents())
-                .eventsPerMonth(simulationResult.getMonthlyChargingEvents())
-                .eventsPerWeek(simulationResult.getWeeklyChargingEvents())
-                .eventsPerDay(simulationResult.getDailyChargingEvents())
-                .simulationInput(simulationInput)
-                .build();
+        // a seeded run is reproducible, an identical one of the same input that already ran is served from the cache
+        return simulationResultCache.get(SimulationResultCache.keyOf(simulationInput, engineType, seed),
+                () -> simulateAndPersist(simulationInput, engineType, seed, progressListener, NO_COMPLETION));
+    }
 
-        simulationInput.addSimulationResult(result);
-        simulationInputRepository.save(simulationInput);
-        SimulationResult savedResult = simulationResultRepository.save(result);
-        return convertToDTO(savedResult);
+    private SimulationResultDTO simulateAndPersist(SimulationInput simulationInput, SimulationEngineType engineType, Long seed,
+                                                   SimulationProgressListener progressListener,
+                                                   Consumer<SimulationResultDTO> completion) {
+        int chargePoints = simulationInput.getNumberOfChargePoints();
+        String engine = engineType.getName();
+        SimulationResult result = simulationAdmissionLimiter.run(engine, chargePoints, () -> simulationMetrics.recordRun(
+                engine, chargePoints, () -> simulationRunner.simulate(simulationInput, engineType, seed, progressListener)));
+        return persistSimulationResult(simulationInput, result, completion);
+    }
+
+    private SimulationResultDTO persistSimulationResult(SimulationInput simulationInput, SimulationResult result,
+                                                        Consumer<SimulationResultDTO> completion) {
+        return simulationMetrics.recordPersistence(() -> transactionTemplate.execute(status -> {
+            // an already stored input is only referenced: no select or merge of it is needed to insert the result
+            if (simulationInput.getId() == null) {
+                simulationInputRepository.save(simulationInput);
+                result.setSimulationInput(simulationInput);
+            } else {
+                result.setSimulationInput(simulationInputRepository.getReferenceById(simulationInput.getId()));
+            }
+            SimulationResultDTO savedResult = convertToDTO(simulationResultRepository.save(result));
+            completion.accept(savedResult);
+            return savedResult;
+        }));
+    }
+
+    @Override
+    public SimulationResultDTO runNewMockSimulationByInputId(Long id, Long seed, SimulationEngineType engine) {
+        return runNewMockSimulationByInputId(id, seed, engine, SimulationProgressListener.NONE);
     }
 
-    @Transactional
     @Override
-    public SimulationResultDTO runNewMockSimulationByInputId(Long id) {
+    public SimulationResultDTO runNewMockSimulationByInputId(Long id, Long seed, SimulationEngineType engine,
+                                                             SimulationProgressListener progressListener) {
         SimulationInput simulationInput = simulationInputRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("SimulationInput with id:" + id + " not found"));
-        return runMockSimulation(simulationInput);
+        return runMockSimulation(simulationInput, seed, engine, progressListener);
+    }
+
+    @Override
+    public void validateSimulationRunByInputId(Long id, Long seed, SimulationEngineType engine) {
+        SimulationInput simulationInput = simulationInputRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("SimulationInput with id:" + id + " not found"));
+        validateSimulationInput(simulationInput);
+        simulationRunner.validateSeed(simulationRunner.resolve(engine), seed);
+    }
+
+    @Override
+    public SimulationResultDTO runMockSimulationJob(Long id, Long seed, SimulationEngineType engine,
+                                                    Consumer<SimulationResultDTO> completion) {
+        SimulationInput simulationInput = simulationInputRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("SimulationInput with id:" + id + " not found"));
+        validateSimulationInput(simulationInput);
+        SimulationEngineType engineType = simulationRunner.resolve(engine);
+        simulationRunner.validateSeed(engineType, seed);
+        return simulateAndPersist(simulationInput, engineType, seed, SimulationProgressListener.NONE, completion);
     }
 
     @Override
@@ -125,26 +229,16 @@ public class SimulationServiceImpl implements SimulationService {
         simulationInputRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("SimulationInput with id: " + id + " not found"));
 
-        List<SimulationResult> results = simulationResultRepository.findAllBySimulationInputId(id);
-
-        return results.stream().map(this::convertToDTO).toList();
+        // older results of the input may have been moved to the archive
+        return Stream.concat(simulationResultRepository.findAllBySimulationInputId(id).stream(),
+                        simulationResultArchive.findAllBySimulationInputId(id).stream())
+                .sorted(Comparator.comparing(SimulationResult::getId))
+                .map(this::convertToDTO)
+                .toList();
     }
 
     private void validateSimulationInput(SimulationInput simulationInput) {
-        if (simulationInput.getNumberOfChargePoints() <= 0) {
-            throw new IllegalArgumentException("Number of charge points must be positive");
-        }
-        if (simulationInput.getArrivalProbabilityMultiplier() != null &&
-                (simulationInput.getArrivalProbabilityMultiplier() < 0.2
-                        || simulationInput.getArrivalProbabilityMultiplier() > 2)) {
-            throw new IllegalArgumentException("Arrival probability multiplier must be between 20% and 200%");
-        }
-        if (simulationInput.getEvConsumption() != null && simulationInput.getEvConsumption() <= 0) {
-            throw new IllegalArgumentException("EV energy consumption must be positive");
-        }
-        if (simulationInput.getChargingPowerPerChargePoint() <= 0) {
-            throw new IllegalArgumentException("Charging power per point must be positive");
-        }
+        simulationInputValidator.validateSimulationInput(simulationInput);
     }
 
     private SimulationInputDTO convertToDTO(SimulationInput simulationInput) {
@@ -157,31 +251,121 @@ public class SimulationServiceImpl implements SimulationService {
         );
     }
 
-    public Page<SimulationResultDTO> getAllSimulationResults(Pageable pageable) {
+    public Page<SimulationResultDTO> getAllSimulationResults(Pageable pageable, Set<SimulationResultSeries> includedSeries) {
+        if (includedSeries.isEmpty()) {
+            // scalars only: a single projection query (plus the page count), no series are read or decoded
+            return simulationResultRepository.findAllSummaries(pageable).map(this::convertToDTO);
+        }
+        // series live in the result row itself, so the entities of a page are still read by a single query
         Page<SimulationResult> resultPage = simulationResultRepository.findAll(pageable);
-        return resultPage.map(this::convertToDTO);
+        return resultPage.map(result -> convertToDTO(result, includedSeries));
+    }
+    @Override
+    public CursorPageDTO<SimulationResultDTO> getSimulationResultsAfter(long after, int limit,
+                                                                      Set<SimulationResultSeries> includedSeries) {
+        validateCursorLimit(limit);
+        Pageable slice = PageRequest.ofSize(limit + 1);
+        List<SimulationResultDTO> results = includedSeries.isEmpty()
+                ? simulationResultRepository.findSummariesAfter(after, slice).stream().map(this::convertToDTO).toList()
+                : simulationResultRepository.findByIdGreaterThanOrderByIdAsc(after, slice).stream()
+                .map(result -> convertToDTO(result, includedSeries)).toList();
+        return toCursorPage(results, limit, SimulationResultDTO::getId);
     }
+
+    private void validateCursorLimit(int limit) {
+        if (limit <= 0 || limit > MAX_CURSOR_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_CURSOR_LIMIT);
+        }
+    }
+
+    private static <T> CursorPageDTO<T> toCursorPage(List<T> rows, int limit, Function<T, Long> idOf) {
+        boolean hasNext = rows.size() > limit;
+        List<T> content = hasNext ? rows.subList(0, limit) : rows;
+        Long nextCursor = hasNext ? idOf.apply(content.get(content.size() - 1)) : null;
+        return new CursorPageDTO<>(content, limit, hasNext, nextCursor);
+    }
+
+    @Override
+    public void exportSimulationResults(SimulationExportFormat format, Long inputId, Instant createdFrom, Instant createdTo,
+                                        OutputStream outputStream) {
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<SimulationResult> results = simulationResultRepository.streamAll(inputId, createdFrom, createdTo, EXPORT_FETCH_SIZE)) {
+                SimulationResultExportWriter writer = SimulationResultExportWriter.create(format, outputStream, objectMapper);
+                writer.writeHeader();
+                Iterator<SimulationResult> iterator = results.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                    SimulationResult result = iterator.next();
+                    writer.writeRow(convertToDTO(result));
+                    // nothing but the cursor window is kept: the exported entity is dropped from the persistence context
+                    entityManager.detach(result);
+                    if (++written % EXPORT_FETCH_SIZE == 0) {
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Exporting simulation results failed", e);
+            }
+        });
+    }
+
     public SimulationResultDTO getSimulationResultById(Long id) {
-        SimulationResult result = simulationResultRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("SimulationResult not found with id: " + id));
+        SimulationResult result = findResult(id);
         return convertToDTO(result);
     }
 
+    @Override
+    public StoredSimulationResult getSimulationResultById(Long id, Set<SimulationResultSeries> includedSeries, SeriesWindow window) {
+        String key = id + "|" + new TreeSet<>(includedSeries) + "|" + window;
+        SimulationResultDTO cached = mappedResultCache.getIfPresent(key);
+        if (cached != null) {
+            return new StoredSimulationResult(cached, true);
+        }
+        SimulationResult result = findResult(id);
+        SimulationResultDTO mapped = simulationResultMapper.toDTO(result, includedSeries, window);
+        // the legacy series migration runs once the server accepts requests: a result it has not reached yet reads
+        // without series and is not cached, it changes once migrated
+        if (result.getUtilizationRates() == null) {
+            return new StoredSimulationResult(mapped, false);
+        }
+        mappedResultCache.put(key, mapped);
+        return new StoredSimulationResult(mapped, true);
+    }
+
+    private SimulationResult findResult(Long id) {
+        return simulationResultRepository.findById(id)
+                .or(() -> simulationResultArchive.findById(id))
+                .orElseThrow(() -> new EntityNotFoundException("SimulationResult not found with id: " + id));
+    }
+
+    @Override
+    public boolean simulationResultExists(Long id) {
+        return simulationResultRepository.existsById(id) || simulationResultArchive.contains(id);
+    }
+
 
     private SimulationResultDTO convertToDTO(SimulationResult simulationResult) {
-        return SimulationResultDTO.builder()
-                .id(simulationResult.getId())
-                .totalEnergyCharged(simulationResult.getTotalEnergyCharged())
-                .actualMaxPowerDemand(simulationResult.getActualMaxPowerDemand())
-                .theoreticalMaxPowerDemand(simulationResult.getTheoreticalMaxPowerDemand())
-                .concurrencyFactor(simulationResult.getConcurrencyFactor())
-                .averagePowers(simulationResult.getAveragePowers())
-                .utilizationRates(simulationResult.getUtilizationRates())
-                .exemplaryDay(simulationResult.getExemplaryDay())
-                .eventsPerYear(simulationResult.getEventsPerYear())
-                .eventsPerMonth(simulationResult.getEventsPerMonth())
-                .eventsPerWeek(simulationResult.getEventsPerWeek())
-                .eventsPerDay(simulationResult.getEventsPerDay())
+        return simulationResultMapper.toDTO(simulationResult);
+    }
+
+    private SimulationResultDTO convertToDTO(SimulationResult simulationResult, Set<SimulationResultSeries> includedSeries) {
+        return simulationResultMapper.toDTO(simulationResult, includedSeries);
+    }
+
+    private SimulationResultDTO convertToDTO(SimulationResultSummaryDTO summary) {
+        return simulationResultMapper.toDTO(summary);
+    }
+
+    @Override
+    public SimulationCacheStatsDTO getSimulationCacheStats() {
+        CacheStats stats = simulationResultCache.stats();
+        return SimulationCacheStatsDTO.builder()
+                .size(simulationResultCache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface SimulationStreamService {
+
+    /**
+     * Starts a new simulation of an existing input on a worker thread, reporting its progress to the listener.
+     *
+     * @throws jakarta.persistence.EntityNotFoundException       if the input does not exist
+     * @throws IllegalArgumentException                         if the stored input is invalid or the engine cannot be
+     *                                                          seeded
+     * @throws java.util.concurrent.RejectedExecutionException if too many simulations are streamed already
+     */
+    CompletableFuture<SimulationResultDTO> streamSimulation(Long simulationInputId, Long seed, SimulationEngineType engine,
+                                                            SimulationProgressListener progressListener);
+}
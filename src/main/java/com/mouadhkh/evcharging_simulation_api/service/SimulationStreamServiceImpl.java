@@ -0,0 +1,61 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class SimulationStreamServiceImpl implements SimulationStreamService {
+
+    private final SimulationService simulationService;
+    private final ThreadPoolExecutor streamExecutor;
+
+    public SimulationStreamServiceImpl(SimulationService simulationService,
+                                       @Value("${simulation.streams.pool-size:0}") int poolSize,
+                                       @Value("${simulation.streams.queue-capacity:100}") int queueCapacity,
+                                       MeterRegistry meterRegistry) {
+        this.simulationService = simulationService;
+        // same sizing as the job pool: the servlet threads are released while streaming, the CPU bound work is
+        // bounded here instead
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.streamExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), streamThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(streamExecutor, "simulationStreams", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<SimulationResultDTO> streamSimulation(Long simulationInputId, Long seed,
+                                                                   SimulationEngineType engine,
+                                                                   SimulationProgressListener progressListener) {
+        // fail before the stream is opened, the caller can still answer with a status like the non-streamed run does
+        simulationService.validateSimulationRunByInputId(simulationInputId, seed, engine);
+        return CompletableFuture.supplyAsync(() -> simulationService.runNewMockSimulationByInputId(
+                simulationInputId, seed, engine, progressListener), streamExecutor);
+    }
+
+    private static ThreadFactory streamThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "simulation-stream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streamExecutor.shutdownNow();
+    }
+}
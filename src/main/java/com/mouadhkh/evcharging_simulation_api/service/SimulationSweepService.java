@@ -0,0 +1,8 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationSweepDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationSweepRequestDTO;
+
+public interface SimulationSweepService {
+    SimulationSweepDTO runSimulationSweep(SimulationSweepRequestDTO sweepRequest);
+}
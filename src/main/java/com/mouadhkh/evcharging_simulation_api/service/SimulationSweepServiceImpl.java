@@ -0,0 +1,175 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationSweepDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationSweepEntryDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationSweepRequestDTO;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import com.mouadhkh.evcharging_simulation_api.metrics.SimulationMetrics;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationInputRepository;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationResultRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+@Service
+public class SimulationSweepServiceImpl implements SimulationSweepService {
+    // multipliers are rounded to millionths, a finer step would repeat grid points
+    private static final double MULTIPLIER_SCALE = 1e6;
+
+    private final SimulationInputRepository simulationInputRepository;
+    private final SimulationResultRepository simulationResultRepository;
+    private final SimulationRunner simulationRunner;
+    private final SimulationInputValidator simulationInputValidator;
+    private final SimulationMetrics simulationMetrics;
+    private final SimulationAdmissionLimiter simulationAdmissionLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int maxSweepPoints;
+    private final int persistBatchSize;
+    // dedicated work-stealing pool so sweeps neither starve nor get starved by the common pool
+    private final ForkJoinPool sweepPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public SimulationSweepServiceImpl(SimulationInputRepository simulationInputRepository,
+                                      SimulationResultRepository simulationResultRepository,
+                                      SimulationRunner simulationRunner,
+                                      SimulationInputValidator simulationInputValidator,
+                                      SimulationMetrics simulationMetrics,
+                                      SimulationAdmissionLimiter simulationAdmissionLimiter,
+                                      TransactionTemplate transactionTemplate,
+                                      EntityManager entityManager,
+                                      @Value("${simulation.sweeps.max-points:1000}") int maxSweepPoints,
+                                      @Value("${simulation.sweeps.persist-batch-size:50}") int persistBatchSize) {
+        this.simulationInputRepository = simulationInputRepository;
+        this.simulationResultRepository = simulationResultRepository;
+        this.simulationRunner = simulationRunner;
+        this.simulationInputValidator = simulationInputValidator;
+        this.simulationMetrics = simulationMetrics;
+        this.simulationAdmissionLimiter = simulationAdmissionLimiter;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.maxSweepPoints = maxSweepPoints;
+        this.persistBatchSize = persistBatchSize;
+    }
+
+    @Override
+    public SimulationSweepDTO runSimulationSweep(SimulationSweepRequestDTO sweepRequest) {
+        long start = System.nanoTime();
+        List<SimulationInput> inputs = expandGrid(sweepRequest, maxSweepPoints, simulationInputValidator);
+        // admitted as a whole, weighted by the largest runs executing at once on the sweep pool, each run reports its
+        // own run time
+        int concurrentRuns = Math.min(inputs.size(), sweepPool.getParallelism());
+        List<SimulationResult> results = simulationAdmissionLimiter.runBatch(
+                sweepRequest.getMaxChargePoints() * concurrentRuns, () -> simulateAll(inputs));
+        persistAll(inputs, results);
+
+        List<SimulationSweepEntryDTO> entries = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            SimulationInput input = inputs.get(i);
+            SimulationResult result = results.get(i);
+            entries.add(new SimulationSweepEntryDTO(
+                    input.getId(),
+                    result.getId(),
+                    input.getNumberOfChargePoints(),
+                    input.getArrivalProbabilityMultiplier(),
+                    result.getConcurrencyFactor(),
+                    result.getActualMaxPowerDemand()
+            ));
+        }
+        return SimulationSweepDTO.builder()
+                .size(entries.size())
+                .durationMillis((System.nanoTime() - start) / 1_000_000)
+                .entries(entries)
+                .build();
+    }
+
+    // the inputs of the grid points, ordered by charge points, then multiplier
+    static List<SimulationInput> expandGrid(SimulationSweepRequestDTO sweepRequest, int maxSweepPoints,
+                                            SimulationInputValidator simulationInputValidator) {
+        if (sweepRequest.getChargePointsStep() <= 0 || !(sweepRequest.getArrivalProbabilityMultiplierStep() > 0)) {
+            throw new IllegalArgumentException("Sweep steps must be positive");
+        }
+        if (sweepRequest.getArrivalProbabilityMultiplierStep() * MULTIPLIER_SCALE < 1) {
+            throw new IllegalArgumentException("Arrival probability multiplier step must be at least 0.000001");
+        }
+        if (sweepRequest.getMaxChargePoints() < sweepRequest.getMinChargePoints()
+                || !(sweepRequest.getMaxArrivalProbabilityMultiplier() >= sweepRequest.getMinArrivalProbabilityMultiplier())) {
+            throw new IllegalArgumentException("Sweep range upper bounds must not be below the lower bounds");
+        }
+        // counted in long and double, the steps of extreme ranges overflow an int
+        long chargePointSteps = ((long) sweepRequest.getMaxChargePoints() - sweepRequest.getMinChargePoints())
+                / sweepRequest.getChargePointsStep() + 1;
+        // integer step count instead of accumulating the double step to avoid drifting past the upper bound
+        double multiplierSteps = Math.floor((sweepRequest.getMaxArrivalProbabilityMultiplier()
+                - sweepRequest.getMinArrivalProbabilityMultiplier())
+                / sweepRequest.getArrivalProbabilityMultiplierStep() + 1e-9) + 1;
+        double gridSize = chargePointSteps * multiplierSteps;
+        if (gridSize > maxSweepPoints) {
+            throw new IllegalArgumentException("Sweep expands to " + (long) gridSize + " simulations, the maximum is "
+                    + maxSweepPoints);
+        }
+
+        List<SimulationInput> inputs = new ArrayList<>((int) gridSize);
+        for (int c = 0; c < chargePointSteps; c++) {
+            for (int m = 0; m < multiplierSteps; m++) {
+                double multiplier = sweepRequest.getMinArrivalProbabilityMultiplier()
+                        + m * sweepRequest.getArrivalProbabilityMultiplierStep();
+                SimulationInput input = SimulationInput.builder()
+                        .numberOfChargePoints(sweepRequest.getMinChargePoints() + c * sweepRequest.getChargePointsStep())
+                        .arrivalProbabilityMultiplier(Math.round(multiplier * MULTIPLIER_SCALE) / MULTIPLIER_SCALE)
+                        .evConsumption(sweepRequest.getEvConsumption())
+                        .chargingPowerPerChargePoint(sweepRequest.getChargingPowerPerChargePoint())
+                        .build();
+                simulationInputValidator.validateSimulationInput(input);
+                inputs.add(input);
+            }
+        }
+        return inputs;
+    }
+
+    private List<SimulationResult> simulateAll(List<SimulationInput> inputs) {
+        try {
+            String engine = simulationRunner.resolve(null).getName();
+            // a parallel stream started from inside the pool runs on (and work-steals within) that pool
+            return sweepPool.submit(() -> inputs.parallelStream()
+                    .map(input -> simulationAdmissionLimiter.measure(engine, input.getNumberOfChargePoints(),
+                            () -> simulationMetrics.recordRun(engine, input.getNumberOfChargePoints(),
+                                    () -> simulationRunner.simulate(input))))
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation sweep interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation sweep failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void persistAll(List<SimulationInput> inputs, List<SimulationResult> results) {
+        simulationMetrics.recordPersistence(() -> transactionTemplate.execute(status -> {
+            for (int from = 0; from < inputs.size(); from += persistBatchSize) {
+                int to = Math.min(from + persistBatchSize, inputs.size());
+                simulationInputRepository.saveAll(inputs.subList(from, to));
+                for (int i = from; i < to; i++) {
+                    results.get(i).setSimulationInput(inputs.get(i));
+                }
+                simulationResultRepository.saveAll(results.subList(from, to));
+                // flush and detach each chunk so the persistence context stays small for large sweeps
+                entityManager.flush();
+                entityManager.clear();
+            }
+            return null;
+        }));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweepPool.shutdownNow();
+    }
+}
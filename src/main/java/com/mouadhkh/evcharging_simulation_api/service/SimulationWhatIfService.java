@@ -0,0 +1,13 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationWhatIfRequestDTO;
+
+public interface SimulationWhatIfService {
+
+    /**
+     * Re-runs a stored result of the native engine with the same arrivals but another consumption or power, and
+     * persists it together with its changed input.
+     */
+    SimulationResultDTO runWhatIf(Long simulationResultId, SimulationWhatIfRequestDTO whatIfRequest);
+}
@@ -0,0 +1,144 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.archive.SimulationResultArchive;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationWhatIfRequestDTO;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationArrivalTrace;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import com.mouadhkh.evcharging_simulation_api.metrics.SimulationMetrics;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationArrivalTraceRepository;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationInputRepository;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationResultRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * What-if runs replay the arrivals of a stored native result instead of drawing new ones, so the outcome differs
+ * from the original only by the changed parameters. The arrivals are traced on the first what-if of a seed and
+ * stored, later ones only decode and replay them. A trace is kept while a seeded native result in the database has
+ * its parameters, the original or a what-if run of it, and purged once none has, e.g. after they were archived.
+ */
+@Slf4j
+@Service
+public class SimulationWhatIfServiceImpl implements SimulationWhatIfService {
+
+    private static final String REPLAY_ENGINE = "native-replay";
+
+    private final SimulationInputRepository simulationInputRepository;
+    private final SimulationResultRepository simulationResultRepository;
+    private final SimulationArrivalTraceRepository simulationArrivalTraceRepository;
+    private final NativeSimulationEngine nativeSimulationEngine;
+    private final SimulationInputValidator simulationInputValidator;
+    private final SimulationResultMapper simulationResultMapper;
+    private final SimulationMetrics simulationMetrics;
+    private final SimulationAdmissionLimiter simulationAdmissionLimiter;
+    private final SimulationResultArchive simulationResultArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration tracePurgeInterval;
+
+    public SimulationWhatIfServiceImpl(SimulationInputRepository simulationInputRepository,
+                                       SimulationResultRepository simulationResultRepository,
+                                       SimulationArrivalTraceRepository simulationArrivalTraceRepository,
+                                       NativeSimulationEngine nativeSimulationEngine,
+                                       SimulationInputValidator simulationInputValidator,
+                                       SimulationResultMapper simulationResultMapper,
+                                       SimulationMetrics simulationMetrics,
+                                       SimulationAdmissionLimiter simulationAdmissionLimiter,
+                                       SimulationResultArchive simulationResultArchive,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${simulation.what-if.trace-purge-interval:PT1H}") Duration tracePurgeInterval) {
+        this.simulationInputRepository = simulationInputRepository;
+        this.simulationResultRepository = simulationResultRepository;
+        this.simulationArrivalTraceRepository = simulationArrivalTraceRepository;
+        this.nativeSimulationEngine = nativeSimulationEngine;
+        this.simulationInputValidator = simulationInputValidator;
+        this.simulationResultMapper = simulationResultMapper;
+        this.simulationMetrics = simulationMetrics;
+        this.simulationAdmissionLimiter = simulationAdmissionLimiter;
+        this.simulationResultArchive = simulationResultArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.tracePurgeInterval = tracePurgeInterval;
+    }
+
+    @Override
+    public SimulationResultDTO runWhatIf(Long simulationResultId, SimulationWhatIfRequestDTO whatIfRequest) {
+        SimulationResult original = simulationResultRepository.findById(simulationResultId)
+                .or(() -> simulationResultArchive.findById(simulationResultId))
+                .orElseThrow(() -> new EntityNotFoundException("SimulationResult with id:" + simulationResultId + " not found"));
+        if (!SimulationEngineType.NATIVE.getName().equals(original.getEngine()) || original.getSeed() == null) {
+            throw new IllegalArgumentException("What-if runs need a seeded result of the native engine, result "
+                    + simulationResultId + " was simulated by " + (original.getEngine() == null ? "the external engine" : original.getEngine()));
+        }
+        Long inputId = original.getSimulationInput().getId();
+        SimulationInput originalInput = simulationInputRepository.findById(inputId)
+                .orElseThrow(() -> new EntityNotFoundException("SimulationInput with id:" + inputId + " not found"));
+        SimulationInput whatIfInput = SimulationInput.builder()
+                .numberOfChargePoints(originalInput.getNumberOfChargePoints())
+                .arrivalProbabilityMultiplier(originalInput.getArrivalProbabilityMultiplier())
+                .evConsumption(whatIfRequest.getEvConsumption() != null
+                        ? whatIfRequest.getEvConsumption() : originalInput.getEvConsumption())
+                .chargingPowerPerChargePoint(whatIfRequest.getChargingPowerPerChargePoint() != null
+                        ? whatIfRequest.getChargingPowerPerChargePoint() : originalInput.getChargingPowerPerChargePoint())
+                .build();
+        simulationInputValidator.validateSimulationInput(whatIfInput);
+
+        long seed = original.getSeed();
+        int chargePoints = whatIfInput.getNumberOfChargePoints();
+        SimulationResult result = simulationAdmissionLimiter.run(REPLAY_ENGINE, chargePoints, () -> simulationMetrics.recordRun(
+                REPLAY_ENGINE, chargePoints, () -> nativeSimulationEngine.replay(whatIfInput, arrivalTrace(originalInput, seed))));
+        // the replay is exactly the native run of the what-if input with the original seed
+        result.setEngine(SimulationEngineType.NATIVE.getName());
+        result.setSeed(seed);
+        return simulationMetrics.recordPersistence(() -> transactionTemplate.execute(status -> {
+            simulationInputRepository.save(whatIfInput);
+            result.setSimulationInput(whatIfInput);
+            return simulationResultMapper.toDTO(simulationResultRepository.save(result));
+        }));
+    }
+
+    /**
+     * Deletes the traces no seeded native result in the database has the parameters of. Traces stored within the last
+     * interval are kept: a what-if stores its trace before its result, which then references it.
+     */
+    @Scheduled(fixedDelayString = "${simulation.what-if.trace-purge-interval:PT1H}",
+            initialDelayString = "${simulation.what-if.trace-purge-interval:PT1H}")
+    public void purgeUnreferencedTraces() {
+        int purged = simulationArrivalTraceRepository.deleteUnreferencedCreatedBefore(Instant.now().minus(tracePurgeInterval));
+        if (purged > 0) {
+            log.info("Purged {} arrival traces no longer referenced by a seeded native result", purged);
+        }
+    }
+
+    private ArrivalTrace arrivalTrace(SimulationInput simulationInput, long seed) {
+        return simulationArrivalTraceRepository.findBySeedAndNumberOfChargePointsAndArrivalProbabilityMultiplier(
+                        seed, simulationInput.getNumberOfChargePoints(), simulationInput.getArrivalProbabilityMultiplier())
+                .map(stored -> ArrivalTrace.decode(stored.getEvents(), stored.getNumberOfChargePoints(), stored.getEventCount()))
+                .orElseGet(() -> traceAndStore(simulationInput, seed));
+    }
+
+    private ArrivalTrace traceAndStore(SimulationInput simulationInput, long seed) {
+        ArrivalTrace trace = nativeSimulationEngine.traceArrivals(simulationInput, seed);
+        try {
+            simulationArrivalTraceRepository.save(SimulationArrivalTrace.builder()
+                    .seed(seed)
+                    .numberOfChargePoints(simulationInput.getNumberOfChargePoints())
+                    .arrivalProbabilityMultiplier(simulationInput.getArrivalProbabilityMultiplier())
+                    .eventCount(trace.getEventCount())
+                    .events(trace.encode())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent what-if of the same seed stored the identical trace first
+        }
+        return trace;
+    }
+}
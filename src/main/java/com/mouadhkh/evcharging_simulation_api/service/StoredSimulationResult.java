@@ -0,0 +1,12 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+
+/**
+ * A stored result mapped to its response.
+ *
+ * @param complete false for a result written before series were stored packed whose series the legacy series
+ *                 migration has not moved yet: it reads without series until then, so it must not be cached
+ */
+public record StoredSimulationResult(SimulationResultDTO result, boolean complete) {
+}
@@ -0,0 +1,116 @@
+package com.mouadhkh.evcharging_simulation_api.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch with a relative error guarantee (the DDSketch bucketing): a positive value v is counted
+ * in bucket ceil(log_gamma(v)), so every quantile is returned within the relative accuracy of the exact one.
+ * Memory depends on the range of the values, not on how many were added. Values below or equal to zero are counted
+ * as zero.
+ */
+public class QuantileSketch {
+    private static final int INITIAL_BUCKETS = 128;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    private long[] counts = new long[0];
+    // bucket index of counts[0]
+    private int offset;
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        if (value <= 0) {
+            zeroCount++;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(value) / logGamma);
+        ensureCapacity(index, index);
+        counts[index - offset]++;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Only sketches with the same relative accuracy can be merged");
+        }
+        count += other.count;
+        zeroCount += other.zeroCount;
+        if (other.counts.length == 0) {
+            return;
+        }
+        ensureCapacity(other.offset, other.offset + other.counts.length - 1);
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[other.offset + i - offset] += other.counts[i];
+        }
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     * @return the estimated value at the quantile, NaN when the sketch is empty
+     */
+    public double quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(quantile * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                // midpoint (in relative terms) of the bucket (gamma^(i-1), gamma^i]
+                return 2 * Math.pow(gamma, i + offset) / (gamma + 1);
+            }
+        }
+        throw new IllegalStateException("Bucket counts do not add up to the total count");
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    private void ensureCapacity(int minIndex, int maxIndex) {
+        if (counts.length == 0) {
+            offset = minIndex;
+            counts = new long[Math.max(INITIAL_BUCKETS, maxIndex - minIndex + 1)];
+            // leave room on both sides so values around the first one do not regrow the array right away
+            offset -= (counts.length - (maxIndex - minIndex + 1)) / 2;
+            return;
+        }
+        if (minIndex >= offset && maxIndex < offset + counts.length) {
+            return;
+        }
+        int newMin = Math.min(minIndex, offset);
+        int newMax = Math.max(maxIndex, offset + counts.length - 1);
+        long[] grown = new long[Math.max(newMax - newMin + 1, counts.length * 2)];
+        int newOffset = newMin - (grown.length - (newMax - newMin + 1)) / 2;
+        System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+        counts = grown;
+        offset = newOffset;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch{count=" + count + ", buckets=" + Arrays.stream(counts).filter(c -> c > 0).count() + "}";
+    }
+}
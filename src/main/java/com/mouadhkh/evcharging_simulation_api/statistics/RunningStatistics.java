@@ -0,0 +1,86 @@
+package com.mouadhkh.evcharging_simulation_api.statistics;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Streaming mean, standard deviation, extremes and quantiles of a series of values in constant memory.
+ * Mean and variance use Welford's update; two instances accumulated on different threads are combined with
+ * Chan's parallel formula, so the statistics can be collected from a parallel stream.
+ */
+public class RunningStatistics implements DoubleConsumer {
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.005;
+
+    private final QuantileSketch sketch;
+    private long count;
+    private double mean;
+    // sum of squared differences from the mean
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public RunningStatistics() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public RunningStatistics(double relativeAccuracy) {
+        this.sketch = new QuantileSketch(relativeAccuracy);
+    }
+
+    @Override
+    public void accept(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sketch.add(value);
+    }
+
+    public RunningStatistics combine(RunningStatistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            mean = other.mean;
+            m2 = other.m2;
+        } else {
+            long combinedCount = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / combinedCount;
+            m2 += other.m2 + delta * delta * ((double) count * other.count / combinedCount);
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sketch.merge(other.sketch);
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * @return the sample standard deviation, 0 for a single value
+     */
+    public double getStandardDeviation() {
+        return count < 2 ? 0 : Math.sqrt(m2 / (count - 1));
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    public double quantile(double quantile) {
+        return sketch.quantile(quantile);
+    }
+}
@@ -0,0 +1,47 @@
+package com.mouadhkh.evcharging_simulation_api.web;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes simulation results as application/x-protobuf, see proto/simulation_result.proto. Results are only served
+ * in this format, never read.
+ */
+public class SimulationResultProtobufHttpMessageConverter extends AbstractHttpMessageConverter<SimulationResultDTO> {
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType("application/x-protobuf");
+
+    public SimulationResultProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SimulationResultDTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected SimulationResultDTO readInternal(Class<? extends SimulationResultDTO> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Simulation results are not accepted as protobuf", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(SimulationResultDTO result, MediaType contentType) {
+        return null;
+    }
+
+    @Override
+    protected void writeInternal(SimulationResultDTO result, HttpOutputMessage outputMessage) throws IOException {
+        SimulationResultProtobufWriter.write(result, outputMessage.getBody());
+    }
+}
@@ -0,0 +1,131 @@
+package com.mouadhkh.evcharging_simulation_api.web;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Encodes a {@link SimulationResultDTO} in the protobuf wire format of proto/simulation_result.proto. Hand-written
+ * for this one message, so no generated classes or protobuf runtime are needed. Repeated fields are packed, the
+ * double series are written as raw little-endian 64-bit values.
+ */
+public final class SimulationResultProtobufWriter {
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_FIXED64 = 1;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+
+    private SimulationResultProtobufWriter() {
+    }
+
+    public static byte[] encode(SimulationResultDTO result) {
+        SimulationResultProtobufWriter writer = new SimulationResultProtobufWriter();
+        writer.writeResult(result);
+        return writer.buffer.toByteArray();
+    }
+
+    public static void write(SimulationResultDTO result, OutputStream outputStream) throws IOException {
+        outputStream.write(encode(result));
+    }
+
+    private void writeResult(SimulationResultDTO result) {
+        writeInt64(1, result.getId());
+        writeInt64(2, result.getSimulationInputId());
+        writeInt64(3, result.getCreatedAt() == null ? null : result.getCreatedAt().toEpochMilli());
+        writeDouble(4, result.getTotalEnergyCharged());
+        writeDouble(5, result.getActualMaxPowerDemand());
+        writeDouble(6, result.getTheoreticalMaxPowerDemand());
+        writeDouble(7, result.getConcurrencyFactor());
+        writeInt64(8, result.getSeed());
+        writeString(9, result.getEngine());
+        writePackedDoubles(10, result.getExemplaryDay());
+        writePackedDoubles(11, result.getUtilizationRates());
+        writePackedDoubles(12, result.getAveragePowers());
+        writeInt64(13, (long) result.getEventsPerYear());
+        writePackedInts(14, result.getEventsPerMonth());
+        writePackedInts(15, result.getEventsPerWeek());
+        writePackedInts(16, result.getEventsPerDay());
+        if (result.getSeriesIndices() != null) {
+            for (Map.Entry<String, int[]> entry : result.getSeriesIndices().entrySet()) {
+                // a map entry is a message of key (1) and value (2), the value a SeriesIndices message
+                SimulationResultProtobufWriter indices = new SimulationResultProtobufWriter();
+                indices.writePackedInts(1, entry.getValue());
+                SimulationResultProtobufWriter mapEntry = new SimulationResultProtobufWriter();
+                mapEntry.writeString(1, entry.getKey());
+                mapEntry.writeBytes(2, indices.buffer.toByteArray());
+                writeBytes(17, mapEntry.buffer.toByteArray());
+            }
+        }
+    }
+
+    private void writeInt64(int field, Long value) {
+        if (value == null) {
+            return;
+        }
+        writeTag(field, WIRE_VARINT);
+        writeVarint(value);
+    }
+
+    private void writeDouble(int field, double value) {
+        writeTag(field, WIRE_FIXED64);
+        writeFixed64(Double.doubleToRawLongBits(value));
+    }
+
+    private void writeString(int field, String value) {
+        if (value != null) {
+            writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void writeBytes(int field, byte[] value) {
+        writeTag(field, WIRE_LENGTH_DELIMITED);
+        writeVarint(value.length);
+        buffer.write(value, 0, value.length);
+    }
+
+    private void writePackedDoubles(int field, double[] values) {
+        if (values == null || values.length == 0) {
+            return;
+        }
+        writeTag(field, WIRE_LENGTH_DELIMITED);
+        writeVarint((long) values.length * Double.BYTES);
+        for (double value : values) {
+            writeFixed64(Double.doubleToRawLongBits(value));
+        }
+    }
+
+    private void writePackedInts(int field, int[] values) {
+        if (values == null || values.length == 0) {
+            return;
+        }
+        // int32 varints: negative values take ten bytes, as in protobuf itself
+        SimulationResultProtobufWriter packed = new SimulationResultProtobufWriter();
+        for (int value : values) {
+            packed.writeVarint(value);
+        }
+        writeBytes(field, packed.buffer.toByteArray());
+    }
+
+    private void writeTag(int field, int wireType) {
+        writeVarint((long) field << 3 | wireType);
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.write((int) value);
+    }
+
+    private void writeFixed64(long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            buffer.write((int) (value >>> (8 * i)));
+        }
+    }
+}
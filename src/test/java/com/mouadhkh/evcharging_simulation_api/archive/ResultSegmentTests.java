@@ -0,0 +1,109 @@
+package com.mouadhkh.evcharging_simulation_api.archive;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultSegmentTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void findsEveryResultAcrossStripes() throws IOException {
+		List<SimulationResult> results = new ArrayList<>();
+		// ids with gaps, more than two stripes
+		for (long id = 1; id <= 3L * ResultSegment.STRIPE_ROWS; id += 2) {
+			results.add(result(id, id % 5));
+		}
+		ResultSegment segment = write(results);
+
+		assertEquals(results.size(), segment.getRowCount());
+		for (SimulationResult expected : results) {
+			assertSameResult(expected, segment.find(expected.getId()));
+		}
+		assertNull(segment.find(2L));
+		assertFalse(segment.contains(0L));
+		assertFalse(segment.contains(3L * ResultSegment.STRIPE_ROWS + 1));
+	}
+
+	@Test
+	void findsAllResultsOfAnInput() throws IOException {
+		List<SimulationResult> results = new ArrayList<>();
+		for (long id = 1; id <= 200; id++) {
+			results.add(result(id, id / 50));
+		}
+		ResultSegment segment = write(results);
+
+		List<SimulationResult> ofInput = segment.findAllBySimulationInputId(2L);
+		assertEquals(50, ofInput.size());
+		assertTrue(ofInput.stream().allMatch(result -> result.getSimulationInput().getId() == 2L));
+		assertTrue(segment.findAllBySimulationInputId(9L).isEmpty());
+	}
+
+	@Test
+	void keepsNullableFields() throws IOException {
+		SimulationResult legacy = result(7L, 1L);
+		legacy.setSeed(null);
+		legacy.setEngine(null);
+		legacy.setCreatedAt(null);
+		legacy.setUtilizationRates(new double[0]);
+
+		assertSameResult(legacy, write(List.of(legacy)).find(7L));
+	}
+
+	private ResultSegment write(List<SimulationResult> results) throws IOException {
+		Path file = directory.resolve("results.seg");
+		ResultSegment.write(file, results);
+		return ResultSegment.open(file);
+	}
+
+	private static SimulationResult result(long id, long inputId) {
+		return SimulationResult.builder()
+				.id(id)
+				.simulationInput(SimulationInput.builder().id(inputId).build())
+				.seed(id * 31)
+				.engine("native")
+				.createdAt(Instant.ofEpochSecond(1_700_000_000L + id, 123_456_000))
+				.totalEnergyCharged(id * 1.5)
+				.actualMaxPowerDemand(id + 0.25)
+				.theoreticalMaxPowerDemand(id * 11.0)
+				.concurrencyFactor(1.0 / id)
+				.eventsPerYear((int) id * 3)
+				.utilizationRates(new double[]{id, 0.5, 0.25})
+				.averagePowers(new double[]{1.0, id})
+				.exemplaryDay(new double[96])
+				.eventsPerMonth(new int[]{(int) id, 2, 3})
+				.eventsPerWeek(new int[52])
+				.eventsPerDay(new int[]{1})
+				.build();
+	}
+
+	private static void assertSameResult(SimulationResult expected, SimulationResult actual) {
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getSimulationInput().getId(), actual.getSimulationInput().getId());
+		assertEquals(expected.getSeed(), actual.getSeed());
+		assertEquals(expected.getEngine(), actual.getEngine());
+		assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+		assertEquals(expected.getTotalEnergyCharged(), actual.getTotalEnergyCharged());
+		assertEquals(expected.getActualMaxPowerDemand(), actual.getActualMaxPowerDemand());
+		assertEquals(expected.getTheoreticalMaxPowerDemand(), actual.getTheoreticalMaxPowerDemand());
+		assertEquals(expected.getConcurrencyFactor(), actual.getConcurrencyFactor());
+		assertEquals(expected.getEventsPerYear(), actual.getEventsPerYear());
+		assertArrayEquals(expected.getUtilizationRates(), actual.getUtilizationRates());
+		assertArrayEquals(expected.getAveragePowers(), actual.getAveragePowers());
+		assertArrayEquals(expected.getExemplaryDay(), actual.getExemplaryDay());
+		assertArrayEquals(expected.getEventsPerMonth(), actual.getEventsPerMonth());
+		assertArrayEquals(expected.getEventsPerWeek(), actual.getEventsPerWeek());
+		assertArrayEquals(expected.getEventsPerDay(), actual.getEventsPerDay());
+	}
+}
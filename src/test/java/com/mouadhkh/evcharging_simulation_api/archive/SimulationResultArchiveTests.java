@@ -0,0 +1,103 @@
+package com.mouadhkh.evcharging_simulation_api.archive;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationResultArchiveTests {
+
+	@TempDir
+	Path tempDirectory;
+
+	@Test
+	void startsWithoutCreatingTheDirectory() throws IOException {
+		Path directory = tempDirectory.resolve("archive");
+		SimulationResultArchive archive = new SimulationResultArchive(directory, new SimpleMeterRegistry());
+
+		assertTrue(archive.findById(1L).isEmpty());
+		assertFalse(archive.contains(1L));
+		assertTrue(archive.findAllBySimulationInputId(1L).isEmpty());
+		assertFalse(Files.exists(directory));
+	}
+
+	@Test
+	void firstArchivedBatchCreatesTheDirectory() throws IOException {
+		Path directory = tempDirectory.resolve("nested").resolve("archive");
+		SimulationResultArchive archive = new SimulationResultArchive(directory, new SimpleMeterRegistry());
+
+		archive.archive(List.of(result(1L), result(2L)));
+
+		assertTrue(Files.isDirectory(directory));
+		assertEquals(2L, archive.findById(2L).orElseThrow().getId());
+		assertTrue(archive.contains(1L));
+	}
+
+	@Test
+	void segmentsArchivedByAnotherInstanceAreFound() throws IOException {
+		Path directory = tempDirectory.resolve("archive");
+		SimulationResultArchive reader = new SimulationResultArchive(directory, new SimpleMeterRegistry());
+		SimulationResultArchive writer = new SimulationResultArchive(directory, new SimpleMeterRegistry());
+
+		writer.archive(List.of(result(5L)));
+
+		assertTrue(reader.contains(5L));
+		assertEquals(1, new SimulationResultArchive(directory, new SimpleMeterRegistry()).findAllBySimulationInputId(1L).size());
+	}
+
+	@Test
+	void findsResultsOfOverlappingSegments() throws IOException {
+		SimulationResultArchive archive = new SimulationResultArchive(tempDirectory.resolve("archive"), new SimpleMeterRegistry());
+
+		// id blocks of two instances: the ranges 1-100, 40-60 and 200-210 overlap and leave gaps
+		archive.archive(List.of(result(1L), result(2L), result(100L)));
+		archive.archive(List.of(result(40L), result(60L)));
+		archive.archive(List.of(result(200L), result(210L)));
+
+		for (long id : new long[]{1L, 2L, 40L, 60L, 100L, 200L, 210L}) {
+			assertEquals(id, archive.findById(id).orElseThrow().getId());
+		}
+		for (long id : new long[]{0L, 3L, 50L, 99L, 101L, 150L, 205L, 211L, 1_000_000L}) {
+			assertFalse(archive.contains(id), "archived " + id);
+		}
+	}
+
+	@Test
+	void reopenedArchiveIndexesEverySegment() throws IOException {
+		Path directory = tempDirectory.resolve("archive");
+		SimulationResultArchive writer = new SimulationResultArchive(directory, new SimpleMeterRegistry());
+		for (long first = 1; first <= 500; first += 5) {
+			writer.archive(List.of(result(first), result(first + 2)));
+		}
+
+		SimulationResultArchive reopened = new SimulationResultArchive(directory, new SimpleMeterRegistry());
+		for (long first = 1; first <= 500; first += 5) {
+			assertTrue(reopened.contains(first));
+			assertTrue(reopened.contains(first + 2));
+			assertFalse(reopened.contains(first + 1));
+		}
+	}
+
+	private static SimulationResult result(long id) {
+		return SimulationResult.builder()
+				.id(id)
+				.simulationInput(SimulationInput.builder().id(1L).build())
+				.seed(id)
+				.engine("native")
+				.utilizationRates(new double[]{0.5})
+				.averagePowers(new double[]{1.0})
+				.exemplaryDay(new double[96])
+				.eventsPerMonth(new int[12])
+				.eventsPerWeek(new int[52])
+				.eventsPerDay(new int[365])
+				.build();
+	}
+}
@@ -0,0 +1,101 @@
+package com.mouadhkh.evcharging_simulation_api.controller;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationService;
+import com.mouadhkh.evcharging_simulation_api.service.StoredSimulationResult;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SimulationControllerTests {
+
+	private final SimulationService simulationService = mock(SimulationService.class);
+	private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new SimulationController(simulationService)).build();
+
+	@Test
+	void resultCarriesAWeakETagVaryingByAccept() throws Exception {
+		when(simulationService.getSimulationResultById(eq(5L), any(), any()))
+				.thenReturn(new StoredSimulationResult(SimulationResultDTO.builder().id(5L).concurrencyFactor(0.4).build(), true));
+
+		MvcResult result = mockMvc.perform(get("/api/simulation-results/5"))
+				.andExpect(status().isOk())
+				.andExpect(content().json("{\"id\":5,\"concurrencyFactor\":0.4}"))
+				.andReturn();
+
+		String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(eTag);
+		assertTrue(eTag.startsWith("W/\"5-"), eTag);
+		assertTrue(result.getResponse().getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+		assertTrue(result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+	}
+
+	@Test
+	void matchingIfNoneMatchIsNotModified() throws Exception {
+		when(simulationService.getSimulationResultById(eq(5L), any(), any()))
+				.thenReturn(new StoredSimulationResult(SimulationResultDTO.builder().id(5L).build(), true));
+		when(simulationService.simulationResultExists(5L)).thenReturn(true);
+		String eTag = mockMvc.perform(get("/api/simulation-results/5"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		MvcResult revalidation = mockMvc.perform(get("/api/simulation-results/5").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andReturn();
+
+		assertEquals(eTag, revalidation.getResponse().getHeader(HttpHeaders.ETAG));
+		assertTrue(revalidation.getResponse().getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+		assertEquals(0, revalidation.getResponse().getContentLength());
+		// revalidation checks the existence only, the result is loaded by the first request alone
+		verify(simulationService, times(1)).getSimulationResultById(eq(5L), any(), any());
+	}
+
+	@Test
+	void otherRepresentationHasAnotherETag() throws Exception {
+		when(simulationService.getSimulationResultById(eq(5L), any(), any()))
+				.thenReturn(new StoredSimulationResult(SimulationResultDTO.builder().id(5L).build(), true));
+		when(simulationService.simulationResultExists(5L)).thenReturn(true);
+		String eTag = mockMvc.perform(get("/api/simulation-results/5"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		String windowedETag = mockMvc.perform(get("/api/simulation-results/5").param("from", "0").param("to", "10"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(eTag, windowedETag);
+
+		mockMvc.perform(get("/api/simulation-results/5").param("include", "eventsPerDay")
+						.header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void resultWithUnmigratedSeriesIsNotCacheable() throws Exception {
+		when(simulationService.getSimulationResultById(eq(5L), any(), any()))
+				.thenReturn(new StoredSimulationResult(SimulationResultDTO.builder().id(5L).build(), false));
+
+		MvcResult result = mockMvc.perform(get("/api/simulation-results/5"))
+				.andExpect(status().isOk())
+				.andExpect(content().json("{\"id\":5}"))
+				.andReturn();
+
+		assertNull(result.getResponse().getHeader(HttpHeaders.ETAG));
+		assertEquals("no-store", result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL));
+	}
+
+	@Test
+	void unknownResultIsNotFound() throws Exception {
+		when(simulationService.getSimulationResultById(eq(6L), any(), any()))
+				.thenThrow(new EntityNotFoundException("SimulationResult not found with id: 6"));
+
+		mockMvc.perform(get("/api/simulation-results/6"))
+				.andExpect(status().isNotFound());
+	}
+}
@@ -0,0 +1,139 @@
+package com.mouadhkh.evcharging_simulation_api.controller;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationOverloadedException;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationProgressListener;
+import com.mouadhkh.evcharging_simulation_api.service.SimulationStreamService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SimulationStreamControllerTests {
+
+	@Test
+	void streamsProgressThenTheResult() throws Exception {
+		MockMvc mockMvc = mockMvc((inputId, seed, engine, listener) -> {
+			for (int day = 73; day <= 365; day += 73) {
+				listener.onProgress(day, 365, day * 10.0, 50.0);
+			}
+			return CompletableFuture.completedFuture(SimulationResultDTO.builder().id(7L).simulationInputId(inputId).build());
+		});
+
+		MvcResult result = mockMvc.perform(get("/api/run-simulation/stream").param("inputId", "3"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		String events = result.getResponse().getContentAsString();
+		assertEquals(5, count(events, "event:progress"));
+		assertTrue(events.contains("\"percent\":20"), events);
+		assertTrue(events.contains("\"percent\":100"), events);
+		assertEquals(1, count(events, "event:result"));
+		assertTrue(events.indexOf("event:result") > events.lastIndexOf("event:progress"), events);
+		assertTrue(events.contains("\"simulationInputId\":3"), events);
+	}
+
+	@Test
+	void reportsAFailedRunAsErrorEvent() throws Exception {
+		MockMvc mockMvc = mockMvc((inputId, seed, engine, listener) ->
+				CompletableFuture.failedFuture(new IllegalStateException("Simulator failed")));
+
+		MvcResult result = mockMvc.perform(get("/api/run-simulation/stream").param("inputId", "3"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		String events = result.getResponse().getContentAsString();
+		assertEquals(1, count(events, "event:error"));
+		assertTrue(events.contains("Simulator failed"), events);
+	}
+
+	@Test
+	void reportsExhaustedCapacityAsOverloadedEvent() throws Exception {
+		MockMvc mockMvc = mockMvc((inputId, seed, engine, listener) ->
+				CompletableFuture.failedFuture(new SimulationOverloadedException("Simulation capacity exhausted", 3)));
+
+		MvcResult result = mockMvc.perform(get("/api/run-simulation/stream").param("inputId", "3"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		String events = result.getResponse().getContentAsString();
+		assertEquals(1, count(events, "event:overloaded"));
+		assertEquals(0, count(events, "event:error"));
+		assertTrue(events.contains("\"retryAfterSeconds\":3"), events);
+		assertTrue(events.contains("retry:3000"), events);
+	}
+
+	@Test
+	void disconnectAbortsTheStreamedRun() throws Exception {
+		AtomicReference<SimulationProgressListener> progressListener = new AtomicReference<>();
+		CompletableFuture<SimulationResultDTO> running = new CompletableFuture<>();
+		MockMvc mockMvc = mockMvc((inputId, seed, engine, listener) -> {
+			progressListener.set(listener);
+			return running;
+		});
+
+		MvcResult result = mockMvc.perform(get("/api/run-simulation/stream").param("inputId", "3"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		progressListener.get().onProgress(1, 365, 10.0, 5.0);
+		assertEquals(1, count(result.getResponse().getContentAsString(), "event:progress"));
+
+		// the container reports the broken connection to the listeners of the async request
+		MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onError(new AsyncEvent(asyncContext, new IOException("Broken pipe")));
+		}
+
+		assertThrows(CancellationException.class, () -> progressListener.get().onProgress(2, 365, 20.0, 5.0));
+		running.completeExceptionally(new CancellationException("Simulation stream closed by the client"));
+		assertEquals(1, count(result.getResponse().getContentAsString(), "event:progress"));
+	}
+
+	@Test
+	void unknownInputIsNotFound() throws Exception {
+		MockMvc mockMvc = mockMvc((inputId, seed, engine, listener) -> {
+			throw new EntityNotFoundException("SimulationInput with id: " + inputId + " not found");
+		});
+
+		mockMvc.perform(get("/api/run-simulation/stream").param("inputId", "3"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void invalidRunIsABadRequest() throws Exception {
+		MockMvc mockMvc = mockMvc((inputId, seed, engine, listener) -> {
+			throw new IllegalArgumentException("Simulation engine external cannot be seeded, use the native engine for seeded runs");
+		});
+
+		mockMvc.perform(get("/api/run-simulation/stream").param("inputId", "3").param("seed", "7"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private static MockMvc mockMvc(SimulationStreamService simulationStreamService) {
+		return MockMvcBuilders.standaloneSetup(new SimulationStreamController(simulationStreamService, Duration.ofMinutes(1)))
+				.build();
+	}
+
+	private static int count(String text, String part) {
+		int count = 0;
+		for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + part.length())) {
+			count++;
+		}
+		return count;
+	}
+}
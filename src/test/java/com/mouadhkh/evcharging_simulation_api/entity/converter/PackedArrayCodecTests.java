@@ -0,0 +1,53 @@
+package com.mouadhkh.evcharging_simulation_api.entity.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedArrayCodecTests {
+
+	@Test
+	void roundTripsEmptyArrays() {
+		assertArrayEquals(new double[0], PackedArrayCodec.decodeDoubles(PackedArrayCodec.encodeDoubles(new double[0])));
+		assertArrayEquals(new int[0], PackedArrayCodec.decodeInts(PackedArrayCodec.encodeInts(new int[0])));
+	}
+
+	@Test
+	void storesSmallArraysRaw() {
+		double[] exemplaryDay = {0.0, 11.0, 22.0, 11.0};
+		byte[] packed = PackedArrayCodec.encodeDoubles(exemplaryDay);
+
+		assertEquals(PackedArrayCodec.RAW, packed[0]);
+		assertEquals(1 + Integer.BYTES + exemplaryDay.length * Double.BYTES, packed.length);
+		assertArrayEquals(exemplaryDay, PackedArrayCodec.decodeDoubles(packed));
+	}
+
+	@Test
+	void deflatesLargeCompressibleArrays() {
+		int[] eventsPerDay = new int[365];
+		Arrays.fill(eventsPerDay, 42);
+		byte[] packed = PackedArrayCodec.encodeInts(eventsPerDay);
+
+		assertEquals(PackedArrayCodec.DEFLATED, packed[0]);
+		assertTrue(packed.length < eventsPerDay.length * Integer.BYTES);
+		assertArrayEquals(eventsPerDay, PackedArrayCodec.decodeInts(packed));
+	}
+
+	@Test
+	void roundTripsIncompressibleArrays() {
+		double[] averagePowers = new Random(7).doubles(500).toArray();
+
+		assertArrayEquals(averagePowers, PackedArrayCodec.decodeDoubles(PackedArrayCodec.encodeDoubles(averagePowers)));
+	}
+
+	@Test
+	void rejectsUnknownEncoding() {
+		byte[] packed = PackedArrayCodec.encodeInts(new int[]{1, 2, 3});
+		packed[0] = 9;
+
+		assertThrows(IllegalArgumentException.class, () -> PackedArrayCodec.decodeInts(packed));
+	}
+}
@@ -0,0 +1,138 @@
+package com.mouadhkh.evcharging_simulation_api.repository;
+
+import com.mouadhkh.evcharging_simulation_api.dto.AnalyticsCurvePointDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.AnalyticsMetric;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the analytics SQL against an in-memory H2 database in PostgreSQL mode, with the columns of the two tables
+ * the query reads.
+ */
+class SimulationAnalyticsRepositoryTests {
+
+	private SingleConnectionDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+	private SimulationAnalyticsRepository repository;
+	private long nextId;
+
+	@BeforeEach
+	void createTables() {
+		dataSource = new SingleConnectionDataSource("jdbc:h2:mem:analytics;MODE=PostgreSQL", "sa", "", true);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE simulation_input (id BIGINT PRIMARY KEY, number_of_charge_points INT NOT NULL, " +
+				"arrival_probability_multiplier DOUBLE PRECISION NOT NULL)");
+		jdbcTemplate.execute("CREATE TABLE simulation_result (id BIGINT PRIMARY KEY, simulation_input_id BIGINT NOT NULL " +
+				"REFERENCES simulation_input (id), engine VARCHAR(255), concurrency_factor DOUBLE PRECISION, " +
+				"actual_max_power_demand DOUBLE PRECISION, total_energy_charged DOUBLE PRECISION)");
+		repository = new SimulationAnalyticsRepository(new NamedParameterJdbcTemplate(dataSource));
+	}
+
+	@AfterEach
+	void dropDatabase() {
+		dataSource.destroy();
+	}
+
+	@Test
+	void aggregatesTheResultsOfABucket() {
+		long input = input(20, 1.0);
+		result(input, "native", 0.2);
+		result(input, "native", 0.4);
+		result(input, "native", 0.6);
+
+		AnalyticsCurvePointDTO point = single(repository.findCurve(AnalyticsMetric.CONCURRENCY_FACTOR, 0.1, 1, 100, null));
+
+		assertEquals(20, point.getNumberOfChargePoints());
+		assertEquals(1.0, point.getArrivalProbabilityMultiplierFrom());
+		assertEquals(3, point.getResults());
+		assertEquals(0.4, point.getMean(), 1e-12);
+		assertEquals(0.2, point.getMin());
+		assertEquals(0.6, point.getMax());
+		assertEquals(0.4, point.getP50(), 1e-12);
+		assertEquals(0.58, point.getP95(), 1e-12);
+	}
+
+	@Test
+	void multiplierOnABucketBoundaryStartsThatBucket() {
+		// 0.3 / 0.1 is 2.9999999999999996 in double arithmetic
+		result(input(20, 0.3), "native", 0.5);
+		result(input(20, 0.39), "native", 0.7);
+		result(input(20, 0.29), "native", 0.1);
+
+		List<AnalyticsCurvePointDTO> curve = repository.findCurve(AnalyticsMetric.CONCURRENCY_FACTOR, 0.1, 1, 100, null);
+
+		assertEquals(2, curve.size());
+		assertEquals(0.2, curve.get(0).getArrivalProbabilityMultiplierFrom());
+		assertEquals(1, curve.get(0).getResults());
+		assertEquals(0.3, curve.get(1).getArrivalProbabilityMultiplierFrom());
+		assertEquals(2, curve.get(1).getResults());
+		assertEquals(0.6, curve.get(1).getMean(), 1e-12);
+	}
+
+	@Test
+	void engineFilterCountsResultsWithoutEngineAsExternal() {
+		long input = input(20, 1.0);
+		result(input, "native", 0.1);
+		result(input, "external", 0.2);
+		// stored before engines were selectable
+		result(input, null, 0.3);
+
+		assertEquals(3, single(repository.findCurve(AnalyticsMetric.CONCURRENCY_FACTOR, 0.1, 1, 100, null)).getResults());
+		AnalyticsCurvePointDTO nativePoint = single(repository.findCurve(AnalyticsMetric.CONCURRENCY_FACTOR, 0.1, 1, 100,
+				SimulationEngineType.NATIVE));
+		assertEquals(1, nativePoint.getResults());
+		assertEquals(0.1, nativePoint.getMax());
+		AnalyticsCurvePointDTO externalPoint = single(repository.findCurve(AnalyticsMetric.CONCURRENCY_FACTOR, 0.1, 1, 100,
+				SimulationEngineType.EXTERNAL));
+		assertEquals(2, externalPoint.getResults());
+		assertEquals(0.2, externalPoint.getMin());
+		assertEquals(0.3, externalPoint.getMax());
+	}
+
+	@Test
+	void chargePointRangeIncludesBothEnds() {
+		for (int chargePoints : new int[]{9, 10, 15, 20, 21}) {
+			result(input(chargePoints, 1.0), "native", 0.5);
+		}
+
+		List<AnalyticsCurvePointDTO> curve = repository.findCurve(AnalyticsMetric.CONCURRENCY_FACTOR, 0.1, 10, 20, null);
+
+		assertEquals(List.of(10, 15, 20), curve.stream().map(AnalyticsCurvePointDTO::getNumberOfChargePoints).toList());
+	}
+
+	@Test
+	void readsTheColumnOfTheMetric() {
+		long input = input(20, 1.0);
+		jdbcTemplate.update("INSERT INTO simulation_result (id, simulation_input_id, engine, concurrency_factor, " +
+				"actual_max_power_demand, total_energy_charged) VALUES (?, ?, 'native', 0.5, 88.0, 1234.5)", ++nextId, input);
+
+		assertEquals(88.0, single(repository.findCurve(AnalyticsMetric.ACTUAL_MAX_POWER_DEMAND, 0.1, 1, 100, null)).getMean());
+		assertEquals(1234.5, single(repository.findCurve(AnalyticsMetric.TOTAL_ENERGY_CHARGED, 0.1, 1, 100, null)).getMean());
+	}
+
+	private long input(int chargePoints, double multiplier) {
+		long id = ++nextId;
+		jdbcTemplate.update("INSERT INTO simulation_input (id, number_of_charge_points, arrival_probability_multiplier) " +
+				"VALUES (?, ?, ?)", id, chargePoints, multiplier);
+		return id;
+	}
+
+	private void result(long inputId, String engine, double concurrencyFactor) {
+		jdbcTemplate.update("INSERT INTO simulation_result (id, simulation_input_id, engine, concurrency_factor) " +
+				"VALUES (?, ?, ?, ?)", ++nextId, inputId, engine, concurrencyFactor);
+	}
+
+	private static AnalyticsCurvePointDTO single(List<AnalyticsCurvePointDTO> curve) {
+		assertEquals(1, curve.size(), "points of the curve");
+		return curve.get(0);
+	}
+}
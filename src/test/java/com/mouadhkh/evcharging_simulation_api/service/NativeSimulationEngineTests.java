@@ -0,0 +1,102 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeSimulationEngineTests {
+
+	private final NativeSimulationEngine engine = new NativeSimulationEngine();
+
+	@Test
+	void sameSeedGivesTheIdenticalResult() {
+		SimulationInput input = input(20, 1.0, 18.0, 11.0);
+
+		assertSameResult(engine.simulate(input, 42), engine.simulate(input, 42));
+		assertNotEquals(engine.simulate(input, 42).getTotalEnergyCharged(), engine.simulate(input, 43).getTotalEnergyCharged());
+	}
+
+	@Test
+	void energyFollowsTheEvConsumption() {
+		SimulationResult economical = engine.simulate(input(20, 1.0, 12.0, 11.0), 42);
+		SimulationResult consuming = engine.simulate(input(20, 1.0, 24.0, 11.0), 42);
+
+		// same arrivals and distances, twice the energy per session (minus the few arrivals at busy charge points)
+		double ratio = consuming.getTotalEnergyCharged() / economical.getTotalEnergyCharged();
+		assertTrue(ratio > 1.8 && ratio <= 2.0, "energy ratio " + ratio);
+		assertTrue(consuming.getConcurrencyFactor() > economical.getConcurrencyFactor());
+	}
+
+	@Test
+	void powerDemandFollowsTheChargingPower() {
+		SimulationResult slow = engine.simulate(input(20, 1.0, 18.0, 3.7), 42);
+		SimulationResult fast = engine.simulate(input(20, 1.0, 18.0, 22.0), 42);
+
+		assertEquals(20 * 3.7, slow.getTheoreticalMaxPowerDemand(), 1e-9);
+		assertEquals(20 * 22.0, fast.getTheoreticalMaxPowerDemand(), 1e-9);
+		assertTrue(fast.getActualMaxPowerDemand() > slow.getActualMaxPowerDemand());
+	}
+
+	@Test
+	void rejectsMissingParameters() {
+		SimulationInput input = input(5, 1.0, 18.0, 11.0);
+		input.setEvConsumption(null);
+
+		assertThrows(IllegalArgumentException.class, () -> engine.simulate(input, 1));
+	}
+
+	@Test
+	void replayOfTracedArrivalsEqualsTheSeededRun() {
+		SimulationInput input = input(20, 1.5, 18.0, 11.0);
+		ArrivalTrace trace = engine.traceArrivals(input, 42);
+
+		assertSameResult(engine.simulate(input, 42), engine.replay(input, trace));
+	}
+
+	@Test
+	void replayWithChangedPowerEqualsTheSeededRunOfTheChangedInput() {
+		ArrivalTrace trace = engine.traceArrivals(input(20, 1.5, 18.0, 11.0), 7);
+		SimulationInput whatIf = input(20, 1.5, 25.0, 3.7);
+
+		assertSameResult(engine.simulate(whatIf, 7), engine.replay(whatIf, trace));
+	}
+
+	@Test
+	void encodedTraceDecodesToTheSameReplay() {
+		SimulationInput input = input(5, 2.0, 18.0, 22.0);
+		ArrivalTrace trace = engine.traceArrivals(input, 3);
+		ArrivalTrace decoded = ArrivalTrace.decode(trace.encode(), trace.getChargePoints(), trace.getEventCount());
+
+		assertEquals(trace.getEventCount(), decoded.getEventCount());
+		assertSameResult(engine.replay(input, trace), engine.replay(input, decoded));
+	}
+
+	@Test
+	void rejectsTraceOfAnotherNumberOfChargePoints() {
+		ArrivalTrace trace = engine.traceArrivals(input(5, 1.0, 18.0, 11.0), 1);
+
+		assertThrows(IllegalArgumentException.class, () -> engine.replay(input(6, 1.0, 18.0, 11.0), trace));
+	}
+
+	private static SimulationInput input(int chargePoints, double multiplier, double consumption, double power) {
+		return SimulationInput.builder()
+				.numberOfChargePoints(chargePoints)
+				.arrivalProbabilityMultiplier(multiplier)
+				.evConsumption(consumption)
+				.chargingPowerPerChargePoint(power)
+				.build();
+	}
+
+	private static void assertSameResult(SimulationResult expected, SimulationResult actual) {
+		assertEquals(expected.getTotalEnergyCharged(), actual.getTotalEnergyCharged());
+		assertEquals(expected.getActualMaxPowerDemand(), actual.getActualMaxPowerDemand());
+		assertEquals(expected.getConcurrencyFactor(), actual.getConcurrencyFactor());
+		assertArrayEquals(expected.getUtilizationRates(), actual.getUtilizationRates());
+		assertArrayEquals(expected.getAveragePowers(), actual.getAveragePowers());
+		assertArrayEquals(expected.getExemplaryDay(), actual.getExemplaryDay());
+		assertEquals(expected.getEventsPerYear(), actual.getEventsPerYear());
+		assertArrayEquals(expected.getEventsPerDay(), actual.getEventsPerDay());
+	}
+}
@@ -0,0 +1,52 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SeriesDownsamplingMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesDownsamplerTests {
+
+	@Test
+	void keepsShortRangesUntouched() {
+		double[] eventsPerMonth = {10, 12, 9, 14};
+		assertArrayEquals(new int[]{1, 2, 3}, SeriesDownsampler.select(eventsPerMonth, 1, 4, 50, SeriesDownsamplingMode.LTTB));
+	}
+
+	@Test
+	void largestTriangleThreeBucketsKeepsEndsAndSpikes() {
+		double[] eventsPerDay = new double[365];
+		Arrays.fill(eventsPerDay, 40);
+		eventsPerDay[137] = 400;
+		int[] indices = SeriesDownsampler.select(eventsPerDay, 90, 180, 20, SeriesDownsamplingMode.LTTB);
+
+		assertEquals(20, indices.length);
+		assertEquals(90, indices[0]);
+		assertEquals(179, indices[indices.length - 1]);
+		assertTrue(Arrays.stream(indices).anyMatch(i -> i == 137));
+		assertAscending(indices);
+	}
+
+	@Test
+	void minMaxKeepsEveryBucketExtreme() {
+		Random random = new Random(3);
+		double[] exemplaryDay = random.doubles(96, 0, 220).toArray();
+		int[] indices = SeriesDownsampler.select(exemplaryDay, 0, 96, 24, SeriesDownsamplingMode.MIN_MAX);
+
+		assertTrue(indices.length <= 24);
+		assertAscending(indices);
+		double max = Arrays.stream(exemplaryDay).max().orElseThrow();
+		double min = Arrays.stream(exemplaryDay).min().orElseThrow();
+		assertTrue(Arrays.stream(indices).anyMatch(i -> exemplaryDay[i] == max));
+		assertTrue(Arrays.stream(indices).anyMatch(i -> exemplaryDay[i] == min));
+	}
+
+	private static void assertAscending(int[] indices) {
+		for (int i = 1; i < indices.length; i++) {
+			assertTrue(indices[i - 1] < indices[i]);
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationAdmissionLimiterTests {
+
+	@Test
+	void admitsRunsHeavierThanTheLimitAlone() {
+		SimulationAdmissionLimiter limiter = limiter(0, Duration.ofSeconds(1));
+
+		assertEquals("done", limiter.run("native", 500, () -> "done"));
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void rejectsWhenTheQueueIsFull() throws Exception {
+		SimulationAdmissionLimiter limiter = limiter(0, Duration.ofSeconds(1));
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> heavy = CompletableFuture.supplyAsync(() -> limiter.run("native", 100, () -> {
+			running.countDown();
+			await(release);
+			return "heavy";
+		}));
+		assertTrue(running.await(5, TimeUnit.SECONDS));
+
+		SimulationOverloadedException e = assertThrows(SimulationOverloadedException.class,
+				() -> limiter.run("native", 10, () -> "light"));
+		assertTrue(e.getRetryAfterSeconds() >= 1);
+
+		release.countDown();
+		assertEquals("heavy", heavy.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void queuedRunStartsOnceCapacityIsReleased() throws Exception {
+		SimulationAdmissionLimiter limiter = limiter(1, Duration.ofSeconds(5));
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> heavy = CompletableFuture.supplyAsync(() -> limiter.run("native", 100, () -> {
+			running.countDown();
+			await(release);
+			return "heavy";
+		}));
+		assertTrue(running.await(5, TimeUnit.SECONDS));
+
+		CompletableFuture<String> light = CompletableFuture.supplyAsync(() -> limiter.run("native", 10, () -> "light"));
+		while (limiter.getQueued() == 0) {
+			Thread.onSpinWait();
+		}
+		assertFalse(light.isDone());
+
+		release.countDown();
+		assertEquals("heavy", heavy.get(5, TimeUnit.SECONDS));
+		assertEquals("light", light.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void limitGrowsWhileRunTimesHold() {
+		SimulationAdmissionLimiter limiter = adaptiveLimiter();
+
+		limiter.runBatch(100, () -> recordRuns(limiter, "native", 50, 1_000_000));
+
+		assertTrue(limiter.getLimit() > 150, "limit " + limiter.getLimit());
+	}
+
+	@Test
+	void limitShrinksOnceRunsSlowDown() {
+		SimulationAdmissionLimiter limiter = adaptiveLimiter();
+		limiter.runBatch(100, () -> recordRuns(limiter, "native", 20, 1_000_000));
+		double grownLimit = limiter.getLimit();
+
+		limiter.runBatch(100, () -> recordRuns(limiter, "native", 20, 4_000_000));
+
+		assertTrue(limiter.getLimit() < grownLimit * 0.8, "limit " + limiter.getLimit() + " after " + grownLimit);
+	}
+
+	@Test
+	void underusedLimitDoesNotGrow() {
+		SimulationAdmissionLimiter limiter = adaptiveLimiter();
+
+		limiter.runBatch(10, () -> recordRuns(limiter, "native", 50, 1_000_000));
+
+		assertEquals(100, limiter.getLimit(), 1e-9);
+	}
+
+	@Test
+	void slowerEngineIsNoSlowdown() {
+		SimulationAdmissionLimiter limiter = adaptiveLimiter();
+		limiter.runBatch(100, () -> recordRuns(limiter, "native", 20, 1_000_000));
+		double grownLimit = limiter.getLimit();
+
+		// a hundred times slower per charge point, but steadily so
+		limiter.runBatch(100, () -> recordRuns(limiter, "external", 20, 100_000_000));
+
+		assertTrue(limiter.getLimit() > grownLimit, "limit " + limiter.getLimit() + " after " + grownLimit);
+	}
+
+	@Test
+	void batchRecordsItsRunsNotItsDuration() {
+		SimulationAdmissionLimiter limiter = adaptiveLimiter();
+		int[] runs = new int[1];
+
+		String result = limiter.runBatch(100, () -> {
+			for (int i = 0; i < 10; i++) {
+				limiter.measure("native", 10, () -> runs[0]++);
+			}
+			return "done";
+		});
+
+		assertEquals("done", result);
+		assertEquals(10, runs[0]);
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	// a fixed limit of 100 charge points
+	private static SimulationAdmissionLimiter limiter(int queueCapacity, Duration maxWait) {
+		return new SimulationAdmissionLimiter(true, 100, 100, 100, queueCapacity, maxWait, new SimpleMeterRegistry());
+	}
+
+	// starts at 100 charge points, may move between 10 and 1000
+	private static SimulationAdmissionLimiter adaptiveLimiter() {
+		return new SimulationAdmissionLimiter(true, 100, 10, 1000, 10, Duration.ofSeconds(1), new SimpleMeterRegistry());
+	}
+
+	// runs of 10 charge points, each taking the given nanoseconds
+	private static Void recordRuns(SimulationAdmissionLimiter limiter, String engine, int runs, long runNanos) {
+		for (int i = 0; i < runs; i++) {
+			limiter.recordRun(engine, 10, runNanos);
+		}
+		return null;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
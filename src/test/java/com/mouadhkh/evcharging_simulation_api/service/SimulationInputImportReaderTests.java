@@ -0,0 +1,142 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationImportFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationInputImportReaderTests {
+
+	@Test
+	void readsCsvRowsByHeaderWithDefaultsForEmptyCells() throws IOException {
+		List<SimulationInputImportReader.Row> rows = readAll(SimulationImportFormat.CSV,
+				"\uFEFFchargingPowerPerChargePoint;numberOfChargePoints;arrivalProbabilityMultiplier\n" +
+						"22;20;1.5\n" +
+						"\n" +
+						";5;\n" +
+						"11;many;1\n" +
+						"11;4\n");
+
+		assertEquals(4, rows.size());
+		assertEquals(2, rows.get(0).row());
+		assertEquals(20, rows.get(0).input().getNumberOfChargePoints());
+		assertEquals(22.0, rows.get(0).input().getChargingPowerPerChargePoint());
+		assertEquals(1.5, rows.get(0).input().getArrivalProbabilityMultiplier());
+		assertEquals(4, rows.get(1).row());
+		assertEquals(11.0, rows.get(1).input().getChargingPowerPerChargePoint());
+		assertEquals(18.0, rows.get(1).input().getEvConsumption());
+		assertNull(rows.get(2).input());
+		assertEquals("Invalid numberOfChargePoints: 'many'", rows.get(2).error());
+		assertEquals("Expected 3 columns, found 2", rows.get(3).error());
+	}
+
+	@Test
+	void acceptsPlainDecimalsOnly() throws IOException {
+		List<SimulationInputImportReader.Row> rows = readAll(SimulationImportFormat.CSV,
+				"numberOfChargePoints,evConsumption\n" +
+						"5,NaN\n" +
+						"5,-Infinity\n" +
+						"5,0x1p3\n" +
+						"5,18d\n" +
+						"0x5,18\n" +
+						"5,1.5e1\n" +
+						"5,.5\n");
+
+		assertEquals("Invalid evConsumption: 'NaN'", rows.get(0).error());
+		assertEquals("Invalid evConsumption: '-Infinity'", rows.get(1).error());
+		assertEquals("Invalid evConsumption: '0x1p3'", rows.get(2).error());
+		assertEquals("Invalid evConsumption: '18d'", rows.get(3).error());
+		assertEquals("Invalid numberOfChargePoints: '0x5'", rows.get(4).error());
+		assertEquals(15.0, rows.get(5).input().getEvConsumption());
+		assertEquals(0.5, rows.get(6).input().getEvConsumption());
+	}
+
+	@Test
+	void readsQuotedCellsAndDecimalCommasOfSemicolonExports() throws IOException {
+		List<SimulationInputImportReader.Row> rows = readAll(SimulationImportFormat.CSV,
+				"\"numberOfChargePoints\";\"evConsumption\";\"chargingPowerPerChargePoint\"\n" +
+						"\"20\";\"18,5\";11\n" +
+						"4; \"22.5\" ;\"3,7\"\n" +
+						"4;\"1.000,5\";11\n");
+
+		assertEquals(20, rows.get(0).input().getNumberOfChargePoints());
+		assertEquals(18.5, rows.get(0).input().getEvConsumption());
+		assertEquals(22.5, rows.get(1).input().getEvConsumption());
+		assertEquals(3.7, rows.get(1).input().getChargingPowerPerChargePoint());
+		// digit grouping is ambiguous between locales
+		assertEquals("Invalid evConsumption: '1.000,5'", rows.get(2).error());
+	}
+
+	@Test
+	void keepsCommasAndLineBreaksOfQuotedCells() throws IOException {
+		List<SimulationInputImportReader.Row> rows = readAll(SimulationImportFormat.CSV,
+				"numberOfChargePoints,evConsumption\n" +
+						"\"7\n" +
+						"\",18\n" +
+						"8,\"1,5\"\n" +
+						"9,20\n" +
+						"\"10,20\n");
+
+		assertEquals(4, rows.size());
+		assertEquals(2, rows.get(0).row());
+		assertEquals(7, rows.get(0).input().getNumberOfChargePoints());
+		// the decimal comma is read in ';' separated files only
+		assertEquals(4, rows.get(1).row());
+		assertEquals("Invalid evConsumption: '1,5'", rows.get(1).error());
+		assertEquals(5, rows.get(2).row());
+		assertEquals(9, rows.get(2).input().getNumberOfChargePoints());
+		assertEquals(6, rows.get(3).row());
+		assertEquals("Unterminated quoted cell", rows.get(3).error());
+	}
+
+	@Test
+	void rejectsCsvWithoutChargePointsColumn() {
+		assertThrows(IllegalArgumentException.class,
+				() -> readAll(SimulationImportFormat.CSV, "evConsumption\n18\n"));
+		assertThrows(IllegalArgumentException.class,
+				() -> readAll(SimulationImportFormat.CSV, "numberOfChargePoints,color\n5,red\n"));
+	}
+
+	@Test
+	void readsJsonArrayElementByElement() throws IOException {
+		List<SimulationInputImportReader.Row> rows = readAll(SimulationImportFormat.JSON,
+				"[{\"numberOfChargePoints\": 20, \"evConsumption\": 15.5}, " +
+						"{\"numberOfChargePoints\": 2.5}, " +
+						"[1, 2], " +
+						"{\"numberOfChargePoints\": 3, \"chargingPowerPerChargePoint\": \"fast\"}]");
+
+		assertEquals(4, rows.size());
+		assertEquals(20, rows.get(0).input().getNumberOfChargePoints());
+		assertEquals(15.5, rows.get(0).input().getEvConsumption());
+		assertEquals(1.0, rows.get(0).input().getArrivalProbabilityMultiplier());
+		assertEquals("numberOfChargePoints must be an integer", rows.get(1).error());
+		assertEquals("Expected a simulation input object", rows.get(2).error());
+		assertEquals(4, rows.get(3).row());
+		assertEquals("chargingPowerPerChargePoint must be a number", rows.get(3).error());
+	}
+
+	@Test
+	void rejectsJsonThatIsNotAnArray() {
+		assertThrows(IllegalArgumentException.class,
+				() -> readAll(SimulationImportFormat.JSON, "{\"numberOfChargePoints\": 20}"));
+	}
+
+	private static List<SimulationInputImportReader.Row> readAll(SimulationImportFormat format, String body) throws IOException {
+		List<SimulationInputImportReader.Row> rows = new ArrayList<>();
+		try (SimulationInputImportReader reader = SimulationInputImportReader.create(format,
+				new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), new ObjectMapper())) {
+			SimulationInputImportReader.Row row;
+			while ((row = reader.next()) != null) {
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,38 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationInputValidatorTests {
+
+	private final SimulationInputValidator validator = new SimulationInputValidator();
+
+	@Test
+	void acceptsTheDefaults() {
+		assertDoesNotThrow(() -> validator.validateSimulationInput(SimulationInput.builder().numberOfChargePoints(20).build()));
+	}
+
+	@Test
+	void rejectsNonFiniteValues() {
+		for (double value : new double[]{Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+			assertThrows(IllegalArgumentException.class, () -> validator.validateSimulationInput(
+					SimulationInput.builder().numberOfChargePoints(20).arrivalProbabilityMultiplier(value).build()));
+			assertThrows(IllegalArgumentException.class, () -> validator.validateSimulationInput(
+					SimulationInput.builder().numberOfChargePoints(20).evConsumption(value).build()));
+			assertThrows(IllegalArgumentException.class, () -> validator.validateSimulationInput(
+					SimulationInput.builder().numberOfChargePoints(20).chargingPowerPerChargePoint(value).build()));
+		}
+	}
+
+	@Test
+	void rejectsValuesOutOfRange() {
+		assertThrows(IllegalArgumentException.class, () -> validator.validateSimulationInput(
+				SimulationInput.builder().numberOfChargePoints(0).build()));
+		assertThrows(IllegalArgumentException.class, () -> validator.validateSimulationInput(
+				SimulationInput.builder().numberOfChargePoints(20).arrivalProbabilityMultiplier(2.5).build()));
+		assertThrows(IllegalArgumentException.class, () -> validator.validateSimulationInput(
+				SimulationInput.builder().numberOfChargePoints(20).evConsumption(0.0).build()));
+	}
+}
@@ -0,0 +1,144 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.EVChargingSimulationApiApplication;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationJobDTO;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationJobStatus;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.repository.SimulationJobRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application contexts sharing one database act as two instances. Needs the PostgreSQL of the .env file,
+ * the queue relies on FOR UPDATE SKIP LOCKED.
+ */
+@EnabledIfEnvironmentVariable(named = "POSTGRES_URL", matches = ".+")
+class SimulationJobQueueTests {
+
+	private static final int JOBS = 20;
+	private static final int QUEUE_CAPACITY = 5;
+
+	@Test
+	void instancesShareQueuedJobsAndRunEachOnce() throws InterruptedException {
+		try (ConfigurableApplicationContext first = start("queue-test-worker-1");
+			 ConfigurableApplicationContext second = start("queue-test-worker-2")) {
+			SimulationJobService simulationJobService = first.getBean(SimulationJobService.class);
+			Long inputId = first.getBean(SimulationService.class)
+					.createSimulationInput(SimulationInput.builder().numberOfChargePoints(200).build())
+					.getId();
+
+			List<UUID> jobIds = IntStream.range(0, JOBS)
+					.mapToObj(i -> simulationJobService.submitSimulationByInputId(inputId, (long) i, SimulationEngineType.NATIVE).getId())
+					.toList();
+			List<SimulationJobDTO> jobs = awaitFinished(second.getBean(SimulationJobService.class), jobIds);
+
+			assertTrue(jobs.stream().allMatch(job -> job.getStatus() == SimulationJobStatus.SUCCEEDED));
+			assertTrue(jobs.stream().allMatch(job -> job.getAttempts() == 1));
+			assertEquals(JOBS, jobs.stream().map(SimulationJobDTO::getSimulationResultId).distinct().count());
+			assertEquals(Set.of("queue-test-worker-1", "queue-test-worker-2"),
+					jobs.stream().map(SimulationJobDTO::getWorkerId).collect(Collectors.toSet()));
+		}
+	}
+
+	@Test
+	void queueCapacityHoldsUnderConcurrentSubmissions() throws Exception {
+		try (ConfigurableApplicationContext instance = startWithoutWorker(QUEUE_CAPACITY)) {
+			SimulationJobService simulationJobService = instance.getBean(SimulationJobService.class);
+			SimulationJobRepository simulationJobRepository = instance.getBean(SimulationJobRepository.class);
+			Long inputId = instance.getBean(SimulationService.class)
+					.createSimulationInput(SimulationInput.builder().numberOfChargePoints(5).build())
+					.getId();
+			ExecutorService submitters = Executors.newFixedThreadPool(JOBS);
+			try {
+				List<Future<SimulationJobDTO>> submissions = IntStream.range(0, JOBS)
+						.mapToObj(i -> submitters.submit(() -> simulationJobService.submitSimulationByInputId(inputId, null, null)))
+						.toList();
+				List<UUID> accepted = new ArrayList<>();
+				int rejected = 0;
+				for (Future<SimulationJobDTO> submission : submissions) {
+					try {
+						accepted.add(submission.get(30, TimeUnit.SECONDS).getId());
+					} catch (ExecutionException e) {
+						assertInstanceOf(RejectedExecutionException.class, e.getCause());
+						rejected++;
+					}
+				}
+				simulationJobRepository.deleteAllById(accepted);
+
+				// jobs left queued by other runs against the same database take capacity as well
+				assertTrue(accepted.size() <= QUEUE_CAPACITY, accepted.size() + " jobs accepted");
+				assertEquals(JOBS, accepted.size() + rejected);
+			} finally {
+				submitters.shutdownNow();
+			}
+		}
+	}
+
+	@Test
+	void resultOfARejectedCompletionIsRolledBack() {
+		try (ConfigurableApplicationContext instance = startWithoutWorker(QUEUE_CAPACITY)) {
+			SimulationService simulationService = instance.getBean(SimulationService.class);
+			Long inputId = simulationService
+					.createSimulationInput(SimulationInput.builder().numberOfChargePoints(5).build())
+					.getId();
+
+			assertThrows(IllegalStateException.class, () -> simulationService.runMockSimulationJob(inputId, 1L,
+					SimulationEngineType.NATIVE, result -> {
+						throw new IllegalStateException("Lease lost");
+					}));
+
+			assertTrue(simulationService.getSimulationResultByInputId(inputId).isEmpty());
+		}
+	}
+
+	private static List<SimulationJobDTO> awaitFinished(SimulationJobService simulationJobService, List<UUID> jobIds)
+			throws InterruptedException {
+		Instant deadline = Instant.now().plusSeconds(120);
+		while (true) {
+			List<SimulationJobDTO> jobs = jobIds.stream().map(simulationJobService::getSimulationJob).toList();
+			boolean finished = jobs.stream().allMatch(job -> job.getStatus() == SimulationJobStatus.SUCCEEDED
+					|| job.getStatus() == SimulationJobStatus.FAILED);
+			if (finished || Instant.now().isAfter(deadline)) {
+				return jobs;
+			}
+			Thread.sleep(200);
+		}
+	}
+
+	private static ConfigurableApplicationContext start(String workerId) {
+		// one job at a time per instance and a short poll interval, so both instances get to claim jobs
+		return new SpringApplicationBuilder(EVChargingSimulationApiApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--simulation.jobs.worker-id=" + workerId,
+						"--simulation.jobs.pool-size=1",
+						"--simulation.jobs.poll-interval=PT0.1S");
+	}
+
+	// accepts jobs without executing them, they stay queued
+	private static ConfigurableApplicationContext startWithoutWorker(int queueCapacity) {
+		return new SpringApplicationBuilder(EVChargingSimulationApiApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--simulation.jobs.worker.enabled=false",
+						"--simulation.jobs.queue-capacity=" + queueCapacity);
+	}
+}
@@ -0,0 +1,127 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationResultCacheTests {
+
+	private final SimulationResultCache cache = new SimulationResultCache(100, Duration.ofHours(1), new SimpleMeterRegistry());
+
+	@Test
+	void servesARepeatedKeyFromTheCache() {
+		AtomicInteger loads = new AtomicInteger();
+
+		SimulationResultDTO first = cache.get(key(1L), () -> result(loads.incrementAndGet()));
+		SimulationResultDTO second = cache.get(key(1L), () -> result(loads.incrementAndGet()));
+
+		assertSame(first, second);
+		assertEquals(1, loads.get());
+		assertEquals(1, cache.stats().hitCount());
+	}
+
+	@Test
+	void concurrentCallersWaitForTheRunningComputation() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<SimulationResultDTO> first = CompletableFuture.supplyAsync(() -> cache.get(key(1L), () -> {
+			loads.incrementAndGet();
+			loading.countDown();
+			await(release);
+			return result(1);
+		}));
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+		Thread waiter = new Thread(() -> cache.get(key(1L), () -> result(loads.incrementAndGet())));
+		waiter.start();
+		// the second caller parks on the pending entry instead of loading it again
+		while (waiter.getState() != Thread.State.WAITING) {
+			Thread.onSpinWait();
+		}
+		release.countDown();
+		waiter.join(5000);
+
+		assertFalse(waiter.isAlive());
+		assertEquals(1, first.get(5, TimeUnit.SECONDS).getId());
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void failedComputationIsNotCached() {
+		assertThrows(IllegalStateException.class, () -> cache.get(key(1L), () -> {
+			throw new IllegalStateException("Simulator failed");
+		}));
+
+		assertEquals(2L, cache.get(key(1L), () -> result(2)).getId());
+	}
+
+	@Test
+	void errorOfTheComputationReleasesTheEntry() {
+		assertThrows(AssertionError.class, () -> cache.get(key(1L), () -> {
+			throw new AssertionError("Engine invariant violated");
+		}));
+
+		// a later caller of the key recomputes instead of waiting for the abandoned computation forever
+		SimulationResultDTO result = assertTimeoutPreemptively(Duration.ofSeconds(5),
+				() -> cache.get(key(1L), () -> result(2)));
+		assertEquals(2L, result.getId());
+	}
+
+	@Test
+	void evictsBeyondTheMaximumWeight() {
+		AtomicInteger loads = new AtomicInteger();
+		// every result weighs 61, two exceed the maximum weight of 100
+		cache.get(key(1L), () -> result(loads.incrementAndGet()));
+		cache.get(key(2L), () -> result(loads.incrementAndGet()));
+		cache.cleanUp();
+
+		assertEquals(1, cache.estimatedSize());
+		assertEquals(1, cache.stats().evictionCount());
+		// the evicted one of both is simulated again
+		cache.get(key(1L), () -> result(loads.incrementAndGet()));
+		cache.get(key(2L), () -> result(loads.incrementAndGet()));
+		assertTrue(loads.get() > 2);
+	}
+
+	@Test
+	void keysDifferByInputEngineAndSeed() {
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get(key(1L), () -> result(loads.incrementAndGet()));
+		cache.get(new SimulationResultCache.Key(2L, SimulationEngineType.NATIVE, 20, 1.0, 18.0, 11.0, 1L),
+				() -> result(loads.incrementAndGet()));
+		cache.get(new SimulationResultCache.Key(1L, SimulationEngineType.EXTERNAL, 20, 1.0, 18.0, 11.0, 1L),
+				() -> result(loads.incrementAndGet()));
+
+		assertEquals(3, loads.get());
+	}
+
+	private static SimulationResultCache.Key key(long seed) {
+		return new SimulationResultCache.Key(1L, SimulationEngineType.NATIVE, 20, 1.0, 18.0, 11.0, seed);
+	}
+
+	private static SimulationResultDTO result(long id) {
+		return SimulationResultDTO.builder()
+				.id(id)
+				.exemplaryDay(new double[60])
+				.build();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationRunnerTests {
+
+	private final SimulationRunner runner = new SimulationRunner(
+			List.of(new FixedEngine(SimulationEngineType.EXTERNAL, false), new FixedEngine(SimulationEngineType.NATIVE, true)),
+			"external");
+	private final SimulationInput input = SimulationInput.builder().numberOfChargePoints(5).build();
+
+	@Test
+	void storesTheSeedOfSeededEnginesOnly() {
+		assertEquals(7L, runner.simulate(input, SimulationEngineType.NATIVE, 7L).getSeed());
+		// the drawn seed reproduces the run as well
+		assertNotNull(runner.simulate(input, SimulationEngineType.NATIVE, null).getSeed());
+		assertNull(runner.simulate(input, SimulationEngineType.EXTERNAL, null).getSeed());
+	}
+
+	@Test
+	void reportsWhetherAnEngineIsSeeded() {
+		assertTrue(runner.isSeeded(SimulationEngineType.NATIVE));
+		assertFalse(runner.isSeeded(SimulationEngineType.EXTERNAL));
+		// the configured default engine
+		assertFalse(runner.isSeeded(null));
+	}
+
+	@Test
+	void rejectsSeedsForEnginesThatCannotBeSeeded() {
+		assertThrows(IllegalArgumentException.class, () -> runner.validateSeed(null, 7L));
+		assertThrows(IllegalArgumentException.class, () -> runner.validateSeed(SimulationEngineType.EXTERNAL, 7L));
+		assertDoesNotThrow(() -> runner.validateSeed(SimulationEngineType.NATIVE, 7L));
+		assertDoesNotThrow(() -> runner.validateSeed(SimulationEngineType.EXTERNAL, null));
+	}
+
+	private record FixedEngine(SimulationEngineType type, boolean seeded) implements SimulationEngine {
+
+		@Override
+		public SimulationEngineType getType() {
+			return type;
+		}
+
+		@Override
+		public boolean isSeeded() {
+			return seeded;
+		}
+
+		@Override
+		public SimulationResult simulate(SimulationInput simulationInput, long seed) {
+			return SimulationResult.builder().build();
+		}
+	}
+}
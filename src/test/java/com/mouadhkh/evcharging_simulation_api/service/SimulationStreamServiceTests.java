@@ -0,0 +1,57 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationEngineType;
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SimulationStreamServiceTests {
+
+	private final SimulationService simulationService = mock(SimulationService.class);
+	private final SimulationStreamServiceImpl streamService =
+			new SimulationStreamServiceImpl(simulationService, 1, 1, new SimpleMeterRegistry());
+
+	@AfterEach
+	void shutdown() {
+		streamService.shutdown();
+	}
+
+	@Test
+	void invalidRunFailsBeforeTheStreamOpens() {
+		doThrow(new IllegalArgumentException("Simulation engine external cannot be seeded"))
+				.when(simulationService).validateSimulationRunByInputId(3L, 7L, SimulationEngineType.EXTERNAL);
+
+		assertThrows(IllegalArgumentException.class, () -> streamService.streamSimulation(3L, 7L,
+				SimulationEngineType.EXTERNAL, SimulationProgressListener.NONE));
+		verify(simulationService, never()).runNewMockSimulationByInputId(any(), any(), any(), any());
+	}
+
+	@Test
+	void unknownInputFailsBeforeTheStreamOpens() {
+		doThrow(new EntityNotFoundException("SimulationInput with id:3 not found"))
+				.when(simulationService).validateSimulationRunByInputId(3L, null, null);
+
+		assertThrows(EntityNotFoundException.class,
+				() -> streamService.streamSimulation(3L, null, null, SimulationProgressListener.NONE));
+		verify(simulationService, never()).runNewMockSimulationByInputId(any(), any(), any(), any());
+	}
+
+	@Test
+	void validRunIsStreamedOnAWorker() throws Exception {
+		SimulationResultDTO result = SimulationResultDTO.builder().id(9L).build();
+		when(simulationService.runNewMockSimulationByInputId(3L, 7L, SimulationEngineType.NATIVE, SimulationProgressListener.NONE))
+				.thenReturn(result);
+
+		assertSame(result, streamService.streamSimulation(3L, 7L, SimulationEngineType.NATIVE, SimulationProgressListener.NONE)
+				.get(5, TimeUnit.SECONDS));
+		verify(simulationService).validateSimulationRunByInputId(3L, 7L, SimulationEngineType.NATIVE);
+	}
+}
@@ -0,0 +1,105 @@
+package com.mouadhkh.evcharging_simulation_api.service;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationSweepRequestDTO;
+import com.mouadhkh.evcharging_simulation_api.entity.SimulationInput;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationSweepServiceTests {
+
+	private final SimulationInputValidator validator = new SimulationInputValidator();
+
+	@Test
+	void expandsTheCartesianProductOfBothRanges() {
+		List<SimulationInput> inputs = expand(request(10, 30, 10, 0.5, 1.0, 0.25), 1000);
+
+		assertEquals(9, inputs.size());
+		assertEquals(10, inputs.get(0).getNumberOfChargePoints());
+		assertEquals(0.5, inputs.get(0).getArrivalProbabilityMultiplier());
+		assertEquals(0.75, inputs.get(1).getArrivalProbabilityMultiplier());
+		assertEquals(1.0, inputs.get(2).getArrivalProbabilityMultiplier());
+		assertEquals(20, inputs.get(3).getNumberOfChargePoints());
+		assertEquals(30, inputs.get(8).getNumberOfChargePoints());
+		assertEquals(1.0, inputs.get(8).getArrivalProbabilityMultiplier());
+		assertEquals(18.0, inputs.get(8).getEvConsumption());
+	}
+
+	@Test
+	void reachesTheUpperBoundDespiteInexactSteps() {
+		List<SimulationInput> inputs = expand(request(5, 5, 1, 0.2, 0.5, 0.1), 1000);
+
+		assertEquals(List.of(0.2, 0.3, 0.4, 0.5), inputs.stream().map(SimulationInput::getArrivalProbabilityMultiplier).toList());
+	}
+
+	@Test
+	void equalBoundsAreASinglePoint() {
+		List<SimulationInput> inputs = expand(request(7, 7, 3, 1.2, 1.2, 0.1), 1000);
+
+		assertEquals(1, inputs.size());
+		assertEquals(7, inputs.get(0).getNumberOfChargePoints());
+		assertEquals(1.2, inputs.get(0).getArrivalProbabilityMultiplier());
+	}
+
+	@Test
+	void rejectsEmptyRanges() {
+		assertThrows(IllegalArgumentException.class, () -> expand(request(10, 5, 1, 1.0, 1.0, 0.1), 1000));
+		assertThrows(IllegalArgumentException.class, () -> expand(request(5, 5, 1, 1.0, 0.5, 0.1), 1000));
+		assertThrows(IllegalArgumentException.class, () -> expand(request(5, 5, 1, Double.NaN, 1.0, 0.1), 1000));
+	}
+
+	@Test
+	void rejectsNonPositiveSteps() {
+		assertThrows(IllegalArgumentException.class, () -> expand(request(5, 10, 0, 1.0, 1.0, 0.1), 1000));
+		assertThrows(IllegalArgumentException.class, () -> expand(request(5, 10, -1, 1.0, 1.0, 0.1), 1000));
+		assertThrows(IllegalArgumentException.class, () -> expand(request(5, 5, 1, 1.0, 1.5, 0.0), 1000));
+		assertThrows(IllegalArgumentException.class, () -> expand(request(5, 5, 1, 1.0, 1.5, Double.NaN), 1000));
+	}
+
+	@Test
+	void rejectsGridsAboveTheMaximum() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> expand(request(1, 100, 1, 1.0, 1.0, 0.1), 10));
+		assertEquals("Sweep expands to 100 simulations, the maximum is 10", e.getMessage());
+		assertEquals(10, expand(request(1, 10, 1, 1.0, 1.0, 0.1), 10).size());
+		// step counts that overflow an int are still rejected by size
+		assertThrows(IllegalArgumentException.class,
+				() -> expand(request(Integer.MIN_VALUE, Integer.MAX_VALUE, 1, 1.0, 1.0, 0.1), 1000));
+		assertThrows(IllegalArgumentException.class,
+				() -> expand(request(5, 5, 1, 0.2, Double.MAX_VALUE, 0.001), 1000));
+	}
+
+	@Test
+	void neverRepeatsAGridPoint() {
+		// below the rounding of the multipliers steps would collapse into the same value
+		assertThrows(IllegalArgumentException.class, () -> expand(request(5, 5, 1, 1.0, 1.00001, 1e-7), 1000));
+
+		List<SimulationInput> inputs = expand(request(5, 6, 1, 1.0, 1.00001, 1e-6), 1000);
+		Set<String> points = new HashSet<>();
+		for (SimulationInput input : inputs) {
+			assertTrue(points.add(input.getNumberOfChargePoints() + "|" + input.getArrivalProbabilityMultiplier()),
+					"repeated grid point " + input.getNumberOfChargePoints() + ", " + input.getArrivalProbabilityMultiplier());
+		}
+		assertEquals(22, inputs.size());
+	}
+
+	@Test
+	void rejectsGridPointsFailingValidation() {
+		assertThrows(IllegalArgumentException.class, () -> expand(request(0, 5, 1, 1.0, 1.0, 0.1), 1000));
+		assertThrows(IllegalArgumentException.class, () -> expand(request(5, 5, 1, 0.1, 1.0, 0.1), 1000));
+	}
+
+	private List<SimulationInput> expand(SimulationSweepRequestDTO sweepRequest, int maxSweepPoints) {
+		return SimulationSweepServiceImpl.expandGrid(sweepRequest, maxSweepPoints, validator);
+	}
+
+	private static SimulationSweepRequestDTO request(int minChargePoints, int maxChargePoints, int chargePointsStep,
+													 double minMultiplier, double maxMultiplier, double multiplierStep) {
+		return new SimulationSweepRequestDTO(minChargePoints, maxChargePoints, chargePointsStep,
+				minMultiplier, maxMultiplier, multiplierStep, 18.0, 11.0);
+	}
+}
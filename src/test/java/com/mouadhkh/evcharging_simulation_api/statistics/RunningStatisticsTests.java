@@ -0,0 +1,66 @@
+package com.mouadhkh.evcharging_simulation_api.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunningStatisticsTests {
+
+	@Test
+	void matchesExactMeanAndStandardDeviation() {
+		double[] values = {0.42, 0.37, 0.51, 0.45, 0.39, 0.48};
+		RunningStatistics statistics = new RunningStatistics();
+		Arrays.stream(values).forEach(statistics);
+
+		double mean = Arrays.stream(values).average().orElseThrow();
+		double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum() / (values.length - 1);
+		assertEquals(mean, statistics.getMean(), 1e-12);
+		assertEquals(Math.sqrt(variance), statistics.getStandardDeviation(), 1e-12);
+		assertEquals(0.37, statistics.getMin());
+		assertEquals(0.51, statistics.getMax());
+	}
+
+	@Test
+	void combinedEqualsSequential() {
+		Random random = new Random(7);
+		RunningStatistics sequential = new RunningStatistics();
+		RunningStatistics left = new RunningStatistics();
+		RunningStatistics right = new RunningStatistics();
+		for (int i = 0; i < 10_000; i++) {
+			double value = 50 + 10 * random.nextGaussian();
+			sequential.accept(value);
+			(i % 3 == 0 ? left : right).accept(value);
+		}
+		RunningStatistics combined = left.combine(right);
+
+		assertEquals(sequential.getCount(), combined.getCount());
+		assertEquals(sequential.getMean(), combined.getMean(), 1e-9);
+		assertEquals(sequential.getStandardDeviation(), combined.getStandardDeviation(), 1e-9);
+		assertEquals(sequential.quantile(0.95), combined.quantile(0.95));
+	}
+
+	@Test
+	void quantilesStayWithinRelativeAccuracy() {
+		Random random = new Random(11);
+		double[] values = new double[100_000];
+		QuantileSketch sketch = new QuantileSketch(0.01);
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Math.exp(random.nextGaussian());
+			sketch.add(values[i]);
+		}
+		Arrays.sort(values);
+
+		for (double quantile : new double[]{0.05, 0.5, 0.95, 0.99}) {
+			double exact = values[(int) Math.floor(quantile * (values.length - 1))];
+			assertEquals(exact, sketch.quantile(quantile), exact * 0.01);
+		}
+	}
+
+	@Test
+	void emptySketchHasNoQuantiles() {
+		assertTrue(Double.isNaN(new QuantileSketch(0.01).quantile(0.5)));
+	}
+}
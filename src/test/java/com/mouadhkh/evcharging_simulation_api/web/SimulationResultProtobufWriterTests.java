@@ -0,0 +1,252 @@
+package com.mouadhkh.evcharging_simulation_api.web;
+
+import com.mouadhkh.evcharging_simulation_api.dto.SimulationResultDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Decodes the written bytes at the wire level and checks every field against its declaration in
+ * proto/simulation_result.proto, so the writer and the published schema cannot drift apart unnoticed.
+ */
+class SimulationResultProtobufWriterTests {
+	private static final Pattern FIELD = Pattern.compile("^\\s*(optional |repeated )?(map<\\w+, \\w+>|\\w+) (\\w+) = (\\d+);");
+
+	@Test
+	void everyFieldMatchesItsDeclaration() throws IOException {
+		Map<Integer, Field> declared = schema("SimulationResult");
+		Map<Integer, List<Object>> decoded = decode(SimulationResultProtobufWriter.encode(fullResult()));
+
+		assertEquals(declared.keySet(), decoded.keySet(), "fields written for a result with every value set");
+		for (Map.Entry<Integer, List<Object>> entry : decoded.entrySet()) {
+			Field field = declared.get(entry.getKey());
+			for (Object value : entry.getValue()) {
+				assertEquals(field.wireType(), wireType(value), "wire type of " + field.name());
+			}
+			if (!field.repeated()) {
+				assertEquals(1, entry.getValue().size(), "occurrences of " + field.name());
+			}
+		}
+	}
+
+	@Test
+	void roundTripsScalars() {
+		Map<Integer, List<Object>> decoded = decode(SimulationResultProtobufWriter.encode(fullResult()));
+
+		assertEquals(11L, varint(decoded, 1));
+		assertEquals(3L, varint(decoded, 2));
+		assertEquals(Instant.parse("2024-06-01T12:00:00Z").toEpochMilli(), varint(decoded, 3));
+		assertEquals(1234.5, fixed64(decoded, 4));
+		assertEquals(88.0, fixed64(decoded, 5));
+		assertEquals(110.0, fixed64(decoded, 6));
+		assertEquals(0.8, fixed64(decoded, 7));
+		assertEquals(-42L, varint(decoded, 8));
+		assertEquals("native", new String((byte[]) decoded.get(9).get(0), StandardCharsets.UTF_8));
+		assertEquals(250L, varint(decoded, 13));
+	}
+
+	@Test
+	void roundTripsPackedSeries() {
+		SimulationResultDTO result = fullResult();
+		Map<Integer, List<Object>> decoded = decode(SimulationResultProtobufWriter.encode(result));
+
+		// one length-delimited record per series, not one record per value
+		for (int field = 10; field <= 16; field++) {
+			assertEquals(1, decoded.get(field).size(), "records of field " + field);
+		}
+		assertArrayEquals(result.getExemplaryDay(), packedDoubles(decoded, 10));
+		assertArrayEquals(result.getUtilizationRates(), packedDoubles(decoded, 11));
+		assertArrayEquals(result.getAveragePowers(), packedDoubles(decoded, 12));
+		assertArrayEquals(result.getEventsPerMonth(), packedInts((byte[]) decoded.get(14).get(0)));
+		assertArrayEquals(result.getEventsPerWeek(), packedInts((byte[]) decoded.get(15).get(0)));
+		assertArrayEquals(result.getEventsPerDay(), packedInts((byte[]) decoded.get(16).get(0)));
+	}
+
+	@Test
+	void omitsEmptyAndMissingSeries() {
+		SimulationResultDTO result = SimulationResultDTO.builder()
+				.id(11L)
+				.simulationInputId(3L)
+				.engine("external")
+				.exemplaryDay(new double[0])
+				.eventsPerDay(new int[0])
+				.build();
+
+		Map<Integer, List<Object>> decoded = decode(SimulationResultProtobufWriter.encode(result));
+
+		// proto3 reads an absent repeated field as empty, and absent optional fields as unset
+		for (int field : new int[]{3, 8, 10, 11, 12, 14, 15, 16, 17}) {
+			assertFalse(decoded.containsKey(field), "field " + field + " written");
+		}
+		assertEquals(11L, varint(decoded, 1));
+		assertEquals(0L, varint(decoded, 13));
+	}
+
+	@Test
+	void writesSeriesIndicesAsMapEntries() throws IOException {
+		Map<Integer, Field> entryFields = schema("SeriesIndices");
+		assertEquals("indices", entryFields.get(1).name());
+		SimulationResultDTO result = fullResult();
+
+		Map<Integer, List<Object>> decoded = decode(SimulationResultProtobufWriter.encode(result));
+
+		Map<String, int[]> seriesIndices = new HashMap<>();
+		for (Object entry : decoded.get(17)) {
+			Map<Integer, List<Object>> mapEntry = decode((byte[]) entry);
+			String key = new String((byte[]) mapEntry.get(1).get(0), StandardCharsets.UTF_8);
+			Map<Integer, List<Object>> indices = decode((byte[]) mapEntry.get(2).get(0));
+			seriesIndices.put(key, indices.containsKey(1) ? packedInts((byte[]) indices.get(1).get(0)) : new int[0]);
+		}
+		assertEquals(result.getSeriesIndices().keySet(), seriesIndices.keySet());
+		result.getSeriesIndices().forEach((key, indices) -> assertArrayEquals(indices, seriesIndices.get(key), key));
+	}
+
+	private static SimulationResultDTO fullResult() {
+		Map<String, int[]> seriesIndices = new LinkedHashMap<>();
+		seriesIndices.put("exemplaryDay", new int[]{0, 3, 95});
+		seriesIndices.put("eventsPerDay", new int[]{0, 200, 364});
+		return SimulationResultDTO.builder()
+				.id(11L)
+				.simulationInputId(3L)
+				.createdAt(Instant.parse("2024-06-01T12:00:00Z"))
+				.totalEnergyCharged(1234.5)
+				.actualMaxPowerDemand(88.0)
+				.theoreticalMaxPowerDemand(110.0)
+				.concurrencyFactor(0.8)
+				.seed(-42L)
+				.engine("native")
+				.exemplaryDay(new double[]{0.0, 11.0, -0.0, Double.NaN, 1e-300})
+				.utilizationRates(new double[]{0.1, 0.2})
+				.averagePowers(new double[]{5.5})
+				.eventsPerYear(250)
+				.eventsPerMonth(new int[]{20, 0, 300})
+				// negative values are ten-byte varints
+				.eventsPerWeek(new int[]{-1, Integer.MIN_VALUE, Integer.MAX_VALUE})
+				.eventsPerDay(new int[]{1, 127, 128, 16384})
+				.seriesIndices(seriesIndices)
+				.build();
+	}
+
+	// field declarations of one message of the schema, by number
+	private static Map<Integer, Field> schema(String message) throws IOException {
+		String proto;
+		try (InputStream in = SimulationResultProtobufWriterTests.class.getResourceAsStream("/proto/simulation_result.proto")) {
+			assertNotNull(in, "schema on the classpath");
+			proto = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		Map<Integer, Field> fields = new TreeMap<>();
+		boolean inMessage = false;
+		for (String line : proto.split("\n")) {
+			if (line.startsWith("message ")) {
+				inMessage = line.startsWith("message " + message + " ");
+			} else if (inMessage) {
+				Matcher matcher = FIELD.matcher(line);
+				if (matcher.find()) {
+					fields.put(Integer.parseInt(matcher.group(4)),
+							new Field(matcher.group(1) == null ? "" : matcher.group(1).trim(), matcher.group(2), matcher.group(3)));
+				}
+			}
+		}
+		assertFalse(fields.isEmpty(), "message " + message + " in the schema");
+		return fields;
+	}
+
+	private record Field(String label, String type, String name) {
+
+		boolean repeated() {
+			return label.equals("repeated") || type.startsWith("map<");
+		}
+
+		// packed repeated scalars, strings, messages and map entries are length-delimited
+		int wireType() {
+			if (repeated() || type.equals("string") || type.equals("bytes")) {
+				return 2;
+			}
+			return type.equals("double") || type.equals("fixed64") ? 1 : 0;
+		}
+	}
+
+	private static int wireType(Object value) {
+		if (value instanceof byte[]) {
+			return 2;
+		}
+		return value instanceof Fixed64 ? 1 : 0;
+	}
+
+	private record Fixed64(long bits) {
+	}
+
+	// values by field number: Long for varints, Fixed64 and byte[] for length-delimited records
+	private static Map<Integer, List<Object>> decode(byte[] bytes) {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		Map<Integer, List<Object>> fields = new TreeMap<>();
+		while (buffer.hasRemaining()) {
+			long tag = readVarint(buffer);
+			int field = (int) (tag >>> 3);
+			Object value = switch ((int) (tag & 7)) {
+				case 0 -> readVarint(buffer);
+				case 1 -> new Fixed64(buffer.getLong());
+				case 2 -> {
+					byte[] record = new byte[(int) readVarint(buffer)];
+					buffer.get(record);
+					yield record;
+				}
+				default -> throw new AssertionError("Unexpected wire type in tag " + tag);
+			};
+			fields.computeIfAbsent(field, f -> new ArrayList<>()).add(value);
+		}
+		return fields;
+	}
+
+	private static long readVarint(ByteBuffer buffer) {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new AssertionError("Varint longer than ten bytes");
+	}
+
+	private static long varint(Map<Integer, List<Object>> decoded, int field) {
+		return (Long) decoded.get(field).get(0);
+	}
+
+	private static double fixed64(Map<Integer, List<Object>> decoded, int field) {
+		return Double.longBitsToDouble(((Fixed64) decoded.get(field).get(0)).bits());
+	}
+
+	private static double[] packedDoubles(Map<Integer, List<Object>> decoded, int field) {
+		byte[] record = (byte[]) decoded.get(field).get(0);
+		assertEquals(0, record.length % Double.BYTES, "packed doubles of field " + field);
+		double[] values = new double[record.length / Double.BYTES];
+		ByteBuffer.wrap(record).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(values);
+		return values;
+	}
+
+	private static int[] packedInts(byte[] record) {
+		ByteBuffer buffer = ByteBuffer.wrap(record);
+		List<Integer> values = new ArrayList<>();
+		while (buffer.hasRemaining()) {
+			values.add((int) readVarint(buffer));
+		}
+		return values.stream().mapToInt(Integer::intValue).toArray();
+	}
+}